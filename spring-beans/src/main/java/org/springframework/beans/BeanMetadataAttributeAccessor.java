@@ -5,15 +5,25 @@ import org.springframework.lang.Nullable;
 
 /**
  * 元数据属性访问器
+ * bean的元数据注册后会被多个线程同时读取，属性使用并发模式存储：读取不加锁，写入时复制后原子替换
  */
 public class BeanMetadataAttributeAccessor extends AttributeAccessorSupport implements BeanMetadataElement {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * 属性所属对象
      */
     @Nullable
     private Object source;
 
+    /**
+     * 构造并发模式的元数据属性访问器
+     */
+    public BeanMetadataAttributeAccessor(){
+        super(true);
+    }
+
     /**
      * 设置属性所属对象
      * @param source
@@ -0,0 +1,166 @@
+package org.springframework.beans;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * 按目标类型缓存转换后的值
+ * 目标类型是完整的泛型类型：Class按引用比较，带泛型参数的类型按equals比较，
+ * 擦除后相同的List<String>和List<Integer>分别缓存；
+ * 条目数组只读，读取时不加锁；写入时复制出新的数组并原子替换，同一目标类型只保留第一个写入的值，
+ * 多个线程同时转换时都会拿到同一个结果
+ */
+public final class ConvertedValueCache {
+
+    private static final Entry[] EMPTY_ENTRIES = new Entry[0];
+
+    /**
+     * 原子替换条目数组
+     */
+    private static final AtomicReferenceFieldUpdater<ConvertedValueCache,Entry[]> ENTRIES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(ConvertedValueCache.class,Entry[].class,"entries");
+
+    /**
+     * 缓存条目，一个值通常只会转换为少数几种类型，顺序查找
+     */
+    private volatile Entry[] entries = EMPTY_ENTRIES;
+
+    /**
+     * 构造空的缓存
+     */
+    public ConvertedValueCache(){
+    }
+
+    /**
+     * 复制缓存，复制后两个缓存各自写入，互不影响
+     * @param original 原缓存
+     */
+    public ConvertedValueCache(ConvertedValueCache original){
+        Assert.notNull(original,"Original cache must not be null");
+        //条目数组只读，可以直接共享
+        this.entries = original.entries;
+    }
+
+    /**
+     * 是否缓存了目标类型的转换结果
+     * @param targetType 目标类型
+     * @return
+     */
+    public boolean contains(Type targetType){
+        Assert.notNull(targetType,"Target type must not be null");
+        return find(this.entries,targetType) != null;
+    }
+
+    /**
+     * 获取目标类型的转换结果
+     * @param targetType 目标类型
+     * @return 没有缓存或者转换结果为null时返回null，通过contains区分
+     */
+    @Nullable
+    public Object get(Type targetType){
+        Assert.notNull(targetType,"Target type must not be null");
+        Entry entry = find(this.entries,targetType);
+        return (entry != null ? entry.value : null);
+    }
+
+    /**
+     * 目标类型没有缓存时放入转换结果
+     * @param targetType 目标类型
+     * @param convertedValue 转换结果
+     * @return 缓存中的转换结果，已经存在时返回先写入的值
+     */
+    @Nullable
+    public Object putIfAbsent(Type targetType,@Nullable Object convertedValue){
+        Assert.notNull(targetType,"Target type must not be null");
+        for(;;){
+            Entry[] current = this.entries;
+            Entry existing = find(current,targetType);
+            if(existing != null){
+                return existing.value;
+            }
+            Entry[] updated = Arrays.copyOf(current,current.length + 1);
+            updated[current.length] = new Entry(targetType,convertedValue);
+            if(ENTRIES_UPDATER.compareAndSet(this,current,updated)){
+                return convertedValue;
+            }
+        }
+    }
+
+    /**
+     * 获取目标类型的转换结果，没有缓存时转换并放入缓存
+     * 转换在锁外进行，并发时可能转换多次，但所有线程都返回第一个放入缓存的结果
+     * @param targetType 目标类型
+     * @param converter 转换函数
+     * @return
+     */
+    @Nullable
+    public Object computeIfAbsent(Type targetType,Function<? super Type,?> converter){
+        Assert.notNull(targetType,"Target type must not be null");
+        Assert.notNull(converter,"Converter must not be null");
+        Entry entry = find(this.entries,targetType);
+        if(entry != null){
+            return entry.value;
+        }
+        return putIfAbsent(targetType,converter.apply(targetType));
+    }
+
+    /**
+     * 获取缓存的目标类型数量
+     * @return
+     */
+    public int size(){
+        return this.entries.length;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear(){
+        this.entries = EMPTY_ENTRIES;
+    }
+
+    /**
+     * 查找目标类型的缓存条目，先按引用比较，Class只会命中这一步
+     * @param entries 缓存条目
+     * @param targetType 目标类型
+     * @return
+     */
+    @Nullable
+    private static Entry find(Entry[] entries,Type targetType){
+        for(Entry entry : entries){
+            if(entry.targetType == targetType){
+                return entry;
+            }
+        }
+        if(targetType instanceof Class){
+            return null;
+        }
+        for(Entry entry : entries){
+            if(entry.targetType.equals(targetType)){
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final Type targetType;
+
+        @Nullable
+        private final Object value;
+
+        Entry(Type targetType,@Nullable Object value){
+            this.targetType = targetType;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,657 @@
+package org.springframework.beans;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * 不可变的属性信息列表快照
+ * 快照创建后不再改变，可以不加复制地在线程之间共享；复制一个快照只需要返回它本身。
+ * 属性按名称保存在持久化的哈希字典树中，with/without只复制从根到被修改位置的路径上的节点，
+ * 其余节点在新旧快照之间共享，时间复杂度为O(log32 n)。
+ * 快照持有自己的只读PropertyValue，读取时直接返回共享的实例不再复制，
+ * 修改可选标记、转换结果、来源或元数据属性会抛出UnsupportedOperationException，按目标类型缓存转换结果仍然允许
+ */
+public final class ImmutablePropertyValues implements PropertyValues {
+
+    /**
+     * 空的快照
+     */
+    public static final ImmutablePropertyValues EMPTY = new ImmutablePropertyValues(null,0,0);
+
+    /**
+     * 每一层节点使用的哈希值位数
+     */
+    private static final int BITS_PER_LEVEL = 5;
+
+    /**
+     * 哈希值每一层的掩码
+     */
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    /**
+     * 字典树的根节点，空快照为null
+     */
+    @Nullable
+    private final Node root;
+
+    /**
+     * 属性数量
+     */
+    private final int size;
+
+    /**
+     * 下一个新增属性的顺序号，用于保持属性的添加顺序
+     */
+    private final long nextOrder;
+
+    /**
+     * 按添加顺序排列的属性信息，第一次需要顺序访问时延迟创建
+     */
+    @Nullable
+    private volatile PropertyValue[] orderedPropertyValues;
+
+    private ImmutablePropertyValues(@Nullable Node root,int size,long nextOrder){
+        this.root = root;
+        this.size = size;
+        this.nextOrder = nextOrder;
+    }
+
+    /**
+     * 基于给定的PropertyValues创建快照
+     * 如果给定的已经是快照直接返回，否则复制其中的每一个PropertyValue，重名时保留第一个
+     * @param original 原始的属性信息列表
+     * @return
+     */
+    public static ImmutablePropertyValues copyOf(@Nullable PropertyValues original){
+        if(original == null){
+            return EMPTY;
+        }
+        if(original instanceof ImmutablePropertyValues){
+            return (ImmutablePropertyValues) original;
+        }
+
+        Node root = null;
+        int size = 0;
+        for(PropertyValue pv : original.getPropetyValues()){
+            Entry entry = new Entry(new SharedPropertyValue(pv),size);
+            if(root == null || find(root,entry.name,entry.hash,0) == null){
+                root = put(root,entry,0);
+                size++;
+            }
+        }
+        return (size == 0 ? EMPTY : new ImmutablePropertyValues(root,size,size));
+    }
+
+    /**
+     * 返回一个设置了给定属性的新快照，已存在同名属性时在原位置替换它，否则追加到末尾
+     * 快照保存的是给定属性的只读副本
+     * @param pv 属性信息
+     * @return
+     */
+    public ImmutablePropertyValues with(PropertyValue pv){
+        Assert.notNull(pv,"PropertyValue must not be null");
+        String name = pv.getName();
+        Entry existing = (this.root != null ? find(this.root,name,hash(name),0) : null);
+        if(existing != null){
+            Entry entry = new Entry(new SharedPropertyValue(pv),existing.order);
+            return new ImmutablePropertyValues(put(this.root,entry,0),this.size,this.nextOrder);
+        }
+        Entry entry = new Entry(new SharedPropertyValue(pv),this.nextOrder);
+        return new ImmutablePropertyValues(put(this.root,entry,0),this.size + 1,this.nextOrder + 1);
+    }
+
+    /**
+     * 返回一个设置了给定属性的新快照
+     * @param propertyName 属性名
+     * @param propertyValue 属性值
+     * @return
+     */
+    public ImmutablePropertyValues with(String propertyName,@Nullable Object propertyValue){
+        return with(new PropertyValue(propertyName,propertyValue));
+    }
+
+    /**
+     * 返回一个删除了给定属性的新快照，不存在该属性时返回当前快照
+     * @param propertyName 属性名
+     * @return
+     */
+    public ImmutablePropertyValues without(String propertyName){
+        int hash = hash(propertyName);
+        if(this.root == null || find(this.root,propertyName,hash,0) == null){
+            return this;
+        }
+        if(this.size == 1){
+            return EMPTY;
+        }
+        return new ImmutablePropertyValues(remove(this.root,propertyName,hash,0),this.size - 1,this.nextOrder);
+    }
+
+    /**
+     * 获取大小
+     * @return
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * 获取顺序的迭代器（不支持删除），返回的是共享的只读属性信息
+     * @return
+     */
+    @Override
+    public Iterator<PropertyValue> iterator() {
+        PropertyValue[] pvs = getOrderedPropertyValues();
+        return new Iterator<PropertyValue>() {
+
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return this.cursor < pvs.length;
+            }
+
+            @Override
+            public PropertyValue next() {
+                if(this.cursor >= pvs.length){
+                    throw new NoSuchElementException();
+                }
+                return pvs[this.cursor++];
+            }
+        };
+    }
+
+    /**
+     * 获取并行的迭代器
+     * @return
+     */
+    @Override
+    public Spliterator<PropertyValue> spliterator() {
+        return Spliterators.spliterator(getPropetyValues(),Spliterator.IMMUTABLE | Spliterator.ORDERED);
+    }
+
+    /**
+     * 获取所有的属性信息
+     * @return 按添加顺序排列的只读属性信息，数组本身是新的
+     */
+    @Override
+    public PropertyValue[] getPropetyValues() {
+        return getOrderedPropertyValues().clone();
+    }
+
+    /**
+     * 根据属性名获取属性信息
+     * @param name 属性名
+     * @return 共享的只读属性信息
+     */
+    @Override
+    @Nullable
+    public PropertyValue getPropertyValue(String name) {
+        Entry entry = getEntry(name);
+        return entry != null ? entry.pv : null;
+    }
+
+    /**
+     * 获取属性值
+     * @param propertyName 属性名
+     * @return
+     */
+    @Nullable
+    public Object get(String propertyName){
+        Entry entry = getEntry(propertyName);
+        return entry != null ? entry.pv.getValue() : null;
+    }
+
+    /**
+     * 获取改变的属性列表
+     * @param old 旧的PropertyValues
+     * @return
+     */
+    @Override
+    public PropertyValues changesSince(PropertyValues old) {
+        MutablePropertyValues changes = new MutablePropertyValues();
+        visitChangesSince(old, new PropertyValueChangeVisitor() {
+            @Override
+            public void added(PropertyValue current) {
+                changes.addPropertyValue(new PropertyValue(current));
+            }
+
+            @Override
+            public void changed(PropertyValue oldPv, PropertyValue current) {
+                changes.addPropertyValue(new PropertyValue(current));
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * 将相对于旧的PropertyValues的差异逐个回调给访问器
+     * 旧的也是快照时直接比较两个快照内部的属性信息，回调的是共享的只读属性信息
+     * @param old 旧的PropertyValues
+     * @param visitor 差异访问器
+     */
+    @Override
+    public void visitChangesSince(PropertyValues old,PropertyValueChangeVisitor visitor) {
+        if(!(old instanceof ImmutablePropertyValues)){
+            PropertyValues.super.visitChangesSince(old,visitor);
+            return;
+        }
+        if(this == old || this.root == ((ImmutablePropertyValues) old).root){
+            return;
+        }
+
+        ImmutablePropertyValues oldSnapshot = (ImmutablePropertyValues) old;
+        for(PropertyValue currPv : getOrderedPropertyValues()){
+            Entry oldEntry = oldSnapshot.getEntry(currPv.getName());
+            if(oldEntry == null){
+                visitor.added(currPv);
+            }else if(!currPv.equals(oldEntry.pv)){
+                visitor.changed(oldEntry.pv,currPv);
+            }
+        }
+        for(PropertyValue oldPv : oldSnapshot.getOrderedPropertyValues()){
+            if(getEntry(oldPv.getName()) == null){
+                visitor.removed(oldPv);
+            }
+        }
+    }
+
+    /**
+     * 是否包含某个属性
+     * @param propertyName 属性名
+     * @return
+     */
+    @Override
+    public boolean contains(String propertyName) {
+        return getEntry(propertyName) != null;
+    }
+
+    /**
+     * 判断是否为空
+     * @return
+     */
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * 根据属性名查找字典树中的条目
+     * @param propertyName 属性名
+     * @return 不存在时返回null
+     */
+    @Nullable
+    private Entry getEntry(String propertyName){
+        return this.root != null ? find(this.root,propertyName,hash(propertyName),0) : null;
+    }
+
+    /**
+     * 获取按添加顺序排列的内部属性信息，数组不能交给调用者
+     * @return
+     */
+    private PropertyValue[] getOrderedPropertyValues(){
+        PropertyValue[] pvs = this.orderedPropertyValues;
+        if(pvs == null){
+            //快照不可变，多个线程同时创建结果也相同
+            Entry[] entries = new Entry[this.size];
+            if(this.root != null){
+                collect(this.root,entries,0);
+            }
+            Arrays.sort(entries,Comparator.comparingLong(entry -> entry.order));
+            pvs = new PropertyValue[entries.length];
+            for(int i=0;i<entries.length;i++){
+                pvs[i] = entries[i].pv;
+            }
+            this.orderedPropertyValues = pvs;
+        }
+        return pvs;
+    }
+
+    /**
+     * 判断两个对象相等
+     * @param other 另一个对象
+     * @return
+     */
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof ImmutablePropertyValues
+                && Arrays.equals(getOrderedPropertyValues(),((ImmutablePropertyValues) other).getOrderedPropertyValues()));
+    }
+
+    /**
+     * 获取哈希值
+     * @return
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getOrderedPropertyValues());
+    }
+
+    @Override
+    public String toString() {
+        if(this.size > 0){
+            return "PropertyValues  : length = " + this.size +";" + StringUtils.arrayToDelimitedString(getOrderedPropertyValues(),";");
+        }else{
+            return "PropertyValues  : length = 0";
+        }
+    }
+
+    /**
+     * 计算属性名的哈希值，高位参与运算
+     * @param name 属性名
+     * @return
+     */
+    private static int hash(String name){
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 在节点下查找属性名对应的条目
+     * @param node 节点
+     * @param name 属性名
+     * @param hash 属性名的哈希值
+     * @param shift 当前层使用的哈希值起始位
+     * @return 不存在时返回null
+     */
+    @Nullable
+    private static Entry find(Node node,String name,int hash,int shift){
+        while(true){
+            if(shift >= Integer.SIZE){
+                //哈希值完全相同的冲突节点，逐个比较
+                for(Object slot : node.slots){
+                    Entry entry = (Entry) slot;
+                    if(entry.name.equals(name)){
+                        return entry;
+                    }
+                }
+                return null;
+            }
+            int bit = bit(hash,shift);
+            if((node.bitmap & bit) == 0){
+                return null;
+            }
+            Object slot = node.slots[node.index(bit)];
+            if(slot instanceof Entry){
+                Entry entry = (Entry) slot;
+                return entry.hash == hash && entry.name.equals(name) ? entry : null;
+            }
+            node = (Node) slot;
+            shift += BITS_PER_LEVEL;
+        }
+    }
+
+    /**
+     * 放入条目，同名条目被替换，返回新的节点，原节点不变
+     * @param node 节点，为null时创建新节点
+     * @param entry 条目
+     * @param shift 当前层使用的哈希值起始位
+     * @return
+     */
+    private static Node put(@Nullable Node node,Entry entry,int shift){
+        if(node == null){
+            return new Node(bit(entry.hash,shift),new Object[] {entry});
+        }
+        if(shift >= Integer.SIZE){
+            for(int i=0;i<node.slots.length;i++){
+                if(((Entry) node.slots[i]).name.equals(entry.name)){
+                    return new Node(0,replace(node.slots,i,entry));
+                }
+            }
+            return new Node(0,insert(node.slots,node.slots.length,entry));
+        }
+
+        int bit = bit(entry.hash,shift);
+        int index = node.index(bit);
+        if((node.bitmap & bit) == 0){
+            return new Node(node.bitmap | bit,insert(node.slots,index,entry));
+        }
+        Object slot = node.slots[index];
+        Object newSlot;
+        if(slot instanceof Node){
+            newSlot = put((Node) slot,entry,shift + BITS_PER_LEVEL);
+        }else{
+            Entry existing = (Entry) slot;
+            if(existing.name.equals(entry.name)){
+                newSlot = entry;
+            }else{
+                newSlot = merge(existing,entry,shift + BITS_PER_LEVEL);
+            }
+        }
+        return new Node(node.bitmap,replace(node.slots,index,newSlot));
+    }
+
+    /**
+     * 创建同时包含两个条目的节点
+     * @param e1 条目1
+     * @param e2 条目2
+     * @param shift 新节点使用的哈希值起始位
+     * @return
+     */
+    private static Node merge(Entry e1,Entry e2,int shift){
+        if(shift >= Integer.SIZE){
+            return new Node(0,new Object[] {e1,e2});
+        }
+        int bit1 = bit(e1.hash,shift);
+        int bit2 = bit(e2.hash,shift);
+        if(bit1 == bit2){
+            return new Node(bit1,new Object[] {merge(e1,e2,shift + BITS_PER_LEVEL)});
+        }
+        return new Node(bit1 | bit2,(Integer.compareUnsigned(bit1,bit2) < 0 ? new Object[] {e1,e2} : new Object[] {e2,e1}));
+    }
+
+    /**
+     * 删除属性名对应的条目，返回新的节点，原节点不变
+     * @param node 节点
+     * @param name 属性名
+     * @param hash 属性名的哈希值
+     * @param shift 当前层使用的哈希值起始位
+     * @return 节点删除后为空时返回null
+     */
+    @Nullable
+    private static Node remove(Node node,String name,int hash,int shift){
+        if(shift >= Integer.SIZE){
+            for(int i=0;i<node.slots.length;i++){
+                if(((Entry) node.slots[i]).name.equals(name)){
+                    return (node.slots.length == 1 ? null : new Node(0,delete(node.slots,i)));
+                }
+            }
+            return node;
+        }
+
+        int bit = bit(hash,shift);
+        if((node.bitmap & bit) == 0){
+            return node;
+        }
+        int index = node.index(bit);
+        Object slot = node.slots[index];
+        Object newSlot;
+        if(slot instanceof Node){
+            Node child = remove((Node) slot,name,hash,shift + BITS_PER_LEVEL);
+            if(child == slot){
+                return node;
+            }
+            //只剩一个条目的子节点直接上移到当前层
+            newSlot = (child != null && child.slots.length == 1 && child.slots[0] instanceof Entry ? child.slots[0] : child);
+        }else{
+            if(!((Entry) slot).name.equals(name)){
+                return node;
+            }
+            newSlot = null;
+        }
+        if(newSlot != null){
+            return new Node(node.bitmap,replace(node.slots,index,newSlot));
+        }
+        if(node.slots.length == 1){
+            return null;
+        }
+        return new Node(node.bitmap & ~bit,delete(node.slots,index));
+    }
+
+    /**
+     * 收集节点下的所有条目
+     * @param node 节点
+     * @param entries 条目数组
+     * @param count 已收集的条目数量
+     * @return 收集后的条目数量
+     */
+    private static int collect(Node node,Entry[] entries,int count){
+        for(Object slot : node.slots){
+            if(slot instanceof Entry){
+                entries[count++] = (Entry) slot;
+            }else{
+                count = collect((Node) slot,entries,count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取哈希值在当前层对应的位
+     * @param hash 哈希值
+     * @param shift 当前层使用的哈希值起始位
+     * @return
+     */
+    private static int bit(int hash,int shift){
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    private static Object[] replace(Object[] slots,int index,Object slot){
+        Object[] newSlots = slots.clone();
+        newSlots[index] = slot;
+        return newSlots;
+    }
+
+    private static Object[] insert(Object[] slots,int index,Object slot){
+        Object[] newSlots = new Object[slots.length + 1];
+        System.arraycopy(slots,0,newSlots,0,index);
+        newSlots[index] = slot;
+        System.arraycopy(slots,index,newSlots,index + 1,slots.length - index);
+        return newSlots;
+    }
+
+    private static Object[] delete(Object[] slots,int index){
+        Object[] newSlots = new Object[slots.length - 1];
+        System.arraycopy(slots,0,newSlots,0,index);
+        System.arraycopy(slots,index + 1,newSlots,index,newSlots.length - index);
+        return newSlots;
+    }
+
+    /**
+     * 字典树的节点，创建后不再修改
+     * 位图中的每一位对应哈希值在当前层的一个取值，槽位按位的顺序保存条目或者子节点；
+     * 哈希值全部用完后的冲突节点位图为0，槽位中只保存条目
+     */
+    private static final class Node {
+
+        final int bitmap;
+
+        final Object[] slots;
+
+        Node(int bitmap,Object[] slots){
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        /**
+         * 获取位对应的槽位下标
+         * @param bit 位
+         * @return
+         */
+        int index(int bit){
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+    }
+
+    /**
+     * 字典树中的条目，保存快照的只读属性信息和它的添加顺序
+     */
+    private static final class Entry {
+
+        final String name;
+
+        final int hash;
+
+        final SharedPropertyValue pv;
+
+        final long order;
+
+        Entry(SharedPropertyValue pv,long order){
+            this.name = pv.getName();
+            this.hash = hash(this.name);
+            this.pv = pv;
+            this.order = order;
+        }
+    }
+
+    /**
+     * 快照中共享的只读属性信息
+     * 构造完成后拒绝修改可选标记、转换结果、来源和元数据属性，
+     * 按目标类型缓存转换结果只依赖不可变的属性值，仍然允许在线程之间共享
+     */
+    private static final class SharedPropertyValue extends PropertyValue {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 父类构造方法会复制来源和元数据属性，复制完成后才冻结
+         */
+        private final boolean frozen;
+
+        SharedPropertyValue(PropertyValue original){
+            super(original);
+            this.frozen = true;
+        }
+
+        @Override
+        public void setOptional(boolean optional) {
+            checkNotFrozen();
+            super.setOptional(optional);
+        }
+
+        @Override
+        public void setConverted(boolean converted) {
+            checkNotFrozen();
+            super.setConverted(converted);
+        }
+
+        @Override
+        public void setConvertedValue(@Nullable Object convertedValue) {
+            checkNotFrozen();
+            super.setConvertedValue(convertedValue);
+        }
+
+        @Override
+        public void setSource(@Nullable Object source) {
+            checkNotFrozen();
+            super.setSource(source);
+        }
+
+        @Override
+        public void addBeanMetadataAttribute(BeanMetadataAttribute attribute) {
+            checkNotFrozen();
+            super.addBeanMetadataAttribute(attribute);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            checkNotFrozen();
+            super.setAttribute(name,value);
+        }
+
+        @Override
+        @Nullable
+        public Object removeAttribute(String name) {
+            checkNotFrozen();
+            return super.removeAttribute(name);
+        }
+
+        private void checkNotFrozen(){
+            if(this.frozen){
+                throw new UnsupportedOperationException("PropertyValue '" + getName() + "' belongs to an ImmutablePropertyValues snapshot and cannot be modified");
+            }
+        }
+    }
+}
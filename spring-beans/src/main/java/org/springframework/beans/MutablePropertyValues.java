@@ -1,6 +1,7 @@
 package org.springframework.beans;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
@@ -26,6 +27,23 @@ public class MutablePropertyValues implements PropertyValues {
      */
     private volatile boolean converted;
 
+    /**
+     * 属性名到属性信息列表下标的索引，开启索引查找模式后才会创建
+     */
+    @Nullable
+    private Map<String,Integer> propertyValueIndex;
+
+    /**
+     * 建立索引时属性信息列表的大小，用于发现对列表的外部修改
+     */
+    private int indexedSize;
+
+    /**
+     * 属性信息列表是否已经通过getPropertyValueList暴露给外部
+     * 暴露之后外部可能做同样大小的替换修改，索引未命中时需要扫描列表确认
+     */
+    private boolean listExposed;
+
     /**
      * 无参沟槽属性信息列表
      */
@@ -44,6 +62,9 @@ public class MutablePropertyValues implements PropertyValues {
             for(PropertyValue propertyValue : pvs){
                 this.propertyValueList.add(new PropertyValue(propertyValue));
             }
+            if(original instanceof MutablePropertyValues && ((MutablePropertyValues) original).isIndexedLookup()){
+                rebuildIndex();
+            }
         }else{
             this.propertyValueList = new ArrayList<>(0);
         }
@@ -87,7 +108,7 @@ public class MutablePropertyValues implements PropertyValues {
         if(other != null){
             PropertyValue[] propertyValues = other.getPropetyValues();
             for(PropertyValue propertyValue : propertyValues){
-                this.propertyValueList.add(new PropertyValue(propertyValue));
+                appendPropertyValue(new PropertyValue(propertyValue));
             }
         }
         return this;
@@ -100,7 +121,7 @@ public class MutablePropertyValues implements PropertyValues {
      */
     public MutablePropertyValues addPropertyValues(@Nullable Map<?,?> other){
         if(other != null){
-            other.forEach((attributeName,attributeValue) -> this.propertyValueList.add(new PropertyValue(attributeName.toString(),attributeValue)));
+            other.forEach((attributeName,attributeValue) -> appendPropertyValue(new PropertyValue(attributeName.toString(),attributeValue)));
         }
         return this;
     }
@@ -111,20 +132,30 @@ public class MutablePropertyValues implements PropertyValues {
      * @return
      */
     public MutablePropertyValues addPropertyValue(PropertyValue pv){
-        for(int i=0;i<this.propertyValueList.size();i++){
-            PropertyValue currentPv = this.propertyValueList.get(i);
-            if(currentPv.getName().equals(pv.getName())){
-                //判断是否可以合并
-                pv = mergeIfRequired(currentPv,pv);
-                setPropertyValueAt(pv,i);
-                return this;
-            }
+        int index = indexOf(pv.getName());
+        if(index != -1){
+            //判断是否可以合并
+            PropertyValue currentPv = this.propertyValueList.get(index);
+            setPropertyValueAt(mergeIfRequired(currentPv,pv),index);
+            return this;
         }
 
-        this.propertyValueList.add(pv);
+        appendPropertyValue(pv);
         return this;
     }
 
+    /**
+     * 在列表末尾追加属性信息，并同步索引
+     * @param pv 属性信息
+     */
+    private void appendPropertyValue(PropertyValue pv){
+        this.propertyValueList.add(pv);
+        if(this.propertyValueIndex != null && this.indexedSize == this.propertyValueList.size() - 1){
+            this.propertyValueIndex.putIfAbsent(pv.getName(),this.propertyValueList.size() - 1);
+            this.indexedSize = this.propertyValueList.size();
+        }
+    }
+
     public PropertyValue mergeIfRequired(PropertyValue currPv,PropertyValue newPv){
         Object value = newPv.getValue();
         if(value instanceof Mergeable){
@@ -143,7 +174,11 @@ public class MutablePropertyValues implements PropertyValues {
      * @param index 指定下标
      */
     public void setPropertyValueAt(PropertyValue pv,int index){
-        this.propertyValueList.set(index,pv);
+        PropertyValue oldPv = this.propertyValueList.set(index,pv);
+        if(this.propertyValueIndex != null && !oldPv.getName().equals(pv.getName())){
+            //替换了不同名字的属性，重建索引以保证重名时仍然指向第一个
+            rebuildIndex();
+        }
     }
 
     /**
@@ -171,7 +206,10 @@ public class MutablePropertyValues implements PropertyValues {
      * @param pv 属性信息
      */
     public void removePropertyValue(PropertyValue pv){
-        this.propertyValueList.remove(pv);
+        int index = this.propertyValueList.indexOf(pv);
+        if(index != -1){
+            removePropertyValueAt(index);
+        }
     }
 
     /**
@@ -179,7 +217,124 @@ public class MutablePropertyValues implements PropertyValues {
      * @param propertyName 属性名
      */
     public void removePropertyValue(String propertyName){
-        this.propertyValueList.remove(getPropertyValue(propertyName));
+        int index = indexOf(propertyName);
+        if(index != -1){
+            removePropertyValueAt(index);
+        }
+    }
+
+    /**
+     * 删除指定下标处的属性信息，并同步索引
+     * @param index 下标
+     */
+    private void removePropertyValueAt(int index){
+        PropertyValue removed = this.propertyValueList.remove(index);
+        Map<String,Integer> propertyIndex = this.propertyValueIndex;
+        if(propertyIndex != null){
+            if(this.indexedSize != this.propertyValueList.size() + 1){
+                rebuildIndex();
+                return;
+            }
+            //删除后的元素整体前移，只需要修正被删除位置之后的索引
+            propertyIndex.remove(removed.getName(),index);
+            for(int i=index;i<this.propertyValueList.size();i++){
+                String name = this.propertyValueList.get(i).getName();
+                Integer position = propertyIndex.get(name);
+                if(position == null || position == i + 1){
+                    propertyIndex.put(name,i);
+                }
+            }
+            this.indexedSize = this.propertyValueList.size();
+        }
+    }
+
+    /**
+     * 设置是否开启索引查找模式
+     * 开启后会维护一个属性名到下标的哈希索引，getPropertyValue、contains、get、changesSince
+     * 等按名称查找的操作从线性扫描变为常数时间，适合属性很多的bean；属性的插入顺序保持不变
+     * @param indexedLookup 是否开启
+     */
+    public void setIndexedLookup(boolean indexedLookup){
+        if(indexedLookup){
+            if(this.propertyValueIndex == null){
+                rebuildIndex();
+            }
+        }else{
+            this.propertyValueIndex = null;
+        }
+    }
+
+    /**
+     * 是否开启了索引查找模式
+     * @return
+     */
+    public boolean isIndexedLookup(){
+        return this.propertyValueIndex != null;
+    }
+
+    /**
+     * 根据属性名获取在属性信息列表中的下标
+     * @param propertyName 属性名
+     * @return 不存在时返回-1
+     */
+    private int indexOf(String propertyName){
+        Map<String,Integer> index = this.propertyValueIndex;
+        if(index != null){
+            if(this.indexedSize != this.propertyValueList.size()){
+                //列表被外部修改过，重建索引
+                index = rebuildIndex();
+            }
+            Integer position = index.get(propertyName);
+            if(position == null){
+                if(this.listExposed && containsName(propertyName)){
+                    //列表被外部替换了元素，重建索引
+                    position = rebuildIndex().get(propertyName);
+                    return position != null ? position : -1;
+                }
+                return -1;
+            }
+            if(position < this.propertyValueList.size() && this.propertyValueList.get(position).getName().equals(propertyName)){
+                return position;
+            }
+            //索引与列表不一致，重建后再查一次
+            position = rebuildIndex().get(propertyName);
+            return position != null ? position : -1;
+        }
+
+        for(int i=0;i<this.propertyValueList.size();i++){
+            if(this.propertyValueList.get(i).getName().equals(propertyName)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 线性扫描属性信息列表是否包含指定属性名
+     * @param propertyName 属性名
+     * @return
+     */
+    private boolean containsName(String propertyName){
+        for(PropertyValue pv : this.propertyValueList){
+            if(pv.getName().equals(propertyName)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 根据属性信息列表重建索引，重名时指向第一个属性
+     * @return
+     */
+    private Map<String,Integer> rebuildIndex(){
+        Map<String,Integer> index = new HashMap<>((int)(this.propertyValueList.size() / 0.75f) + 1);
+        for(int i=0;i<this.propertyValueList.size();i++){
+            index.putIfAbsent(this.propertyValueList.get(i).getName(),i);
+        }
+        this.propertyValueIndex = index;
+        this.indexedSize = this.propertyValueList.size();
+        return index;
     }
 
     /**
@@ -216,12 +371,8 @@ public class MutablePropertyValues implements PropertyValues {
      */
     @Override
     public PropertyValue getPropertyValue(String name) {
-        for(PropertyValue pv : this.propertyValueList){
-            if(pv.getName().equals(name)){
-                return pv;
-            }
-        }
-        return null;
+        int index = indexOf(name);
+        return index != -1 ? this.propertyValueList.get(index) : null;
     }
 
     /**
@@ -243,17 +394,113 @@ public class MutablePropertyValues implements PropertyValues {
     @Override
     public PropertyValues changesSince(PropertyValues old) {
         MutablePropertyValues changes = new MutablePropertyValues();
+        visitChangesSince(old,new PropertyValueChangeVisitor() {
+            @Override
+            public void added(PropertyValue current) {
+                changes.addPropertyValue(current);
+            }
+
+            @Override
+            public void changed(PropertyValue oldPv, PropertyValue current) {
+                changes.addPropertyValue(current);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * 将相对于旧的PropertyValues的差异逐个回调给访问器
+     * 两边都按属性名严格有序时使用归并比较，一次遍历完成；否则按属性名查找（开启了索引查找模式时为常数时间）
+     * @param old 旧的PropertyValues
+     * @param visitor 差异访问器
+     */
+    @Override
+    public void visitChangesSince(PropertyValues old, PropertyValueChangeVisitor visitor) {
+        Assert.notNull(old,"Old PropertyValues must not be null");
+        Assert.notNull(visitor,"Visitor must not be null");
         if(this == old){
-            return changes;
+            return;
+        }
+
+        if(!(old instanceof MutablePropertyValues)){
+            PropertyValues.super.visitChangesSince(old,visitor);
+            return;
         }
 
-        for(PropertyValue currPv : this.propertyValueList){
-            PropertyValue oldPv = old.getPropertyValue(currPv.getName());
-            if(oldPv == null || !currPv.equals(oldPv)){
-                changes.addPropertyValue(currPv);
+        MutablePropertyValues oldPvs = (MutablePropertyValues) old;
+        if(isSortedByName(this.propertyValueList) && isSortedByName(oldPvs.propertyValueList)){
+            mergeChangesSince(oldPvs.propertyValueList,visitor);
+            return;
+        }
+
+        for(int i=0;i<this.propertyValueList.size();i++){
+            PropertyValue currPv = this.propertyValueList.get(i);
+            int oldIndex = oldPvs.indexOf(currPv.getName());
+            if(oldIndex == -1){
+                visitor.added(currPv);
+            }else{
+                PropertyValue oldPv = oldPvs.propertyValueList.get(oldIndex);
+                if(!currPv.equals(oldPv)){
+                    visitor.changed(oldPv,currPv);
+                }
             }
         }
-        return changes;
+
+        for(int i=0;i<oldPvs.propertyValueList.size();i++){
+            PropertyValue oldPv = oldPvs.propertyValueList.get(i);
+            if(indexOf(oldPv.getName()) == -1){
+                visitor.removed(oldPv);
+            }
+        }
+    }
+
+    /**
+     * 两边都按属性名严格有序时，归并比较两个属性信息列表
+     * @param oldList 旧的属性信息列表
+     * @param visitor 差异访问器
+     */
+    private void mergeChangesSince(List<PropertyValue> oldList,PropertyValueChangeVisitor visitor){
+        int i = 0;
+        int j = 0;
+        while(i < this.propertyValueList.size() && j < oldList.size()){
+            PropertyValue currPv = this.propertyValueList.get(i);
+            PropertyValue oldPv = oldList.get(j);
+            int comparison = currPv.getName().compareTo(oldPv.getName());
+            if(comparison < 0){
+                visitor.added(currPv);
+                i++;
+            }else if(comparison > 0){
+                visitor.removed(oldPv);
+                j++;
+            }else{
+                if(!currPv.equals(oldPv)){
+                    visitor.changed(oldPv,currPv);
+                }
+                i++;
+                j++;
+            }
+        }
+
+        for(;i<this.propertyValueList.size();i++){
+            visitor.added(this.propertyValueList.get(i));
+        }
+        for(;j<oldList.size();j++){
+            visitor.removed(oldList.get(j));
+        }
+    }
+
+    /**
+     * 判断属性信息列表是否按属性名严格递增（没有重名）
+     * @param propertyValueList 属性信息列表
+     * @return
+     */
+    private static boolean isSortedByName(List<PropertyValue> propertyValueList){
+        for(int i=1;i<propertyValueList.size();i++){
+            if(propertyValueList.get(i - 1).getName().compareTo(propertyValueList.get(i).getName()) >= 0){
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -324,11 +571,21 @@ public class MutablePropertyValues implements PropertyValues {
         }
     }
 
+    /**
+     * 创建当前属性信息列表的不可变快照
+     * 之后对当前对象的修改不会影响快照，快照可以在线程之间安全地共享
+     * @return
+     */
+    public ImmutablePropertyValues toImmutable(){
+        return ImmutablePropertyValues.copyOf(this);
+    }
+
     /**
      * 获取属性值信息列表
      * @return
      */
     public List<PropertyValue> getPropertyValueList(){
+        this.listExposed = true;
         return this.propertyValueList;
     }
 
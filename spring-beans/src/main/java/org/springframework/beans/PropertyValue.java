@@ -5,12 +5,15 @@ import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
 import java.io.Serializable;
+import java.lang.reflect.Type;
 
 /**
  * 保存bean单个属性信息
  */
 public class PropertyValue extends BeanMetadataAttributeAccessor implements Serializable {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * 属性名
      */
@@ -23,32 +26,10 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
     private final Object value;
 
     /**
-     * 是否可选
-     */
-    private boolean optional = false;
-
-    /**
-     * 是否已经转换
-     */
-    private boolean converted = false;
-
-    /**
-     * 转换过后的值
+     * 可选标记和转换状态，大部分属性值不会用到，第一次设置时才创建
      */
     @Nullable
-    private Object convertedValue;
-
-    /**
-     * 是否有必要转换
-     */
-    @Nullable
-    volatile Boolean conversionNecessary;
-
-    /**
-     * 解析令牌
-     */
-    @Nullable
-    transient volatile Object resolvedTokens;
+    private volatile ConversionState conversionState;
 
 
     /**
@@ -69,11 +50,10 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
     public PropertyValue(PropertyValue original){
         this.name = original.name;
         this.value = original.value;
-        this.optional = original.optional;
-        this.conversionNecessary = original.conversionNecessary;
-        this.converted = original.converted;
-        this.convertedValue = original.convertedValue;
-        this.resolvedTokens = original.resolvedTokens;
+        ConversionState originalState = original.conversionState;
+        if(originalState != null){
+            this.conversionState = new ConversionState(originalState,true);
+        }
         setSource(original.getSource());
         copyAttributesFrom(original);
     }
@@ -86,9 +66,11 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
     public PropertyValue(PropertyValue original,@Nullable Object newValue){
         this.name = original.name;
         this.value = newValue;
-        this.optional = original.optional;
-        this.conversionNecessary = original.conversionNecessary;
-        this.resolvedTokens = original.resolvedTokens;
+        ConversionState originalState = original.conversionState;
+        if(originalState != null){
+            //值已经改变，不复制转换结果
+            this.conversionState = new ConversionState(originalState,false);
+        }
         setSource(original.getSource());
         copyAttributesFrom(original);
     }
@@ -149,7 +131,9 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
      * @param optional 可选
      */
     public void setOptional(boolean optional){
-        this.optional = optional;
+        if(optional || this.conversionState != null){
+            obtainConversionState().optional = optional;
+        }
     }
 
     /**
@@ -157,7 +141,8 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
      * @return
      */
     public boolean isOptional(){
-        return this.optional;
+        ConversionState state = this.conversionState;
+        return (state != null && state.optional);
     }
 
     /**
@@ -165,7 +150,9 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
      * @param converted 是否转换
      */
     public void setConverted(boolean converted){
-        this.converted = converted;
+        if(converted || this.conversionState != null){
+            obtainConversionState().converted = converted;
+        }
     }
 
     /**
@@ -173,7 +160,8 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
      * @return
      */
     public boolean isConverted(){
-        return this.converted;
+        ConversionState state = this.conversionState;
+        return (state != null && state.converted);
     }
 
     /**
@@ -181,7 +169,9 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
      * @param convertedValue 转换后的值
      */
     public void setConvertedValue(@Nullable Object convertedValue){
-        this.convertedValue = convertedValue;
+        if(convertedValue != null || this.conversionState != null){
+            obtainConversionState().convertedValue = convertedValue;
+        }
     }
 
     /**
@@ -190,7 +180,123 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
      */
     @Nullable
     public Object getConvertedValue(){
-        return this.convertedValue;
+        ConversionState state = this.conversionState;
+        return (state != null ? state.convertedValue : null);
+    }
+
+    /**
+     * 是否缓存了指定目标类型的转换结果
+     * @param targetType 目标类型
+     * @return
+     */
+    public boolean isConverted(Type targetType){
+        ConvertedValueCache cache = getConvertedValueCacheIfExists();
+        return (cache != null && cache.contains(targetType));
+    }
+
+    /**
+     * 获取指定目标类型的转换结果
+     * @param targetType 目标类型
+     * @return
+     */
+    @Nullable
+    public Object getConvertedValue(Type targetType){
+        ConvertedValueCache cache = getConvertedValueCacheIfExists();
+        return (cache != null ? cache.get(targetType) : null);
+    }
+
+    /**
+     * 目标类型没有缓存时放入转换结果，多个线程同时转换时只保留第一个结果
+     * @param targetType 目标类型
+     * @param convertedValue 转换结果
+     * @return 缓存中的转换结果
+     */
+    @Nullable
+    public Object setConvertedValueIfAbsent(Type targetType,@Nullable Object convertedValue){
+        return getConvertedValueCache().putIfAbsent(targetType,convertedValue);
+    }
+
+    /**
+     * 获取按目标类型缓存转换结果的缓存，不存在时创建
+     * @return
+     */
+    public ConvertedValueCache getConvertedValueCache(){
+        ConversionState state = obtainConversionState();
+        ConvertedValueCache cache = state.convertedValueCache;
+        if(cache == null){
+            synchronized (this){
+                cache = state.convertedValueCache;
+                if(cache == null){
+                    cache = new ConvertedValueCache();
+                    state.convertedValueCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    @Nullable
+    private ConvertedValueCache getConvertedValueCacheIfExists(){
+        ConversionState state = this.conversionState;
+        return (state != null ? state.convertedValueCache : null);
+    }
+
+    /**
+     * 设置是否有必要转换
+     * @param conversionNecessary 是否有必要转换，null表示未知
+     */
+    void setConversionNecessary(@Nullable Boolean conversionNecessary){
+        if(conversionNecessary != null || this.conversionState != null){
+            obtainConversionState().conversionNecessary = conversionNecessary;
+        }
+    }
+
+    /**
+     * 获取是否有必要转换
+     * @return null表示未知
+     */
+    @Nullable
+    Boolean getConversionNecessary(){
+        ConversionState state = this.conversionState;
+        return (state != null ? state.conversionNecessary : null);
+    }
+
+    /**
+     * 设置解析令牌
+     * @param resolvedTokens 解析令牌
+     */
+    void setResolvedTokens(@Nullable Object resolvedTokens){
+        if(resolvedTokens != null || this.conversionState != null){
+            obtainConversionState().resolvedTokens = resolvedTokens;
+        }
+    }
+
+    /**
+     * 获取解析令牌
+     * @return
+     */
+    @Nullable
+    Object getResolvedTokens(){
+        ConversionState state = this.conversionState;
+        return (state != null ? state.resolvedTokens : null);
+    }
+
+    /**
+     * 获取转换状态，不存在时创建
+     * @return
+     */
+    private ConversionState obtainConversionState(){
+        ConversionState state = this.conversionState;
+        if(state == null){
+            synchronized (this){
+                state = this.conversionState;
+                if(state == null){
+                    state = new ConversionState();
+                    this.conversionState = state;
+                }
+            }
+        }
+        return state;
     }
 
     /**
@@ -206,4 +312,69 @@ public class PropertyValue extends BeanMetadataAttributeAccessor implements Seri
         }
         return original;
     }
+
+    /**
+     * 属性值的可选标记和转换状态
+     */
+    private static final class ConversionState implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 是否可选
+         */
+        volatile boolean optional;
+
+        /**
+         * 是否已经转换
+         */
+        volatile boolean converted;
+
+        /**
+         * 转换过后的值
+         */
+        @Nullable
+        volatile Object convertedValue;
+
+        /**
+         * 是否有必要转换
+         */
+        @Nullable
+        volatile Boolean conversionNecessary;
+
+        /**
+         * 解析令牌
+         */
+        @Nullable
+        transient volatile Object resolvedTokens;
+
+        /**
+         * 按目标类型缓存的转换结果
+         */
+        @Nullable
+        transient volatile ConvertedValueCache convertedValueCache;
+
+        ConversionState(){
+        }
+
+        /**
+         * 复制转换状态
+         * @param original 原转换状态
+         * @param copyConversionResult 是否复制转换结果
+         */
+        ConversionState(ConversionState original,boolean copyConversionResult){
+            this.optional = original.optional;
+            this.conversionNecessary = original.conversionNecessary;
+            this.resolvedTokens = original.resolvedTokens;
+            if(copyConversionResult){
+                this.converted = original.converted;
+                this.convertedValue = original.convertedValue;
+                //值相同，复制已有的转换结果，之后各自写入
+                ConvertedValueCache originalCache = original.convertedValueCache;
+                if(originalCache != null){
+                    this.convertedValueCache = new ConvertedValueCache(originalCache);
+                }
+            }
+        }
+    }
 }
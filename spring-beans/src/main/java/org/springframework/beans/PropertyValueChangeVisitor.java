@@ -0,0 +1,30 @@
+package org.springframework.beans;
+
+/**
+ * 属性信息变化访问器
+ * 用于流式接收两个PropertyValues之间的差异，不需要构建中间的集合
+ */
+public interface PropertyValueChangeVisitor {
+
+    /**
+     * 新增的属性（旧的PropertyValues中不存在）
+     * @param current 当前的属性信息
+     */
+    default void added(PropertyValue current){
+    }
+
+    /**
+     * 删除的属性（当前的PropertyValues中不存在）
+     * @param old 旧的属性信息
+     */
+    default void removed(PropertyValue old){
+    }
+
+    /**
+     * 发生变化的属性
+     * @param old 旧的属性信息
+     * @param current 当前的属性信息
+     */
+    default void changed(PropertyValue old,PropertyValue current){
+    }
+}
@@ -62,6 +62,33 @@ public interface PropertyValues extends Iterable<PropertyValue> {
      */
     PropertyValues changesSince(PropertyValues old);
 
+    /**
+     * 将相对于旧的PropertyValues的差异逐个回调给访问器，不构建中间的集合
+     * 新增、删除、变化的属性分别回调added、removed、changed，回调顺序不做保证
+     * @param old 旧的PropertyValues
+     * @param visitor 差异访问器
+     */
+    default void visitChangesSince(PropertyValues old,PropertyValueChangeVisitor visitor){
+        if(this == old){
+            return;
+        }
+
+        for(PropertyValue currPv : this){
+            PropertyValue oldPv = old.getPropertyValue(currPv.getName());
+            if(oldPv == null){
+                visitor.added(currPv);
+            }else if(!currPv.equals(oldPv)){
+                visitor.changed(oldPv,currPv);
+            }
+        }
+
+        for(PropertyValue oldPv : old){
+            if(getPropertyValue(oldPv.getName()) == null){
+                visitor.removed(oldPv);
+            }
+        }
+    }
+
     /**
      * 是否包含某个属性名
      * @param propertyName
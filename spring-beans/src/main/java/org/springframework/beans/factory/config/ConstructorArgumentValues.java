@@ -1,13 +1,17 @@
 package org.springframework.beans.factory.config;
 
 import org.springframework.beans.BeanMetadataElement;
+import org.springframework.beans.ConvertedValueCache;
 import org.springframework.beans.Mergeable;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
 
 /**
  * 构造方法参数值
@@ -15,15 +19,27 @@ import java.util.*;
 public class ConstructorArgumentValues {
 
     /**
-     * 指定构造函数参数值索引的集合
+     * 指定构造函数参数值索引的集合，下标连续时使用数组存储，不对下标装箱
      */
-    private final Map<Integer,ValueHolder> indexedArgumentValues = new LinkedHashMap<>();
+    private final IndexedArgumentValues indexedArgumentValues = new IndexedArgumentValues();
 
     /**
      * 常规的构造函数参数值列表
      */
     private final List<ValueHolder> genericArgumentValues = new ArrayList<>();
 
+    /**
+     * 常规参数值的查找索引，常规参数值列表变化后失效，查找时延迟重建
+     */
+    @Nullable
+    private volatile GenericArgumentIndex genericArgumentIndex;
+
+    /**
+     * 常规参数值的名称和类型被修改的次数，由所属的参数值持有者在修改时累加，
+     * 用于以O(1)判断常规参数值索引是否过期
+     */
+    private final AtomicInteger genericArgumentModifications = new AtomicInteger();
+
     /**
      * 无参的构造函数
      */
@@ -46,7 +62,7 @@ public class ConstructorArgumentValues {
     public void addArgumentValues(@Nullable  ConstructorArgumentValues other){
         if(other != null){
             other.indexedArgumentValues.forEach(
-                    (index,argValue) -> addOrMergeIndexedArgumentValue(index,argValue.copy())
+                    (argValue,index) -> addOrMergeIndexedArgumentValue(index,argValue.copy())
             );
 
             other.genericArgumentValues.stream().filter(valueHolder -> !this.genericArgumentValues.contains(valueHolder)).forEach(
@@ -78,6 +94,7 @@ public class ConstructorArgumentValues {
      * @param newValue
      */
     public void addOrMergeGenericArgumentValue(ValueHolder newValue){
+       this.genericArgumentIndex = null;
        if(newValue.getValue() != null){
            for(Iterator<ValueHolder> it = this.genericArgumentValues.iterator();it.hasNext();){
                ValueHolder currValue = it.next();
@@ -89,11 +106,13 @@ public class ConstructorArgumentValues {
                        }
                    }
                    it.remove();
+                   currValue.removeOwner(this.genericArgumentModifications);
                }
            }
        }
 
        this.genericArgumentValues.add(newValue);
+       newValue.addOwner(this.genericArgumentModifications);
 
     }
 
@@ -168,9 +187,9 @@ public class ConstructorArgumentValues {
     @Nullable
     public ValueHolder getIndexedArgumentValue(int index,@Nullable  Class<?> requiredType,@Nullable  String requiredName){
         Assert.isTrue(index >=0,"Index must be negative");
-        if(this.indexedArgumentValues.containsKey(index)){
-            ValueHolder valueHolder = this.indexedArgumentValues.get(index);
-            if(valueHolder != null && (valueHolder.getType() == null ||
+        ValueHolder valueHolder = this.indexedArgumentValues.get(index);
+        if(valueHolder != null){
+            if((valueHolder.getType() == null ||
                     (valueHolder.getType() != null && ClassUtils.matchesTypeName(requiredType,valueHolder.getType())))&&(
                     (valueHolder.getName() == null || "".equals(valueHolder.getName())) || (requiredName.equals(valueHolder.getName()))
                     )){
@@ -221,32 +240,101 @@ public class ConstructorArgumentValues {
      */
     @Nullable
     public ValueHolder getGenericArgumentValue(@Nullable  Class<?> requiredType,@Nullable  String requiredName,@Nullable Set<ValueHolder> usedValueHolders){
-        for(ValueHolder valueHolder : this.genericArgumentValues){
-            //如果正在使用
-            if(usedValueHolders != null && usedValueHolders.contains(valueHolder)){
-                continue;
-            }
+        GenericArgumentIndex index = getGenericArgumentIndex();
+        ValueHolder[] holders = index.holders;
 
-            //判断名字是否一样
-            if(valueHolder.getName() != null && !"".equals(valueHolder.getName()) && (
-                    requiredName == null || !valueHolder.getName().equals(requiredName))){
-                continue;
+        //只有下面几组候选者可能匹配，取其中在列表里位置最靠前的一个
+        int position = holders.length;
+        if(requiredName != null){
+            position = findFirstMatch(holders,index.byName.get(requiredName),position,requiredType,requiredName,usedValueHolders);
+        }
+        if(requiredType != null){
+            String typeName = requiredType.getTypeName();
+            position = findFirstMatch(holders,index.byType.get(typeName),position,requiredType,requiredName,usedValueHolders);
+            String simpleName = requiredType.getSimpleName();
+            if(!simpleName.equals(typeName)){
+                position = findFirstMatch(holders,index.byType.get(simpleName),position,requiredType,requiredName,usedValueHolders);
             }
+        }
+        position = findFirstMatch(holders,index.untyped,position,requiredType,requiredName,usedValueHolders);
 
-            if(valueHolder.getType() != null&&(
-                    requiredType == null || !ClassUtils.matchesTypeName(requiredType,valueHolder.getType()))){
-                continue;
-            }
+        return position < holders.length ? holders[position] : null;
+    }
 
-            if (requiredType != null && valueHolder.getType() == null && valueHolder.getName() == null &&
-                    !ClassUtils.isAssignableValue(requiredType, valueHolder.getValue())) {
-                continue;
+    /**
+     * 在一组候选者中查找第一个匹配的参数值持有者
+     * @param holders 建立索引时的常规参数值
+     * @param candidates 候选者在常规参数值列表中的位置（升序）
+     * @param limit 已经找到的匹配位置，只查找比它靠前的候选者
+     * @param requiredType 参数值类型
+     * @param requiredName 参数名
+     * @param usedValueHolders 正在使用的参数值持有者
+     * @return 匹配的位置，没有更靠前的匹配时返回limit
+     */
+    private int findFirstMatch(ValueHolder[] holders,@Nullable int[] candidates,int limit,@Nullable Class<?> requiredType,@Nullable String requiredName,
+                               @Nullable Set<ValueHolder> usedValueHolders){
+        if(candidates == null){
+            return limit;
+        }
+
+        for(int position : candidates){
+            if(position >= limit){
+                break;
+            }
+            if(matchesGenericArgumentValue(holders[position],requiredType,requiredName,usedValueHolders)){
+                return position;
             }
+        }
+        return limit;
+    }
 
-            return valueHolder;
+    /**
+     * 判断常规参数值持有者是否匹配
+     * @param valueHolder 参数值持有者
+     * @param requiredType 参数值类型
+     * @param requiredName 参数名
+     * @param usedValueHolders 正在使用的参数值持有者
+     * @return
+     */
+    private boolean matchesGenericArgumentValue(ValueHolder valueHolder,@Nullable Class<?> requiredType,@Nullable String requiredName,
+                                                @Nullable Set<ValueHolder> usedValueHolders){
+        //如果正在使用
+        if(usedValueHolders != null && usedValueHolders.contains(valueHolder)){
+            return false;
         }
 
-        return null;
+        //判断名字是否一样
+        if(valueHolder.getName() != null && !"".equals(valueHolder.getName()) && (
+                requiredName == null || !valueHolder.getName().equals(requiredName))){
+            return false;
+        }
+
+        if(valueHolder.getType() != null&&(
+                requiredType == null || !ClassUtils.matchesTypeName(requiredType,valueHolder.getType()))){
+            return false;
+        }
+
+        if (requiredType != null && valueHolder.getType() == null && valueHolder.getName() == null &&
+                !ClassUtils.isAssignableValue(requiredType, valueHolder.getValue())) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * 获取常规参数值的查找索引，不存在或已过期时重建
+     * @return
+     */
+    private GenericArgumentIndex getGenericArgumentIndex(){
+        GenericArgumentIndex index = this.genericArgumentIndex;
+        if(index == null || index.modifications != this.genericArgumentModifications.get()){
+            //先读取修改次数再建立索引，建立期间发生的修改会让索引在下次查找时过期
+            int modifications = this.genericArgumentModifications.get();
+            index = new GenericArgumentIndex(this.genericArgumentValues,modifications);
+            this.genericArgumentIndex = index;
+        }
+        return index;
     }
 
     /**
@@ -317,7 +405,11 @@ public class ConstructorArgumentValues {
      */
     public void clear(){
         this.indexedArgumentValues.clear();
+        for(ValueHolder valueHolder : this.genericArgumentValues){
+            valueHolder.removeOwner(this.genericArgumentModifications);
+        }
         this.genericArgumentValues.clear();
+        this.genericArgumentIndex = null;
     }
 
     /**
@@ -351,14 +443,7 @@ public class ConstructorArgumentValues {
             }
         }
 
-        for(Map.Entry<Integer,ValueHolder> entry : this.indexedArgumentValues.entrySet()){
-            ValueHolder vh1 = entry.getValue();
-            ValueHolder vh2 = that.indexedArgumentValues.get(entry.getKey());
-            if(!vh1.equals(vh2)){
-                return false;
-            }
-        }
-        return true;
+        return this.indexedArgumentValues.contentEquals(that.indexedArgumentValues);
     }
 
     /**
@@ -372,18 +457,15 @@ public class ConstructorArgumentValues {
             hashCode = 31 * hashCode + valueHolder.contentHashCode();
         }
         hashCode = 29 * hashCode;
-        for (Map.Entry<Integer, ValueHolder> entry : this.indexedArgumentValues.entrySet()) {
-            hashCode = 31 * hashCode + (entry.getValue().contentHashCode() ^ entry.getKey().hashCode());
-        }
-        return hashCode;
+        return this.indexedArgumentValues.contentHashCode(hashCode);
     }
 
     /**
-     * 获取带下标的参数值集合
+     * 获取带下标的参数值集合，按下标升序排列
      * @return
      */
     public Map<Integer,ValueHolder> getIndexedArgumentValue(){
-        return Collections.unmodifiableMap(this.indexedArgumentValues);
+        return this.indexedArgumentValues.asMap();
     }
 
     /**
@@ -411,11 +493,254 @@ public class ConstructorArgumentValues {
         return (this.indexedArgumentValues.isEmpty() && this.genericArgumentValues.isEmpty());
     }
 
+    /**
+     * 带下标的参数值存储
+     * 下标通常从0开始连续，小于DENSE_LIMIT的下标直接存放在数组中，查找和判断是否存在都不需要装箱；
+     * 超出范围的下标（包括负数下标）退回到按下标排序的稀疏集合中
+     */
+    private static final class IndexedArgumentValues {
+
+        /**
+         * 共享的空数组，没有带下标参数值时不分配数组
+         */
+        private static final ValueHolder[] EMPTY_VALUE_HOLDERS = new ValueHolder[0];
+
+        /**
+         * 使用数组存储的下标上限
+         */
+        private static final int DENSE_LIMIT = 256;
+
+        /**
+         * 下标小于DENSE_LIMIT的参数值，数组下标即参数下标，空位为null
+         */
+        private ValueHolder[] dense = EMPTY_VALUE_HOLDERS;
+
+        /**
+         * 下标为负数或者不小于DENSE_LIMIT的参数值，用到时才创建
+         */
+        @Nullable
+        private TreeMap<Integer,ValueHolder> sparse;
+
+        /**
+         * 按下标升序排列的只读视图，第一次获取时创建，修改后失效
+         */
+        @Nullable
+        private Map<Integer,ValueHolder> mapView;
+
+        /**
+         * 参数值数量
+         */
+        private int size;
+
+        @Nullable
+        ValueHolder get(int index){
+            if(isDense(index)){
+                return (index < this.dense.length ? this.dense[index] : null);
+            }
+            return (this.sparse != null ? this.sparse.get(index) : null);
+        }
+
+        /**
+         * 判断下标是否存放在数组中
+         * @param index 下标
+         * @return
+         */
+        private static boolean isDense(int index){
+            return index >= 0 && index < DENSE_LIMIT;
+        }
+
+        boolean containsKey(int index){
+            return get(index) != null;
+        }
+
+        void put(int index,ValueHolder valueHolder){
+            ValueHolder oldValue;
+            if(isDense(index)){
+                if(index >= this.dense.length){
+                    int newLength = Math.min(DENSE_LIMIT,Math.max(index + 1,this.dense.length * 2));
+                    this.dense = Arrays.copyOf(this.dense,newLength);
+                }
+                oldValue = this.dense[index];
+                this.dense[index] = valueHolder;
+            }else{
+                if(this.sparse == null){
+                    this.sparse = new TreeMap<>();
+                }
+                oldValue = this.sparse.put(index,valueHolder);
+            }
+            if(oldValue == null){
+                this.size++;
+            }
+            this.mapView = null;
+        }
+
+        int size(){
+            return this.size;
+        }
+
+        boolean isEmpty(){
+            return this.size == 0;
+        }
+
+        void clear(){
+            this.dense = EMPTY_VALUE_HOLDERS;
+            this.sparse = null;
+            this.size = 0;
+            this.mapView = null;
+        }
+
+        /**
+         * 按下标升序遍历参数值
+         * @param action 参数为参数值持有者和下标
+         */
+        void forEach(ObjIntConsumer<ValueHolder> action){
+            if(this.sparse != null){
+                for(Map.Entry<Integer,ValueHolder> entry : this.sparse.headMap(0).entrySet()){
+                    action.accept(entry.getValue(),entry.getKey());
+                }
+            }
+            for(int i=0;i<this.dense.length;i++){
+                if(this.dense[i] != null){
+                    action.accept(this.dense[i],i);
+                }
+            }
+            if(this.sparse != null){
+                for(Map.Entry<Integer,ValueHolder> entry : this.sparse.tailMap(DENSE_LIMIT).entrySet()){
+                    action.accept(entry.getValue(),entry.getKey());
+                }
+            }
+        }
+
+        boolean contentEquals(IndexedArgumentValues other){
+            if(this.size != other.size){
+                return false;
+            }
+            for(int i=0;i<this.dense.length;i++){
+                if(this.dense[i] != null && !this.dense[i].equals(other.get(i))){
+                    return false;
+                }
+            }
+            if(this.sparse != null){
+                for(Map.Entry<Integer,ValueHolder> entry : this.sparse.entrySet()){
+                    if(!entry.getValue().equals(other.get(entry.getKey()))){
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        int contentHashCode(int hashCode){
+            for(int i=0;i<this.dense.length;i++){
+                if(this.dense[i] != null){
+                    hashCode = 31 * hashCode + (this.dense[i].contentHashCode() ^ i);
+                }
+            }
+            if(this.sparse != null){
+                for(Map.Entry<Integer,ValueHolder> entry : this.sparse.entrySet()){
+                    hashCode = 31 * hashCode + (entry.getValue().contentHashCode() ^ entry.getKey());
+                }
+            }
+            return hashCode;
+        }
+
+        /**
+         * 获取按下标升序排列的只读视图，没有修改时重复获取返回同一个视图
+         * @return
+         */
+        Map<Integer,ValueHolder> asMap(){
+            Map<Integer,ValueHolder> map = this.mapView;
+            if(map == null){
+                if(this.size == 0){
+                    map = Collections.emptyMap();
+                }else{
+                    Map<Integer,ValueHolder> copy = new LinkedHashMap<>((int)(this.size / 0.75f) + 1);
+                    forEach((valueHolder,index) -> copy.put(index,valueHolder));
+                    map = Collections.unmodifiableMap(copy);
+                }
+                this.mapView = map;
+            }
+            return map;
+        }
+    }
+
+    /**
+     * 常规参数值的查找索引
+     * 按参数名、声明的参数类型对常规参数值分组，每组记录在列表中的位置（升序），创建后不再修改
+     */
+    private static final class GenericArgumentIndex {
+
+        /**
+         * 建立索引时的常规参数值
+         */
+        final ValueHolder[] holders;
+
+        /**
+         * 参数名 -> 有参数名的参数值持有者位置
+         */
+        final Map<String,int[]> byName;
+
+        /**
+         * 声明的参数类型 -> 没有参数名但声明了类型的参数值持有者位置
+         */
+        final Map<String,int[]> byType;
+
+        /**
+         * 没有参数名也没有声明类型的参数值持有者位置
+         */
+        final int[] untyped;
+
+        /**
+         * 建立索引时所属实例的常规参数值修改次数
+         */
+        final int modifications;
+
+        GenericArgumentIndex(List<ValueHolder> genericArgumentValues,int modifications){
+            this.holders = genericArgumentValues.toArray(new ValueHolder[0]);
+            this.modifications = modifications;
+            Map<String,List<Integer>> byName = new HashMap<>();
+            Map<String,List<Integer>> byType = new HashMap<>();
+            List<Integer> untyped = new ArrayList<>();
+            for(int i=0;i<this.holders.length;i++){
+                ValueHolder valueHolder = this.holders[i];
+                if(valueHolder.getName() != null && !"".equals(valueHolder.getName())){
+                    byName.computeIfAbsent(valueHolder.getName(),key -> new ArrayList<>(1)).add(i);
+                }else if(valueHolder.getType() != null){
+                    byType.computeIfAbsent(valueHolder.getType(),key -> new ArrayList<>(1)).add(i);
+                }else{
+                    untyped.add(i);
+                }
+            }
+            this.byName = toPositions(byName);
+            this.byType = toPositions(byType);
+            this.untyped = toArray(untyped);
+        }
+
+        private static Map<String,int[]> toPositions(Map<String,List<Integer>> groups){
+            if(groups.isEmpty()){
+                return Collections.emptyMap();
+            }
+            Map<String,int[]> positions = new HashMap<>((int)(groups.size() / 0.75f) + 1);
+            groups.forEach((key,value) -> positions.put(key,toArray(value)));
+            return positions;
+        }
+
+        private static int[] toArray(List<Integer> list){
+            int[] array = new int[list.size()];
+            for(int i=0;i<array.length;i++){
+                array[i] = list.get(i);
+            }
+            return array;
+        }
+    }
+
     /**
      * 参数值持有者
      */
     public static class ValueHolder implements BeanMetadataElement {
 
+        private static final AtomicInteger[] NO_OWNERS = new AtomicInteger[0];
+
         /**
          * 参数值
          */
@@ -438,16 +763,28 @@ public class ConstructorArgumentValues {
          */
         private Object source;
 
+        /**
+         * 持有当前参数值的实例的修改计数器，修改名称和类型时逐个累加，
+         * 通常只有一个，写时复制
+         */
+        private volatile AtomicInteger[] ownerModifications = NO_OWNERS;
+
         /**
          * 是否已转化
          */
-        private boolean converted;
+        private volatile boolean converted;
 
         /**
          * 转换为指定类型后的值
          */
         @Nullable
-        private Object convertedValue;
+        private volatile Object convertedValue;
+
+        /**
+         * 按目标类型缓存的转换结果，第一次使用时创建
+         */
+        @Nullable
+        private volatile ConvertedValueCache convertedValueCache;
 
         /**
          * 通过指定值构造参数值持有者
@@ -496,6 +833,48 @@ public class ConstructorArgumentValues {
             return ObjectUtils.nullSafeHashCode(this.value) * 29 + ObjectUtils.nullSafeHashCode(this.type);
         }
 
+        /**
+         * 登记持有当前参数值的实例的修改计数器
+         * @param modifications 修改计数器
+         */
+        private synchronized void addOwner(AtomicInteger modifications){
+            AtomicInteger[] owners = this.ownerModifications;
+            for(AtomicInteger owner : owners){
+                if(owner == modifications){
+                    return;
+                }
+            }
+            AtomicInteger[] newOwners = Arrays.copyOf(owners,owners.length + 1);
+            newOwners[owners.length] = modifications;
+            this.ownerModifications = newOwners;
+        }
+
+        /**
+         * 取消登记修改计数器
+         * @param modifications 修改计数器
+         */
+        private synchronized void removeOwner(AtomicInteger modifications){
+            AtomicInteger[] owners = this.ownerModifications;
+            for(int i=0;i<owners.length;i++){
+                if(owners[i] == modifications){
+                    AtomicInteger[] newOwners = new AtomicInteger[owners.length - 1];
+                    System.arraycopy(owners,0,newOwners,0,i);
+                    System.arraycopy(owners,i + 1,newOwners,i,newOwners.length - i);
+                    this.ownerModifications = newOwners;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 名称或类型修改后通知所属的实例，它们的常规参数值索引随之过期
+         */
+        private void notifyOwners(){
+            for(AtomicInteger owner : this.ownerModifications){
+                owner.incrementAndGet();
+            }
+        }
+
         /**
          * 赋值
          * @return
@@ -508,11 +887,12 @@ public class ConstructorArgumentValues {
 
 
         /**
-         * 设置value
+         * 设置value，按目标类型缓存的转换结果随之失效
          * @param value
          */
         public void setValue(@Nullable Object value){
             this.value = value;
+            this.convertedValueCache = null;
         }
 
         /**
@@ -530,6 +910,7 @@ public class ConstructorArgumentValues {
          */
         public void setType(@Nullable String type){
             this.type = type;
+            notifyOwners();
         }
 
         /**
@@ -547,6 +928,7 @@ public class ConstructorArgumentValues {
          */
         public void setName(String name){
             this.name = name;
+            notifyOwners();
         }
 
         /**
@@ -590,6 +972,56 @@ public class ConstructorArgumentValues {
             return this.convertedValue;
         }
 
+        /**
+         * 是否缓存了指定目标类型的转换结果
+         * @param targetType 目标类型
+         * @return
+         */
+        public boolean isConverted(Type targetType){
+            ConvertedValueCache cache = this.convertedValueCache;
+            return (cache != null && cache.contains(targetType));
+        }
+
+        /**
+         * 获取指定目标类型的转换结果
+         * @param targetType 目标类型
+         * @return
+         */
+        @Nullable
+        public Object getConvertedValue(Type targetType){
+            ConvertedValueCache cache = this.convertedValueCache;
+            return (cache != null ? cache.get(targetType) : null);
+        }
+
+        /**
+         * 目标类型没有缓存时放入转换结果，多个线程同时转换时只保留第一个结果
+         * @param targetType 目标类型
+         * @param convertedValue 转换结果
+         * @return 缓存中的转换结果
+         */
+        @Nullable
+        public Object setConvertedValueIfAbsent(Type targetType,@Nullable Object convertedValue){
+            return getConvertedValueCache().putIfAbsent(targetType,convertedValue);
+        }
+
+        /**
+         * 获取按目标类型缓存转换结果的缓存，不存在时创建
+         * @return
+         */
+        public ConvertedValueCache getConvertedValueCache(){
+            ConvertedValueCache cache = this.convertedValueCache;
+            if(cache == null){
+                synchronized (this){
+                    cache = this.convertedValueCache;
+                    if(cache == null){
+                        cache = new ConvertedValueCache();
+                        this.convertedValueCache = cache;
+                    }
+                }
+            }
+            return cache;
+        }
+
 
         public void setSource(@Nullable Object source){
             this.source = source;
@@ -0,0 +1,127 @@
+package org.springframework.beans;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConvertedValueCacheTests {
+
+    private List<String> strings;
+
+    private List<Integer> integers;
+
+    private List<String> otherStrings;
+
+    @Test
+    public void testFirstWriterWins(){
+        ConvertedValueCache cache = new ConvertedValueCache();
+        assertThat(cache.contains(Integer.class)).isFalse();
+        assertThat(cache.putIfAbsent(Integer.class,1)).isEqualTo(1);
+        assertThat(cache.putIfAbsent(Integer.class,2)).isEqualTo(1);
+        assertThat(cache.get(Integer.class)).isEqualTo(1);
+
+        //null也是有效的转换结果
+        assertThat(cache.putIfAbsent(String.class,null)).isNull();
+        assertThat(cache.contains(String.class)).isTrue();
+        assertThat(cache.putIfAbsent(String.class,"value")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.clear();
+        assertThat(cache.contains(Integer.class)).isFalse();
+    }
+
+    @Test
+    public void testConcurrentConversionSharesResult() throws InterruptedException{
+        ConvertedValueCache cache = new ConvertedValueCache();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Set<Object> results = ConcurrentHashMap.newKeySet();
+        AtomicInteger conversions = new AtomicInteger();
+        for(int i=0;i<threads;i++){
+            new Thread(() -> {
+                try{
+                    start.await();
+                    results.add(cache.computeIfAbsent(StringBuilder.class,type -> {
+                        conversions.incrementAndGet();
+                        return new StringBuilder("converted");
+                    }));
+                }catch (InterruptedException ex){
+                    Thread.currentThread().interrupt();
+                }finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        //对象按引用比较，所有线程拿到的是同一个转换结果
+        assertThat(results).hasSize(1);
+        assertThat(conversions.get()).isGreaterThanOrEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPropertyValueConversionCache(){
+        PropertyValue pv = new PropertyValue("age","50");
+        assertThat(pv.isConverted(Integer.class)).isFalse();
+        assertThat(pv.setConvertedValueIfAbsent(Integer.class,50)).isEqualTo(50);
+        assertThat(pv.setConvertedValueIfAbsent(Integer.class,51)).isEqualTo(50);
+        assertThat(pv.getConvertedValue(Integer.class)).isEqualTo(50);
+        assertThat(new PropertyValue(pv).getConvertedValue(Integer.class)).isEqualTo(50);
+        assertThat(new PropertyValue(pv,"60").isConverted(Integer.class)).isFalse();
+    }
+
+    @Test
+    public void testValueHolderConversionCache(){
+        ConstructorArgumentValues.ValueHolder valueHolder = new ConstructorArgumentValues.ValueHolder("50");
+        assertThat(valueHolder.setConvertedValueIfAbsent(Integer.class,50)).isEqualTo(50);
+        assertThat(valueHolder.getConvertedValue(Integer.class)).isEqualTo(50);
+        valueHolder.setValue("60");
+        assertThat(valueHolder.isConverted(Integer.class)).isFalse();
+    }
+
+    /**
+     * 测试擦除后相同的泛型类型分别缓存，相同的泛型类型共享缓存
+     */
+    @Test
+    public void testGenericTargetTypesDoNotCollide() throws NoSuchFieldException{
+        Type stringList = getClass().getDeclaredField("strings").getGenericType();
+        Type integerList = getClass().getDeclaredField("integers").getGenericType();
+        Type otherStringList = getClass().getDeclaredField("otherStrings").getGenericType();
+        ConvertedValueCache cache = new ConvertedValueCache();
+        cache.putIfAbsent(stringList,"strings");
+
+        assertThat(cache.contains(integerList)).isFalse();
+        assertThat(cache.contains(List.class)).isFalse();
+        assertThat(cache.putIfAbsent(integerList,"integers")).isEqualTo("integers");
+        assertThat(cache.get(otherStringList)).isEqualTo("strings");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    /**
+     * 测试复制的PropertyValue各自缓存转换结果
+     */
+    @Test
+    public void testCopiedPropertyValueOwnsCache(){
+        PropertyValue pv = new PropertyValue("age","50");
+        pv.setConvertedValueIfAbsent(Integer.class,50);
+        PropertyValue copy = new PropertyValue(pv);
+        assertThat(copy.getConvertedValueCache()).isNotSameAs(pv.getConvertedValueCache());
+
+        copy.setConvertedValueIfAbsent(Long.class,50L);
+        pv.getConvertedValueCache().clear();
+        assertThat(pv.isConverted(Long.class)).isFalse();
+        assertThat(copy.getConvertedValue(Integer.class)).isEqualTo(50);
+        assertThat(copy.getConvertedValue(Long.class)).isEqualTo(50L);
+    }
+}
@@ -0,0 +1,113 @@
+package org.springframework.beans;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ImmutablePropertyValuesTests extends AbstractPropertyValuesTests {
+
+    @Test
+    public void testValid(){
+        MutablePropertyValues pvs = new MutablePropertyValues();
+        pvs.addPropertyValue(new PropertyValue("forname","Tony"));
+        pvs.addPropertyValue(new PropertyValue("surname","Blair"));
+        pvs.addPropertyValue(new PropertyValue("age","50"));
+
+        ImmutablePropertyValues snapshot = pvs.toImmutable();
+        doTestTony(snapshot);
+
+        pvs.addPropertyValue(new PropertyValue("forname","Greg"));
+        doTestTony(snapshot);
+        assertThat(ImmutablePropertyValues.copyOf(snapshot)).isSameAs(snapshot);
+    }
+
+    @Test
+    public void withAndWithoutReturnNewSnapshots(){
+        ImmutablePropertyValues snapshot = ImmutablePropertyValues.EMPTY
+                .with("forname","Tony").with("surname","Blair").with("age","50");
+        doTestTony(snapshot);
+
+        ImmutablePropertyValues changed = snapshot.with("forname","Greg");
+        assertThat(changed.get("forname")).isEqualTo("Greg");
+        assertThat(changed.getPropertyValue("surname")).isEqualTo(snapshot.getPropertyValue("surname"));
+        doTestTony(snapshot);
+
+        ImmutablePropertyValues removed = snapshot.without("age");
+        assertThat(removed.size()).isEqualTo(2);
+        assertThat(removed.contains("age")).isFalse();
+        assertThat(snapshot.contains("age")).isTrue();
+        assertThat(snapshot.without("tory")).isSameAs(snapshot);
+
+        PropertyValues changes = changed.changesSince(snapshot);
+        assertThat(changes.getPropetyValues().length).isEqualTo(1);
+        assertThat(changes.getPropertyValue("forname").getValue()).isEqualTo("Greg");
+    }
+
+    @Test
+    public void lookupWithManyProperties(){
+        ImmutablePropertyValues snapshot = ImmutablePropertyValues.EMPTY;
+        for(int i=0;i<100;i++){
+            snapshot = snapshot.with("property" + i,i);
+        }
+        assertThat(snapshot.size()).isEqualTo(100);
+        assertThat(snapshot.get("property42")).isEqualTo(42);
+        assertThat(snapshot.without("property42").contains("property42")).isFalse();
+        assertThat(snapshot.without("property42").get("property43")).isEqualTo(43);
+    }
+
+    @Test
+    public void iteratorIsReadOnly(){
+        ImmutablePropertyValues snapshot = ImmutablePropertyValues.EMPTY.with("foo","bar");
+        Iterator<PropertyValue> it = snapshot.iterator();
+        assertThat(it.next().getName()).isEqualTo("foo");
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(it::remove);
+        assertThat(snapshot.stream().count()).isEqualTo(1L);
+    }
+
+    @Test
+    public void returnedPropertyValuesAreSharedAndReadOnly(){
+        PropertyValue original = new PropertyValue("foo","bar");
+        ImmutablePropertyValues snapshot = ImmutablePropertyValues.EMPTY.with(original);
+        original.setOptional(true);
+
+        PropertyValue pv = snapshot.getPropertyValue("foo");
+        assertThat(pv).isSameAs(snapshot.getPropertyValue("foo"));
+        assertThat(pv).isSameAs(snapshot.iterator().next());
+        assertThat(pv).isSameAs(snapshot.getPropetyValues()[0]);
+        assertThat(pv.isOptional()).isFalse();
+
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> pv.setAttribute("name","value"));
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> pv.setConvertedValue("converted"));
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> pv.setOptional(true));
+        assertThat(pv.setConvertedValueIfAbsent(String.class,"bar")).isEqualTo("bar");
+
+        snapshot.getPropetyValues()[0] = new PropertyValue("foo","changed");
+        assertThat(snapshot.get("foo")).isEqualTo("bar");
+
+        MutablePropertyValues copy = new MutablePropertyValues(snapshot);
+        copy.getPropertyValue("foo").setOptional(true);
+        assertThat(copy.getPropertyValue("foo").isOptional()).isTrue();
+        assertThat(pv.isOptional()).isFalse();
+    }
+
+    /**
+     * 测试哈希值相同的属性名，以及增删后保持添加顺序
+     */
+    @Test
+    public void collidingNamesKeepInsertionOrder(){
+        //"Aa"和"BB"的哈希值相同
+        ImmutablePropertyValues snapshot = ImmutablePropertyValues.EMPTY
+                .with("AaAa",1).with("BBBB",2).with("AaBB",3).with("BBAa",4);
+        assertThat("AaAa".hashCode()).isEqualTo("BBBB".hashCode());
+        assertThat(snapshot.get("BBBB")).isEqualTo(2);
+
+        ImmutablePropertyValues changed = snapshot.without("BBBB").with("AaAa",5).with("BBBB",6);
+        assertThat(changed.stream().map(PropertyValue::getName)).containsExactly("AaAa","AaBB","BBAa","BBBB");
+        assertThat(changed.get("AaAa")).isEqualTo(5);
+        assertThat(snapshot.get("AaAa")).isEqualTo(1);
+        assertThat(changed.without("AaAa").without("AaBB").without("BBAa").without("BBBB")).isSameAs(ImmutablePropertyValues.EMPTY);
+    }
+}
@@ -2,7 +2,9 @@ package org.springframework.beans;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -108,4 +110,84 @@ public class MutablePropertyValuesTests extends AbstractPropertyValuesTests {
         assertThat(pvs.stream()).isNotNull();
         assertThat(pvs.stream().count()).isEqualTo(0L);
     }
+
+    @Test
+    public void indexedLookup(){
+        MutablePropertyValues pvs = new MutablePropertyValues();
+        pvs.setIndexedLookup(true);
+        pvs.addPropertyValue(new PropertyValue("forname","Tony"));
+        pvs.addPropertyValue(new PropertyValue("surname","Blair"));
+        pvs.addPropertyValue(new PropertyValue("age","50"));
+        assertThat(pvs.isIndexedLookup()).isTrue();
+        doTestTony(pvs);
+
+        pvs.addPropertyValue(new PropertyValue("forname","Greg"));
+        assertThat(pvs.get("forname")).isEqualTo("Greg");
+        assertThat(pvs.getPropertyValueList().get(0).getName()).isEqualTo("forname");
+
+        pvs.removePropertyValue("forname");
+        assertThat(pvs.contains("forname")).isFalse();
+        assertThat(pvs.get("surname")).isEqualTo("Blair");
+        assertThat(pvs.get("age")).isEqualTo("50");
+
+        pvs.setPropertyValueAt(new PropertyValue("name","Gordon"),0);
+        assertThat(pvs.contains("surname")).isFalse();
+        assertThat(pvs.get("name")).isEqualTo("Gordon");
+
+        pvs.getPropertyValueList().add(new PropertyValue("rod","Rod"));
+        assertThat(pvs.get("rod")).isEqualTo("Rod");
+
+        pvs.getPropertyValueList().set(0,new PropertyValue("tony","Tony"));
+        assertThat(pvs.get("tony")).isEqualTo("Tony");
+        assertThat(pvs.contains("name")).isFalse();
+
+        MutablePropertyValues copy = new MutablePropertyValues(pvs);
+        assertThat(copy.isIndexedLookup()).isTrue();
+        assertThat(copy.get("age")).isEqualTo("50");
+    }
+
+    @Test
+    public void visitChangesSince(){
+        MutablePropertyValues old = new MutablePropertyValues();
+        old.addPropertyValue(new PropertyValue("age","50"));
+        old.addPropertyValue(new PropertyValue("forname","Tony"));
+        old.addPropertyValue(new PropertyValue("surname","Blair"));
+
+        MutablePropertyValues sorted = new MutablePropertyValues(old);
+        sorted.addPropertyValue(new PropertyValue("forname","Greg"));
+        sorted.removePropertyValue("surname");
+        sorted.addPropertyValue(new PropertyValue("title","Mr"));
+        assertThat(collectChanges(sorted,old)).containsExactlyInAnyOrder("~forname","-surname","+title");
+
+        MutablePropertyValues unsorted = new MutablePropertyValues();
+        unsorted.addPropertyValue(new PropertyValue("title","Mr"));
+        unsorted.addPropertyValue(new PropertyValue("forname","Greg"));
+        unsorted.addPropertyValue(new PropertyValue("age","50"));
+        assertThat(collectChanges(unsorted,old)).containsExactlyInAnyOrder("~forname","-surname","+title");
+
+        unsorted.setIndexedLookup(true);
+        assertThat(collectChanges(unsorted,old)).containsExactlyInAnyOrder("~forname","-surname","+title");
+        assertThat(collectChanges(old,old)).isEmpty();
+    }
+
+    private List<String> collectChanges(PropertyValues current,PropertyValues old){
+        List<String> changes = new ArrayList<>();
+        current.visitChangesSince(old, new PropertyValueChangeVisitor() {
+            @Override
+            public void added(PropertyValue pv) {
+                changes.add("+" + pv.getName());
+            }
+
+            @Override
+            public void removed(PropertyValue pv) {
+                changes.add("-" + pv.getName());
+            }
+
+            @Override
+            public void changed(PropertyValue oldPv, PropertyValue currentPv) {
+                changes.add("~" + currentPv.getName());
+            }
+        });
+        return changes;
+    }
 }
@@ -0,0 +1,101 @@
+package org.springframework.beans;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PropertyValueTests {
+
+    /**
+     * 没有使用可选标记、转换状态和属性时，只占用PropertyValue对象本身
+     */
+    @Test
+    public void testRetainedSizeWithoutSideState(){
+        String name = "name";
+        Object value = "value";
+        PropertyValue pv = new PropertyValue(name,value);
+        pv.setOptional(false);
+        pv.setConverted(false);
+
+        long retained = GraphLayout.parseInstance(pv).totalSize() - GraphLayout.parseInstance(name,value).totalSize();
+        assertThat(retained).isEqualTo(ClassLayout.parseInstance(pv).instanceSize());
+    }
+
+    /**
+     * 使用转换状态后才创建额外的对象
+     */
+    @Test
+    public void testRetainedSizeWithSideState(){
+        String name = "name";
+        Object value = "value";
+        PropertyValue pv = new PropertyValue(name,value);
+        long compactSize = GraphLayout.parseInstance(pv).totalSize();
+
+        pv.setConverted(true);
+        pv.setConvertedValue(value);
+        assertThat(GraphLayout.parseInstance(pv).totalSize()).isGreaterThan(compactSize);
+        assertThat(pv.isConverted()).isTrue();
+        assertThat(pv.getConvertedValue()).isSameAs(value);
+        assertThat(pv.isOptional()).isFalse();
+    }
+
+    @Test
+    public void testCopyConversionState(){
+        PropertyValue pv = new PropertyValue("name","value");
+        pv.setOptional(true);
+        pv.setConverted(true);
+        pv.setConvertedValue("converted");
+
+        PropertyValue copy = new PropertyValue(pv);
+        assertThat(copy.isOptional()).isTrue();
+        assertThat(copy.isConverted()).isTrue();
+        assertThat(copy.getConvertedValue()).isEqualTo("converted");
+
+        PropertyValue withNewValue = new PropertyValue(pv,"newValue");
+        assertThat(withNewValue.isOptional()).isTrue();
+        assertThat(withNewValue.isConverted()).isFalse();
+        assertThat(withNewValue.getConvertedValue()).isNull();
+
+        copy.setOptional(false);
+        assertThat(pv.isOptional()).isTrue();
+    }
+
+    /**
+     * 测试一个线程写入属性时，其他线程不加锁读取到的属性始终完整
+     */
+    @Test
+    public void testConcurrentAttributeReads() throws InterruptedException{
+        PropertyValue pv = new PropertyValue("name","value");
+        int attributes = 500;
+        int readers = 3;
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch latch = new CountDownLatch(readers);
+        for(int r=0;r<readers;r++){
+            new Thread(() -> {
+                while(!done.get()){
+                    for(String name : pv.attributeNames()){
+                        if(name == null || !name.equals("attribute" + pv.getAttribute(name))){
+                            consistent.set(false);
+                        }
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        for(int i=0;i<attributes;i++){
+            pv.setAttribute("attribute" + i,i);
+        }
+        done.set(true);
+        latch.await();
+
+        assertThat(consistent.get()).isTrue();
+        assertThat(pv.attributeNames()).hasSize(attributes);
+        assertThat(pv.getBeanMetadataAttribute("attribute7").getValue()).isEqualTo(7);
+    }
+}
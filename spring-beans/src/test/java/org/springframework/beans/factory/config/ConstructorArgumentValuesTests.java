@@ -0,0 +1,145 @@
+package org.springframework.beans.factory.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConstructorArgumentValuesTests {
+
+    /**
+     * 修改参数值持有者的名称和类型后，所属实例的常规参数值索引随之更新
+     */
+    @Test
+    public void genericArgumentLookupAfterHolderChanges(){
+        ConstructorArgumentValues values = new ConstructorArgumentValues();
+        ValueHolder named = new ValueHolder("value",null,"a");
+        ValueHolder typed = new ValueHolder(5,"int");
+        values.addGenericArgumentValue(named);
+        values.addGenericArgumentValue(typed);
+        assertThat(values.getGenericArgumentValue(String.class,"foo")).isNull();
+
+        named.setName("foo");
+        assertThat(values.getGenericArgumentValue(String.class,"foo")).isSameAs(named);
+
+        typed.setType("java.lang.Integer");
+        assertThat(values.getGenericArgumentValue(Integer.class)).isSameAs(typed);
+    }
+
+    /**
+     * 同一个参数值持有者被多个实例持有时，修改后每个实例都能发现
+     */
+    @Test
+    public void sharedHolderNotifiesEveryOwner(){
+        ConstructorArgumentValues first = new ConstructorArgumentValues();
+        ConstructorArgumentValues second = new ConstructorArgumentValues();
+        ValueHolder holder = new ValueHolder("value",null,"a");
+        first.addGenericArgumentValue(holder);
+        second.addGenericArgumentValue(holder);
+        assertThat(first.getGenericArgumentValue(String.class,"a")).isSameAs(holder);
+        assertThat(second.getGenericArgumentValue(String.class,"a")).isSameAs(holder);
+
+        holder.setName("b");
+        assertThat(first.getGenericArgumentValue(String.class,"b")).isSameAs(holder);
+        assertThat(second.getGenericArgumentValue(String.class,"b")).isSameAs(holder);
+
+        first.clear();
+        holder.setName("c");
+        assertThat(first.getGenericArgumentValue(String.class,"c")).isNull();
+        assertThat(second.getGenericArgumentValue(String.class,"c")).isSameAs(holder);
+    }
+
+    @Test
+    public void negativeIndex(){
+        ConstructorArgumentValues values = new ConstructorArgumentValues();
+        values.addIndexedArgumentValue(0,"zero");
+        assertThat(values.hasIndexedArgumentValue(-1)).isFalse();
+
+        ValueHolder holder = new ValueHolder("minus");
+        values.addOrMergeIndexedArgumentValue(-1,holder);
+        assertThat(values.hasIndexedArgumentValue(-1)).isTrue();
+        assertThat(values.getIndexedArgumentValue().keySet()).containsExactly(-1,0);
+    }
+
+    /**
+     * 超出数组范围的下标存放在稀疏集合中，遍历时仍然按下标升序
+     */
+    @Test
+    public void indexesAboveDenseLimit(){
+        ConstructorArgumentValues values = new ConstructorArgumentValues();
+        values.addIndexedArgumentValue(1000,"thousand");
+        values.addIndexedArgumentValue(300,"three hundred");
+        values.addIndexedArgumentValue(5,"five");
+        values.addIndexedArgumentValue(0,"zero");
+
+        assertThat(values.hasIndexedArgumentValue(1000)).isTrue();
+        assertThat(values.hasIndexedArgumentValue(999)).isFalse();
+        assertThat(values.getIndexedArgumentValue(300,null,null).getValue()).isEqualTo("three hundred");
+        assertThat(values.getIndexedArgumentValue().keySet()).containsExactly(0,5,300,1000);
+        assertThat(values.getArgumentValueCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void overwriteKeepsSize(){
+        ConstructorArgumentValues values = new ConstructorArgumentValues();
+        values.addIndexedArgumentValue(1,"one");
+        values.addIndexedArgumentValue(1,"uno");
+        values.addIndexedArgumentValue(500,"five hundred");
+        values.addIndexedArgumentValue(500,"cinq cents");
+
+        assertThat(values.getArgumentValueCount()).isEqualTo(2);
+        assertThat(values.getIndexedArgumentValue()).hasSize(2);
+        assertThat(values.getIndexedArgumentValue(1,null,null).getValue()).isEqualTo("uno");
+        assertThat(values.getIndexedArgumentValue(500,null,null).getValue()).isEqualTo("cinq cents");
+    }
+
+    @Test
+    public void indexedArgumentValueMapIsCachedUntilModified(){
+        ConstructorArgumentValues values = new ConstructorArgumentValues();
+        values.addIndexedArgumentValue(0,"zero");
+        Map<Integer,ValueHolder> map = values.getIndexedArgumentValue();
+        assertThat(values.getIndexedArgumentValue()).isSameAs(map);
+
+        values.addIndexedArgumentValue(1,"one");
+        assertThat(values.getIndexedArgumentValue()).isNotSameAs(map).hasSize(2);
+    }
+
+    /**
+     * 插入顺序不同、数组和稀疏集合中都有参数值时，相等判断和哈希值一致
+     */
+    @Test
+    public void equalsAndHashCodeAcrossLayouts(){
+        ValueHolder zero = new ValueHolder("zero");
+        ValueHolder large = new ValueHolder("large");
+        ConstructorArgumentValues values1 = new ConstructorArgumentValues();
+        values1.addIndexedArgumentValue(0,zero);
+        values1.addIndexedArgumentValue(400,large);
+        ConstructorArgumentValues values2 = new ConstructorArgumentValues();
+        values2.addIndexedArgumentValue(400,large);
+        values2.addIndexedArgumentValue(0,zero);
+
+        assertThat(values1).isEqualTo(values2);
+        assertThat(values1.hashCode()).isEqualTo(values2.hashCode());
+
+        ConstructorArgumentValues dense = new ConstructorArgumentValues();
+        dense.addIndexedArgumentValue(0,zero);
+        dense.addIndexedArgumentValue(40,large);
+        assertThat(values1).isNotEqualTo(dense);
+        assertThat(dense).isNotEqualTo(values1);
+    }
+
+    @Test
+    public void addArgumentValuesCopiesInIndexOrder(){
+        ConstructorArgumentValues original = new ConstructorArgumentValues();
+        original.addIndexedArgumentValue(700,"c");
+        original.addIndexedArgumentValue(2,"b");
+        original.addIndexedArgumentValue(0,"a");
+
+        ConstructorArgumentValues copy = new ConstructorArgumentValues(original);
+        assertThat(copy.getIndexedArgumentValue().keySet()).containsExactly(0,2,700);
+        assertThat(copy.getIndexedArgumentValue(700,null,null).getValue()).isEqualTo("c");
+        assertThat(copy.getIndexedArgumentValue(0,null,null)).isNotSameAs(original.getIndexedArgumentValue(0,null,null));
+    }
+}
@@ -0,0 +1,86 @@
+package org.springframework.beans;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MutablePropertyValues按名称查找、比较变化和不可变快照的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MutablePropertyValuesBenchmark {
+
+    @Param({"10","100","1000"})
+    public int size;
+
+    /**
+     * 是否使用哈希索引查找
+     */
+    @Param({"false","true"})
+    public boolean indexedLookup;
+
+    private MutablePropertyValues propertyValues;
+
+    private MutablePropertyValues changedPropertyValues;
+
+    private ImmutablePropertyValues immutablePropertyValues;
+
+    private String[] names;
+
+    private int next;
+
+    @Setup
+    public void setup(){
+        this.propertyValues = new MutablePropertyValues();
+        this.propertyValues.setIndexedLookup(this.indexedLookup);
+        this.names = new String[this.size];
+        for(int i=0;i<this.size;i++){
+            this.names[i] = "property" + i;
+            this.propertyValues.addPropertyValue(this.names[i],"value" + i);
+        }
+        this.changedPropertyValues = new MutablePropertyValues(this.propertyValues);
+        this.changedPropertyValues.addPropertyValue(this.names[this.size / 2],"changed");
+        this.changedPropertyValues.addPropertyValue("added","value");
+        this.immutablePropertyValues = this.propertyValues.toImmutable();
+    }
+
+    /**
+     * 依次查找每个属性名
+     */
+    @Benchmark
+    public PropertyValue getPropertyValue(){
+        String name = this.names[this.next];
+        this.next = (this.next + 1 == this.names.length ? 0 : this.next + 1);
+        return this.propertyValues.getPropertyValue(name);
+    }
+
+    @Benchmark
+    public PropertyValue getPropertyValueMissing(){
+        return this.propertyValues.getPropertyValue("missing");
+    }
+
+    @Benchmark
+    public PropertyValues changesSince(){
+        return this.changedPropertyValues.changesSince(this.propertyValues);
+    }
+
+    @Benchmark
+    public ImmutablePropertyValues toImmutable(){
+        return this.propertyValues.toImmutable();
+    }
+
+    @Benchmark
+    public PropertyValue getImmutablePropertyValue(){
+        return this.immutablePropertyValues.getPropertyValue(this.names[this.names.length - 1]);
+    }
+
+    /**
+     * 替换快照中的一个属性，只复制从根到该属性的路径
+     */
+    @Benchmark
+    public ImmutablePropertyValues immutableWith(){
+        return this.immutablePropertyValues.with(this.names[this.names.length / 2],"changed");
+    }
+}
@@ -0,0 +1,75 @@
+package org.springframework.beans.factory.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConstructorArgumentValues按下标和按名称类型查找参数值的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConstructorArgumentValuesBenchmark {
+
+    @Param({"4","24"})
+    public int argumentCount;
+
+    private ConstructorArgumentValues indexedValues;
+
+    private ConstructorArgumentValues genericValues;
+
+    private String[] names;
+
+    @Setup
+    public void setup(){
+        this.indexedValues = new ConstructorArgumentValues();
+        this.genericValues = new ConstructorArgumentValues();
+        this.names = new String[this.argumentCount];
+        for(int i=0;i<this.argumentCount;i++){
+            this.names[i] = "arg" + i;
+            String type = (i % 2 == 0 ? String.class.getName() : Integer.class.getName());
+            Object value = (i % 2 == 0 ? "value" + i : Integer.valueOf(i));
+            this.indexedValues.addIndexedArgumentValue(i,value,type,this.names[i]);
+            this.genericValues.addGenericArgumentValue(new ConstructorArgumentValues.ValueHolder(value,type,this.names[i]));
+        }
+    }
+
+    /**
+     * 按下标解析全部参数
+     */
+    @Benchmark
+    public int resolveIndexedArguments(){
+        int found = 0;
+        for(int i=0;i<this.argumentCount;i++){
+            Class<?> requiredType = (i % 2 == 0 ? String.class : Integer.class);
+            if(this.indexedValues.getIndexedArgumentValue(i,requiredType,this.names[i]) != null){
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 按名称和类型解析全部参数，已使用的参数值不再匹配
+     */
+    @Benchmark
+    public int resolveGenericArguments(){
+        Set<ConstructorArgumentValues.ValueHolder> used = new HashSet<>(this.argumentCount * 2);
+        for(int i=0;i<this.argumentCount;i++){
+            Class<?> requiredType = (i % 2 == 0 ? String.class : Integer.class);
+            ConstructorArgumentValues.ValueHolder valueHolder = this.genericValues.getGenericArgumentValue(requiredType,this.names[i],used);
+            if(valueHolder != null){
+                used.add(valueHolder);
+            }
+        }
+        return used.size();
+    }
+
+    @Benchmark
+    public ConstructorArgumentValues copy(){
+        return new ConstructorArgumentValues(this.indexedValues);
+    }
+}
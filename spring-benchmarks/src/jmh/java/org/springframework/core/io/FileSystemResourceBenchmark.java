@@ -0,0 +1,98 @@
+package org.springframework.core.io;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件资源读取的基准测试，对比输入流、读入堆缓冲区和内存映射三种方式
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileSystemResourceBenchmark {
+
+    /**
+     * 文件大小：1KB、1MB、100MB
+     */
+    @Param({"1024","1048576","104857600"})
+    public int fileSize;
+
+    private File file;
+
+    private FileSystemResource resource;
+
+    private byte[] buffer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException{
+        this.file = File.createTempFile("FileSystemResourceBenchmark",".bin");
+        byte[] block = new byte[8192];
+        for(int i=0;i<block.length;i++){
+            block[i] = (byte) i;
+        }
+        try(RandomAccessFile out = new RandomAccessFile(this.file,"rw")){
+            for(int written=0;written<this.fileSize;written+=block.length){
+                out.write(block,0,Math.min(block.length,this.fileSize - written));
+            }
+        }
+        this.resource = new FileSystemResource(this.file);
+        this.buffer = new byte[8192];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException{
+        Files.deleteIfExists(this.file.toPath());
+    }
+
+    /**
+     * 原有的读取方式：Files.newInputStream
+     */
+    @Benchmark
+    public long inputStream() throws IOException{
+        long sum = 0;
+        try(InputStream in = this.resource.getInputStream()){
+            int read;
+            while((read = in.read(this.buffer)) != -1){
+                sum += this.buffer[read - 1];
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void heapByteBuffer(Blackhole blackhole) throws IOException{
+        consume(this.resource.readByteBuffer(Long.MAX_VALUE),blackhole);
+    }
+
+    @Benchmark
+    public void mappedByteBuffer(Blackhole blackhole) throws IOException{
+        consume(this.resource.readByteBuffer(0),blackhole);
+    }
+
+    /**
+     * 按默认阈值选择读入堆内存或者内存映射
+     */
+    @Benchmark
+    public void defaultByteBuffer(Blackhole blackhole) throws IOException{
+        consume(this.resource.readByteBuffer(),blackhole);
+    }
+
+    /**
+     * 和输入流一样按块读取全部内容，保证映射的页面被真正访问
+     */
+    private void consume(ByteBuffer byteBuffer,Blackhole blackhole){
+        while(byteBuffer.hasRemaining()){
+            int length = Math.min(this.buffer.length,byteBuffer.remaining());
+            byteBuffer.get(this.buffer,0,length);
+            blackhole.consume(this.buffer[length - 1]);
+        }
+    }
+}
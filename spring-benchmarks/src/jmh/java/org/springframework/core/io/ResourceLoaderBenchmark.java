@@ -0,0 +1,50 @@
+package org.springframework.core.io;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultResouceLoader路径解析和资源缓存的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResourceLoaderBenchmark {
+
+    @Param({"classpath:org/springframework/core/io/Resource.class",
+            "file:/opt/app/config/application.properties",
+            "config/application.properties"})
+    public String location;
+
+    /**
+     * 路径解析结果缓存的最大条目数，0表示不缓存
+     */
+    @Param({"0","256"})
+    public int resolvedResourceCacheLimit;
+
+    private DefaultResouceLoader resourceLoader;
+
+    private ResourceCache<String> resourceCache;
+
+    private Resource resource;
+
+    @Setup
+    public void setup(){
+        this.resourceLoader = new DefaultResouceLoader();
+        this.resourceLoader.setResolvedResourceCacheLimit(this.resolvedResourceCacheLimit);
+        this.resource = this.resourceLoader.getResource(this.location);
+        this.resourceCache = this.resourceLoader.getResourceCache(String.class);
+        this.resourceCache.put(this.resource,"parsed");
+    }
+
+    @Benchmark
+    public Resource getResource(){
+        return this.resourceLoader.getResource(this.location);
+    }
+
+    @Benchmark
+    public String getCachedContent(){
+        return this.resourceCache.get(this.resource);
+    }
+}
@@ -0,0 +1,98 @@
+package org.springframework.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ObjectUtils数组哈希、比较和字符串化的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObjectUtilsBenchmark {
+
+    @Param({"16","1024"})
+    public int length;
+
+    private int[] ints;
+
+    private long[] longs;
+
+    private byte[] bytes;
+
+    private Object[] objects;
+
+    private Object intsAsObject;
+
+    private Object otherInts;
+
+    @Setup
+    public void setup(){
+        Random random = new Random(42);
+        this.ints = new int[this.length];
+        this.longs = new long[this.length];
+        this.bytes = new byte[this.length];
+        this.objects = new Object[this.length];
+        random.nextBytes(this.bytes);
+        for(int i=0;i<this.length;i++){
+            this.ints[i] = random.nextInt();
+            this.longs[i] = random.nextLong();
+            this.objects[i] = "element" + i;
+        }
+        this.intsAsObject = this.ints;
+        this.otherInts = this.ints.clone();
+    }
+
+    @Benchmark
+    public int hashCodeInts(){
+        return ObjectUtils.nullSafeHashCode(this.ints);
+    }
+
+    @Benchmark
+    public int hashCodeLongs(){
+        return ObjectUtils.nullSafeHashCode(this.longs);
+    }
+
+    @Benchmark
+    public int hashCodeBytes(){
+        return ObjectUtils.nullSafeHashCode(this.bytes);
+    }
+
+    @Benchmark
+    public int hashCodeObjects(){
+        return ObjectUtils.nullSafeHashCode(this.objects);
+    }
+
+    /**
+     * 通过Object参数分发到具体的数组类型
+     */
+    @Benchmark
+    public int hashCodeDispatch(){
+        return ObjectUtils.nullSafeHashCode(this.intsAsObject);
+    }
+
+    @Benchmark
+    public boolean equalsDispatch(){
+        return ObjectUtils.nullSafeEquals(this.intsAsObject,this.otherInts);
+    }
+
+    @Benchmark
+    public String toStringInts(){
+        return ObjectUtils.nullSafeToString(this.ints);
+    }
+
+    @Benchmark
+    public String toStringObjects(){
+        return ObjectUtils.nullSafeToString(this.objects);
+    }
+
+    /**
+     * 日志场景下只输出数组的前几个元素
+     */
+    @Benchmark
+    public StringBuilder appendObjectsTruncated(){
+        return ObjectUtils.appendNullSafeString(new StringBuilder(),this.objects,8);
+    }
+}
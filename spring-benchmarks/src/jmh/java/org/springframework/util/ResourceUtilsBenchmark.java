@@ -0,0 +1,46 @@
+package org.springframework.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 资源路径分类的基准测试，对比按协议扫描和构造URL捕获异常两种方式
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResourceUtilsBenchmark {
+
+    @Param({"classpath:org/springframework/core/io/Resource.class",
+            "file:/opt/app/config/application.properties",
+            "jar:file:/opt/app/lib/app.jar!/META-INF/spring.factories",
+            "/opt/app/config/application.properties",
+            "config/application.properties"})
+    public String location;
+
+    @Benchmark
+    public ResourceUtils.LocationType classifyLocation(){
+        return ResourceUtils.classifyLocation(this.location);
+    }
+
+    /**
+     * 原有的判断方式：构造URL，失败时捕获异常
+     */
+    @Benchmark
+    public boolean urlProbe(){
+        try{
+            new URL(this.location);
+            return true;
+        }catch (MalformedURLException ex){
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean isURL(){
+        return ResourceUtils.isURL(this.location);
+    }
+}
@@ -0,0 +1,32 @@
+package org.springframework.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringUtils路径简化的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringUtilsBenchmark {
+
+    /**
+     * 已经简化的路径、windows路径、包含大量".."的路径
+     */
+    @Param({"org/springframework/core/io/Resource.class",
+            "C:\\workspace\\spring\\spring-core\\src\\main\\java\\org\\springframework\\util\\StringUtils.java",
+            "a/b/c/../../d/./e/../../../f/g/h/../../i/./j/../k/l/../../m.txt"})
+    public String path;
+
+    @Benchmark
+    public String cleanPath(){
+        return StringUtils.cleanPath(this.path);
+    }
+
+    @Benchmark
+    public String applyRelativePath(){
+        return StringUtils.applyRelativePath(this.path,"../relative/other.txt");
+    }
+}
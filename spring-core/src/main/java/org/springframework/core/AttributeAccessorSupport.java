@@ -5,12 +5,43 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.io.Serializable;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public abstract class AttributeAccessorSupport implements AttributeAccessor, Serializable {
 
-    private final Map<String,Object> attributes = new LinkedHashMap<>();
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 并发模式下原子替换属性存储
+     */
+    private static final AtomicReferenceFieldUpdater<AttributeAccessorSupport,AttributeStore> ATTRIBUTES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(AttributeAccessorSupport.class,AttributeStore.class,"attributes");
+
+    /**
+     * 是否为并发模式，并发模式下读取不加锁，写入时复制出新的属性存储再原子替换
+     */
+    private final boolean concurrent;
+
+    /**
+     * 属性存储，第一次设置属性时才创建
+     */
+    @Nullable
+    private volatile AttributeStore attributes;
+
+    /**
+     * 构造非并发的属性访问器
+     */
+    public AttributeAccessorSupport(){
+        this(false);
+    }
+
+    /**
+     * 构造属性访问器
+     * @param concurrent 是否允许多个线程同时读写属性
+     */
+    protected AttributeAccessorSupport(boolean concurrent){
+        this.concurrent = concurrent;
+    }
 
     /**
      * 设置属性值
@@ -20,10 +51,23 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
     @Override
     public void setAttribute(String name, @Nullable Object value){
         Assert.notNull(name,"Name must not be null");
-        if(value != null){
-            this.attributes.put(name,value);
+        if(value == null){
+            removeAttribute(name);
+        }else if(this.concurrent){
+            AttributeStore current;
+            AttributeStore updated;
+            do{
+                current = this.attributes;
+                updated = (current != null ? new AttributeStore(current) : new AttributeStore());
+                updated.put(name,value);
+            }while(!ATTRIBUTES_UPDATER.compareAndSet(this,current,updated));
         }else{
-            this.attributes.remove(name);
+            AttributeStore store = this.attributes;
+            if(store == null){
+                store = new AttributeStore();
+                this.attributes = store;
+            }
+            store.put(name,value);
         }
     }
 
@@ -37,7 +81,8 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
     @Nullable
     public Object getAttribute(String name){
         Assert.notNull(name,"Name must not be null");
-        return this.attributes.get(name);
+        AttributeStore store = this.attributes;
+        return (store != null ? store.get(name) : null);
     }
 
     /**
@@ -47,7 +92,22 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
     @Override
     public Object removeAttribute(String name){
         Assert.notNull(name,"Name must not be null");
-        return this.attributes.remove(name);
+        if(!this.concurrent){
+            AttributeStore store = this.attributes;
+            return (store != null ? store.remove(name) : null);
+        }
+        AttributeStore current;
+        AttributeStore updated;
+        Object oldValue;
+        do{
+            current = this.attributes;
+            if(current == null || !current.contains(name)){
+                return null;
+            }
+            updated = new AttributeStore(current);
+            oldValue = updated.remove(name);
+        }while(!ATTRIBUTES_UPDATER.compareAndSet(this,current,updated));
+        return oldValue;
     }
 
     /**
@@ -58,7 +118,8 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
     @Override
     public boolean hasAttribute(String name) {
         Assert.notNull(name,"Name must not be null");
-        return this.attributes.containsKey(name);
+        AttributeStore store = this.attributes;
+        return (store != null && store.contains(name));
     }
 
     /**
@@ -67,7 +128,8 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
      */
     @Override
     public String[] attributeNames() {
-        return StringUtils.toStringArray(this.attributes.keySet());
+        AttributeStore store = this.attributes;
+        return (store != null ? store.names() : StringUtils.EMPTY_STRING_ARRAY);
     }
 
     /**
@@ -89,7 +151,18 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
      */
     @Override
     public boolean equals(Object other) {
-        return this == other || (other instanceof AttributeAccessorSupport && this.attributes.equals(((AttributeAccessorSupport) other).attributes));
+        if(this == other){
+            return true;
+        }
+        if(!(other instanceof AttributeAccessorSupport)){
+            return false;
+        }
+        AttributeStore store = this.attributes;
+        AttributeStore otherStore = ((AttributeAccessorSupport) other).attributes;
+        if(store == null || otherStore == null){
+            return (store == null || store.size() == 0) && (otherStore == null || otherStore.size() == 0);
+        }
+        return store.contentEquals(otherStore);
     }
 
     /**
@@ -98,6 +171,7 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
      */
     @Override
     public int hashCode() {
-        return this.attributes.hashCode();
+        AttributeStore store = this.attributes;
+        return (store != null ? store.contentHashCode() : 0);
     }
 }
@@ -0,0 +1,241 @@
+package org.springframework.core;
+
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * 属性存储
+ * 属性名和属性值按插入顺序交替存放在同一个数组中，不超过INLINE_CAPACITY个属性时顺序查找；
+ * 超过后额外建立开放寻址的下标表，按属性名的哈希值查找
+ */
+final class AttributeStore implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 只顺序查找的属性个数上限
+     */
+    static final int INLINE_CAPACITY = 4;
+
+    /**
+     * 属性名和属性值，下标2i为第i个属性名，2i+1为第i个属性值
+     */
+    private Object[] pairs;
+
+    /**
+     * 属性个数
+     */
+    private int size;
+
+    /**
+     * 开放寻址的下标表，长度为2的幂，元素为属性位置加1，0表示空槽；属性不超过INLINE_CAPACITY个时为null
+     */
+    @Nullable
+    private int[] index;
+
+    /**
+     * 构造空的属性存储
+     */
+    AttributeStore(){
+        this.pairs = new Object[INLINE_CAPACITY * 2];
+    }
+
+    /**
+     * 复制属性存储，预留一个属性的空间
+     * @param original 原属性存储
+     */
+    AttributeStore(AttributeStore original){
+        this.pairs = Arrays.copyOf(original.pairs,Math.max(original.pairs.length,(original.size + 1) * 2));
+        this.size = original.size;
+        this.index = (original.index != null ? original.index.clone() : null);
+    }
+
+    /**
+     * 获取属性个数
+     * @return
+     */
+    int size(){
+        return this.size;
+    }
+
+    /**
+     * 获取属性值
+     * @param name 属性名
+     * @return
+     */
+    @Nullable
+    Object get(String name){
+        int position = indexOf(name);
+        return (position >= 0 ? this.pairs[position * 2 + 1] : null);
+    }
+
+    /**
+     * 是否包含属性
+     * @param name 属性名
+     * @return
+     */
+    boolean contains(String name){
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * 设置属性值，已存在的属性保持原来的顺序
+     * @param name 属性名
+     * @param value 属性值
+     * @return 旧的属性值
+     */
+    @Nullable
+    Object put(String name,Object value){
+        int position = indexOf(name);
+        if(position >= 0){
+            Object oldValue = this.pairs[position * 2 + 1];
+            this.pairs[position * 2 + 1] = value;
+            return oldValue;
+        }
+
+        if(this.size * 2 == this.pairs.length){
+            this.pairs = Arrays.copyOf(this.pairs,this.pairs.length * 2);
+        }
+        this.pairs[this.size * 2] = name;
+        this.pairs[this.size * 2 + 1] = value;
+        this.size++;
+        if(this.index != null && this.size * 2 <= this.index.length){
+            insertIndex(this.size - 1);
+        }else if(this.size > INLINE_CAPACITY){
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    /**
+     * 删除属性，后面的属性依次前移
+     * @param name 属性名
+     * @return 被删除的属性值
+     */
+    @Nullable
+    Object remove(String name){
+        int position = indexOf(name);
+        if(position < 0){
+            return null;
+        }
+        Object oldValue = this.pairs[position * 2 + 1];
+        System.arraycopy(this.pairs,position * 2 + 2,this.pairs,position * 2,(this.size - position - 1) * 2);
+        this.size--;
+        this.pairs[this.size * 2] = null;
+        this.pairs[this.size * 2 + 1] = null;
+        if(this.index != null){
+            rebuildIndex();
+        }
+        return oldValue;
+    }
+
+    /**
+     * 按插入顺序获取所有属性名
+     * @return
+     */
+    String[] names(){
+        String[] names = new String[this.size];
+        for(int i=0;i<this.size;i++){
+            names[i] = (String) this.pairs[i * 2];
+        }
+        return names;
+    }
+
+    /**
+     * 查找属性的位置
+     * @param name 属性名
+     * @return 不存在时返回-1
+     */
+    private int indexOf(String name){
+        int[] index = this.index;
+        if(index == null){
+            for(int i=0;i<this.size;i++){
+                Object candidate = this.pairs[i * 2];
+                if(candidate == name || candidate.equals(name)){
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int mask = index.length - 1;
+        for(int slot = spread(name.hashCode()) & mask;;slot = (slot + 1) & mask){
+            int entry = index[slot];
+            if(entry == 0){
+                return -1;
+            }
+            Object candidate = this.pairs[(entry - 1) * 2];
+            if(candidate == name || candidate.equals(name)){
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * 把属性位置放入下标表
+     * @param position 属性位置
+     */
+    private void insertIndex(int position){
+        int[] index = this.index;
+        int mask = index.length - 1;
+        int slot = spread(this.pairs[position * 2].hashCode()) & mask;
+        while(index[slot] != 0){
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    /**
+     * 重建下标表，下标表的负载不超过一半
+     */
+    private void rebuildIndex(){
+        if(this.size <= INLINE_CAPACITY){
+            this.index = null;
+            return;
+        }
+        this.index = new int[Integer.highestOneBit(this.size) << 2];
+        for(int i=0;i<this.size;i++){
+            insertIndex(i);
+        }
+    }
+
+    /**
+     * 打散哈希值的高位，减少下标表的冲突
+     * @param hash 哈希值
+     * @return
+     */
+    private static int spread(int hash){
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 判断属性是否相同，和属性顺序无关
+     * @param other 另一个属性存储
+     * @return
+     */
+    boolean contentEquals(AttributeStore other){
+        if(this.size != other.size){
+            return false;
+        }
+        for(int i=0;i<this.size;i++){
+            if(!this.pairs[i * 2 + 1].equals(other.get((String) this.pairs[i * 2]))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取哈希值，和同样内容的Map的哈希值相同
+     * @return
+     */
+    int contentHashCode(){
+        int hashCode = 0;
+        for(int i=0;i<this.size;i++){
+            hashCode += this.pairs[i * 2].hashCode() ^ this.pairs[i * 2 + 1].hashCode();
+        }
+        return hashCode;
+    }
+}
@@ -1,5 +1,7 @@
 package org.springframework.core.io;
 
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ResourceUtils;
 import javax.net.ssl.HttpsURLConnection;
 import java.io.File;
@@ -11,22 +13,144 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * 文件解析资源
  */
 public abstract class AbstractFileResolvingResource extends AbstractResource {
+
+    /**
+     * 元数据快照的有效期，单位毫秒，0表示不缓存快照
+     */
+    private volatile long metadataTtl = 0;
+
+    /**
+     * 缓存的元数据快照
+     */
+    @Nullable
+    private volatile ResourceMetadata metadata;
+
+    /**
+     * 设置元数据快照的有效期，大于0时exists、isReadable、contentLength、lastModified都从快照中获取，
+     * 有效期内不会再次访问文件系统或者发送请求
+     * @param metadataTtl 有效期，单位毫秒，0表示不缓存快照
+     */
+    public void setMetadataTtl(long metadataTtl){
+        Assert.isTrue(metadataTtl >= 0,"Metadata TTL must not be negative");
+        this.metadataTtl = metadataTtl;
+        if(metadataTtl == 0){
+            this.metadata = null;
+        }
+    }
+
+    /**
+     * 获取元数据快照的有效期
+     * @return
+     */
+    public long getMetadataTtl(){
+        return this.metadataTtl;
+    }
+
+    /**
+     * 获取资源元数据快照，一次探测同时得到资源是否存在、是否可读、长度和最后修改时间
+     * @return
+     */
+    public ResourceMetadata getMetadata(){
+        long metadataTtl = this.metadataTtl;
+        ResourceMetadata metadata = this.metadata;
+        if(metadata != null && metadata.isFresh(metadataTtl)){
+            return metadata;
+        }
+        metadata = probeMetadata();
+        if(metadataTtl > 0){
+            this.metadata = metadata;
+        }
+        return metadata;
+    }
+
+    /**
+     * 探测资源元数据，文件资源读取一次文件属性，其他资源只打开一次连接，http资源只发送一次head请求
+     * @return
+     */
+    protected ResourceMetadata probeMetadata(){
+        try{
+            URL url = getURL();
+            if(ResourceUtils.isFileUrl(url) || ResourceUtils.URL_PROTOCOL_VFS.equals(url.getProtocol())){
+                return probeFileMetadata(getFile().toPath());
+            }
+            if(JarIndexCache.isIndexable(url) && !JarIndexCache.getSharedInstance().containsEntry(url)){
+                return ResourceMetadata.notFound();
+            }
+
+            URLConnection con = url.openConnection();
+            customizeConnection(con);
+            if(con instanceof HttpURLConnection){
+                HttpURLConnection httpCon = (HttpURLConnection) con;
+                if(httpCon.getResponseCode() != HttpURLConnection.HTTP_OK){
+                    httpCon.disconnect();
+                    return ResourceMetadata.notFound();
+                }
+                long contentLength = httpCon.getContentLengthLong();
+                return new ResourceMetadata(true,contentLength != 0,contentLength,httpCon.getLastModified());
+            }
+
+            long contentLength = con.getContentLengthLong();
+            if(contentLength < 0){
+                //长度未知时通过输入流判断资源是否存在
+                con.getInputStream().close();
+            }
+            long lastModified = con.getLastModified();
+            if(ResourceUtils.isJarURL(url)){
+                //jar包中的资源使用jar包文件的修改时间
+                URL archiveUrl = ResourceUtils.extractArchiveURL(url);
+                if(ResourceUtils.isFileUrl(archiveUrl)){
+                    lastModified = ResourceUtils.getFile(archiveUrl).lastModified();
+                }
+            }
+            return new ResourceMetadata(true,contentLength != 0,contentLength,lastModified);
+        }catch (IOException ex){
+            return ResourceMetadata.notFound();
+        }
+    }
+
+    /**
+     * 通过一次读取文件属性探测文件元数据
+     * @param path 文件路径
+     * @return
+     * @throws IOException
+     */
+    private static ResourceMetadata probeFileMetadata(Path path) throws IOException {
+        BasicFileAttributes attributes;
+        try{
+            attributes = Files.readAttributes(path,BasicFileAttributes.class);
+        }catch (NoSuchFileException ex){
+            return ResourceMetadata.notFound();
+        }
+        //读取到属性说明文件或文件夹存在，只有不是文件夹的可读文件才可读
+        boolean readable = !attributes.isDirectory() && Files.isReadable(path);
+        return new ResourceMetadata(true,readable,attributes.size(),attributes.lastModifiedTime().toMillis());
+    }
+
     @Override
     public boolean exists() {
+        if(this.metadataTtl > 0){
+            return getMetadata().exists();
+        }
 
         try{
             URL url = getURL();
             if(ResourceUtils.isFileUrl(url)){
                 //如果为文件资源定位符
-                File file = getFile();
-                //文件存在并且文件不是文件夹
-                return file.canRead() && !file.isDirectory();
+                //文件或文件夹存在，与元数据快照的判断一致
+                return getFile().exists();
+            }else if(JarIndexCache.isIndexable(url)){
+                //本地jar包中的条目通过共享的jar包索引判断，不需要每次打开jar包
+                return JarIndexCache.getSharedInstance().containsEntry(url);
             }else{
                 //如果为http网络资源，发送head请求，返回码为ok，则http资源存在
                 //打开连接
@@ -73,7 +197,7 @@ public abstract class AbstractFileResolvingResource extends AbstractResource {
         ResourceUtils.useCacheIfNecessary(con);
         if(con instanceof HttpURLConnection){
             //如果为http连接
-            customizeConnection((HttpsURLConnection)con);
+            customizeConnection((HttpURLConnection)con);
         }
     }
 
@@ -144,6 +268,13 @@ public abstract class AbstractFileResolvingResource extends AbstractResource {
      */
     @Override
     public long contentLength() throws IOException {
+        if(this.metadataTtl > 0){
+            ResourceMetadata metadata = getMetadata();
+            if(!metadata.exists()){
+                throw new FileNotFoundException(getDescription() + " cannot be resolved for its content length");
+            }
+            return metadata.contentLength();
+        }
         URL url = getURL();
         if(ResourceUtils.isFileUrl(url)){
             //如果为文件资源
@@ -204,6 +335,13 @@ public abstract class AbstractFileResolvingResource extends AbstractResource {
      */
     @Override
     public long lastModified() throws IOException {
+        if(this.metadataTtl > 0){
+            ResourceMetadata metadata = getMetadata();
+            if(!metadata.exists() && metadata.lastModified() == 0){
+                throw new FileNotFoundException(getDescription() + " cannot be resolved for its timestamp");
+            }
+            return metadata.lastModified();
+        }
         URL url = getURL();
 
         //文件资源
@@ -252,6 +390,9 @@ public abstract class AbstractFileResolvingResource extends AbstractResource {
      */
     @Override
     public boolean isReadable(){
+        if(this.metadataTtl > 0){
+            return getMetadata().isReadable();
+        }
         try{
             URL url = getURL();
             if(ResourceUtils.isFileUrl(url)){
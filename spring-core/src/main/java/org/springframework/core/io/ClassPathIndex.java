@@ -0,0 +1,530 @@
+package org.springframework.core.io;
+
+import org.springframework.core.log.LogAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * classpath索引
+ * 索引文件记录每个classpath根目录或者jar包中的所有资源路径以及根的修改标记，启动时通过内存映射读取，
+ * 资源是否存在和目录中的资源列表直接从索引中二分查找，不需要访问类加载器和文件系统。
+ * 查询命中某个根时才校验该根的修改标记，校验结果在校验间隔内有效，过期后重新读取文件属性校验，
+ * 根被修改后不再使用该根的索引，直到重新生成索引文件。
+ *
+ * 索引文件格式（大端序）：
+ * 魔数 版本号 根的数量，每个根依次为：路径长度 路径 修改标记 条目数量 条目偏移表的位置；
+ * 条目偏移表为条目数量+1个int，第i个条目为偏移i到偏移i+1之间的UTF-8字节，条目按无符号字节序排列，目录以"/"结尾
+ */
+public final class ClassPathIndex {
+
+    /**
+     * 指定索引文件位置的系统属性，文件不存在时根据java.class.path生成
+     */
+    public static final String INDEX_LOCATION_PROPERTY = "spring.classpath.index";
+
+    private static final int MAGIC = 0x53504349;
+
+    private static final int VERSION = 1;
+
+    /**
+     * 默认的根校验间隔，单位毫秒
+     */
+    public static final long DEFAULT_VALIDATION_INTERVAL = 1000;
+
+    private static final LogAccessor logAccessor = new LogAccessor(ClassPathIndex.class);
+
+    /**
+     * 内存映射的索引文件
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * 所有根，按classpath顺序排列
+     */
+    private final Root[] roots;
+
+    /**
+     * 根校验结果的有效时间，单位毫秒，为0时每次查询都校验
+     */
+    private volatile long validationInterval = DEFAULT_VALIDATION_INTERVAL;
+
+    /**
+     * 通过索引文件内容构造
+     * @param buffer 索引文件内容
+     * @throws IOException
+     */
+    private ClassPathIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try{
+            if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION){
+                throw new IOException("Not a classpath index file or unsupported version");
+            }
+            int rootCount = buffer.getInt(8);
+            this.roots = new Root[rootCount];
+            int position = 12;
+            for(int i=0;i<rootCount;i++){
+                int pathLength = buffer.getInt(position);
+                byte[] path = new byte[pathLength];
+                for(int j=0;j<pathLength;j++){
+                    path[j] = buffer.get(position + 4 + j);
+                }
+                position += 4 + pathLength;
+                this.roots[i] = new Root(new File(new String(path,StandardCharsets.UTF_8)),
+                        buffer.getLong(position),buffer.getInt(position + 8),buffer.getInt(position + 12));
+                position += 16;
+            }
+        }catch (IndexOutOfBoundsException ex){
+            throw new IOException("Corrupted classpath index file",ex);
+        }
+    }
+
+    /**
+     * 通过内存映射加载索引文件
+     * @param indexFile 索引文件
+     * @return
+     * @throws IOException
+     */
+    public static ClassPathIndex load(File indexFile) throws IOException {
+        Assert.notNull(indexFile,"Index file must not be null");
+        try(FileChannel channel = FileChannel.open(indexFile.toPath(),StandardOpenOption.READ)){
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+            return new ClassPathIndex(buffer);
+        }
+    }
+
+    /**
+     * 获取系统属性指定的共享索引
+     * @return 没有指定索引文件或者索引文件不可用时返回null
+     */
+    @Nullable
+    public static ClassPathIndex getSharedInstance(){
+        return SharedIndexHolder.sharedInstance;
+    }
+
+    /**
+     * 设置根校验结果的有效时间，为0时每次查询都重新校验
+     * @param validationInterval 有效时间，单位毫秒
+     */
+    public void setValidationInterval(long validationInterval){
+        Assert.isTrue(validationInterval >= 0,"Validation interval must not be negative");
+        this.validationInterval = validationInterval;
+    }
+
+    /**
+     * 获取根校验结果的有效时间
+     * @return
+     */
+    public long getValidationInterval(){
+        return this.validationInterval;
+    }
+
+    /**
+     * 获取所有根
+     * @return
+     */
+    public List<Root> getRoots(){
+        return Collections.unmodifiableList(Arrays.asList(this.roots));
+    }
+
+    /**
+     * 获取文件或者jar包对应的有效根
+     * @param file 根目录或者jar包
+     * @return 没有索引或者已被修改时返回null
+     */
+    @Nullable
+    public Root findRoot(File file){
+        File absoluteFile = file.getAbsoluteFile();
+        for(Root root : this.roots){
+            if(root.file.equals(absoluteFile)){
+                return (root.isValid() ? root : null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断有效的根中是否存在资源，目录可以省略结尾的"/"
+     * 只校验索引中包含该资源的根，不访问其他根的文件属性；
+     * 索引只覆盖java.class.path中的根，返回false时资源仍然可能由父类加载器提供
+     * @param path 资源路径，不以"/"开头
+     * @return
+     */
+    public boolean contains(String path){
+        byte[] key = path.getBytes(StandardCharsets.UTF_8);
+        byte[] directoryKey = (path.endsWith("/") ? key : (path + "/").getBytes(StandardCharsets.UTF_8));
+        for(Root root : this.roots){
+            if((root.indexOf(key) >= 0 || root.indexOf(directoryKey) >= 0) && root.isValid()){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成索引文件，先写入临时文件再替换，不会读到写了一半的索引
+     * @param indexFile 索引文件
+     * @param classPathRoots classpath中的目录和jar包，不存在的根被忽略
+     * @throws IOException
+     */
+    public static void write(File indexFile,List<File> classPathRoots) throws IOException {
+        Assert.notNull(indexFile,"Index file must not be null");
+        Assert.notNull(classPathRoots,"Class path roots must not be null");
+        List<File> roots = new ArrayList<>();
+        List<byte[][]> entries = new ArrayList<>();
+        List<Long> stamps = new ArrayList<>();
+        for(File classPathRoot : classPathRoots){
+            File root = classPathRoot.getAbsoluteFile();
+            if(root.isDirectory()){
+                byte[][] names = sortedEntries(listDirectory(root));
+                roots.add(root);
+                entries.add(names);
+                stamps.add(directoryStamp(root,names));
+            }else if(root.isFile()){
+                roots.add(root);
+                entries.add(sortedEntries(listJar(root)));
+                stamps.add(jarStamp(root));
+            }
+        }
+
+        Path target = indexFile.getAbsoluteFile().toPath();
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(),indexFile.getName(),".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))){
+            byte[][] paths = new byte[roots.size()][];
+            int headerLength = 12;
+            for(int i=0;i<roots.size();i++){
+                paths[i] = roots.get(i).getPath().getBytes(StandardCharsets.UTF_8);
+                headerLength += 4 + paths[i].length + 16;
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(roots.size());
+            int tableOffset = headerLength;
+            for(int i=0;i<roots.size();i++){
+                out.writeInt(paths[i].length);
+                out.write(paths[i]);
+                out.writeLong(stamps.get(i));
+                out.writeInt(entries.get(i).length);
+                out.writeInt(tableOffset);
+                tableOffset += sectionLength(entries.get(i));
+            }
+
+            int sectionOffset = headerLength;
+            for(byte[][] names : entries){
+                int offset = sectionOffset + (names.length + 1) * 4;
+                for(byte[] name : names){
+                    out.writeInt(offset);
+                    offset += name.length;
+                }
+                out.writeInt(offset);
+                for(byte[] name : names){
+                    out.write(name);
+                }
+                sectionOffset = offset;
+            }
+        }catch (IOException ex){
+            Files.deleteIfExists(tempFile);
+            throw ex;
+        }
+        Files.move(tempFile,target,StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 根据java.class.path生成索引文件，供构建工具在打包时调用
+     * @param indexFile 索引文件
+     * @throws IOException
+     */
+    public static void write(File indexFile) throws IOException {
+        write(indexFile,getJavaClassPathRoots());
+    }
+
+    /**
+     * 获取java.class.path中的所有根
+     * @return
+     */
+    static List<File> getJavaClassPathRoots(){
+        List<File> roots = new ArrayList<>();
+        String javaClassPath = System.getProperty("java.class.path");
+        if(javaClassPath != null){
+            for(String path : StringUtils.delimitedListToStringArray(javaClassPath,File.pathSeparator)){
+                if(!path.isEmpty()){
+                    roots.add(new File(path));
+                }
+            }
+        }
+        return roots;
+    }
+
+    private static int sectionLength(byte[][] names){
+        int length = (names.length + 1) * 4;
+        for(byte[] name : names){
+            length += name.length;
+        }
+        return length;
+    }
+
+    private static List<String> listDirectory(File root) throws IOException {
+        Path rootPath = root.toPath();
+        List<String> names = new ArrayList<>();
+        try(Stream<Path> paths = Files.walk(rootPath)){
+            paths.forEach(path -> {
+                if(path.equals(rootPath)){
+                    return;
+                }
+                String name = StringUtils.replace(rootPath.relativize(path).toString(),File.separator,"/");
+                names.add(Files.isDirectory(path) ? name + "/" : name);
+            });
+        }catch (UncheckedIOException ex){
+            throw ex.getCause();
+        }
+        return names;
+    }
+
+    private static List<String> listJar(File jar) throws IOException {
+        List<String> names = new ArrayList<>();
+        try(JarFile jarFile = new JarFile(jar)){
+            for(Enumeration<JarEntry> jarEntries = jarFile.entries();jarEntries.hasMoreElements();){
+                names.add(jarEntries.nextElement().getName());
+            }
+        }
+        return names;
+    }
+
+    private static byte[][] sortedEntries(List<String> names){
+        byte[][] entries = new byte[names.size()][];
+        for(int i=0;i<entries.length;i++){
+            entries[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(entries,ClassPathIndex::compare);
+        return entries;
+    }
+
+    private static int compare(byte[] left,byte[] right){
+        int length = Math.min(left.length,right.length);
+        for(int i=0;i<length;i++){
+            int diff = (left[i] & 0xff) - (right[i] & 0xff);
+            if(diff != 0){
+                return diff;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    /**
+     * jar包的修改标记，由修改时间和大小组成
+     */
+    private static long jarStamp(File jar){
+        return jar.lastModified() * 31 + jar.length();
+    }
+
+    /**
+     * 目录的修改标记，由根目录和所有子目录的修改时间组成，目录中增加或者删除文件都会改变目录的修改时间
+     */
+    private static long directoryStamp(File root,byte[][] names){
+        long stamp = root.lastModified();
+        for(byte[] name : names){
+            if(name.length > 0 && name[name.length - 1] == '/'){
+                stamp = stamp * 31 + new File(root,new String(name,StandardCharsets.UTF_8)).lastModified();
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * 索引中的一个classpath根
+     */
+    public final class Root {
+
+        private final File file;
+
+        private final long stamp;
+
+        private final int entryCount;
+
+        /**
+         * 条目偏移表的位置
+         */
+        private final int tableOffset;
+
+        /**
+         * 最近一次校验的结果
+         */
+        private volatile boolean valid;
+
+        /**
+         * 最近一次校验的时间，尚未校验时为-1
+         */
+        private volatile long validatedAt = -1;
+
+        Root(File file,long stamp,int entryCount,int tableOffset){
+            this.file = file;
+            this.stamp = stamp;
+            this.entryCount = entryCount;
+            this.tableOffset = tableOffset;
+        }
+
+        /**
+         * 获取根目录或者jar包
+         * @return
+         */
+        public File getFile(){
+            return this.file;
+        }
+
+        /**
+         * 生成索引之后根是否没有被修改，校验结果超过校验间隔后重新校验
+         * @return
+         */
+        public boolean isValid(){
+            long now = System.currentTimeMillis();
+            long validatedAt = this.validatedAt;
+            if(validatedAt >= 0 && now - validatedAt < getValidationInterval()){
+                return this.valid;
+            }
+            boolean valid = (computeStamp() == this.stamp);
+            if(!valid && (validatedAt < 0 || this.valid)){
+                logAccessor.debug(() -> "Ignoring stale classpath index entries for [" + this.file + "]");
+            }
+            this.valid = valid;
+            this.validatedAt = now;
+            return valid;
+        }
+
+        private long computeStamp(){
+            if(this.file.isFile()){
+                return jarStamp(this.file);
+            }
+            if(!this.file.isDirectory()){
+                return this.stamp + 1;
+            }
+            byte[][] names = new byte[this.entryCount][];
+            for(int i=0;i<this.entryCount;i++){
+                names[i] = getEntry(i);
+            }
+            return directoryStamp(this.file,names);
+        }
+
+        /**
+         * 获取以给定前缀开头的所有资源路径，按字节顺序排列，不包含与前缀相同的目录本身
+         * @param prefix 前缀
+         * @param includeDirectories 是否包含目录
+         * @return
+         */
+        public List<String> getEntryNames(String prefix,boolean includeDirectories){
+            byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+            int index = indexOf(key);
+            List<String> names = new ArrayList<>();
+            for(int i=(index >= 0 ? index + 1 : -index - 1);i<this.entryCount;i++){
+                byte[] entry = getEntry(i);
+                if(!startsWith(entry,key)){
+                    break;
+                }
+                if(includeDirectories || entry[entry.length - 1] != '/'){
+                    names.add(new String(entry,StandardCharsets.UTF_8));
+                }
+            }
+            return names;
+        }
+
+        /**
+         * 二分查找条目
+         * @param key 条目的UTF-8字节
+         * @return 找到时返回位置，否则返回-(插入位置)-1
+         */
+        int indexOf(byte[] key){
+            int low = 0;
+            int high = this.entryCount - 1;
+            while(low <= high){
+                int mid = (low + high) >>> 1;
+                int cmp = compareEntry(mid,key);
+                if(cmp < 0){
+                    low = mid + 1;
+                }else if(cmp > 0){
+                    high = mid - 1;
+                }else{
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int compareEntry(int index,byte[] key){
+            ByteBuffer buffer = ClassPathIndex.this.buffer;
+            int start = buffer.getInt(this.tableOffset + index * 4);
+            int length = buffer.getInt(this.tableOffset + index * 4 + 4) - start;
+            int common = Math.min(length,key.length);
+            for(int i=0;i<common;i++){
+                int diff = (buffer.get(start + i) & 0xff) - (key[i] & 0xff);
+                if(diff != 0){
+                    return diff;
+                }
+            }
+            return length - key.length;
+        }
+
+        private byte[] getEntry(int index){
+            ByteBuffer buffer = ClassPathIndex.this.buffer;
+            int start = buffer.getInt(this.tableOffset + index * 4);
+            byte[] entry = new byte[buffer.getInt(this.tableOffset + index * 4 + 4) - start];
+            for(int i=0;i<entry.length;i++){
+                entry[i] = buffer.get(start + i);
+            }
+            return entry;
+        }
+
+        private boolean startsWith(byte[] entry,byte[] prefix){
+            if(entry.length < prefix.length){
+                return false;
+            }
+            for(int i=0;i<prefix.length;i++){
+                if(entry[i] != prefix[i]){
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 延迟加载共享索引
+     */
+    private static class SharedIndexHolder {
+
+        @Nullable
+        static final ClassPathIndex sharedInstance = loadSharedInstance();
+
+        @Nullable
+        private static ClassPathIndex loadSharedInstance(){
+            String location = System.getProperty(INDEX_LOCATION_PROPERTY);
+            if(!StringUtils.hasLength(location)){
+                return null;
+            }
+            File indexFile = new File(location);
+            try{
+                if(!indexFile.exists()){
+                    write(indexFile);
+                }
+                return load(indexFile);
+            }catch (IOException | RuntimeException ex){
+                logAccessor.warn(ex,() -> "Could not use classpath index [" + location + "]");
+                return null;
+            }
+        }
+    }
+}
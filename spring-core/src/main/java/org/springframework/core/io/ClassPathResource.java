@@ -83,6 +83,13 @@ public class ClassPathResource extends AbstractFileResolvingResource {
      */
     @Override
     public boolean exists() {
+        if(this.clazz == null && (this.classLoader == null || this.classLoader == ClassLoader.getSystemClassLoader())){
+            //索引只覆盖java.class.path中的根，只使用存在的结果，不存在时仍然通过类加载器判断
+            ClassPathIndex index = ClassPathIndex.getSharedInstance();
+            if(index != null && index.contains(this.path)){
+                return true;
+            }
+        }
         return resolveURL() != null;
     }
 
@@ -11,9 +11,15 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 public class DefaultResouceLoader implements ResourceLoader {
 
+    /**
+     * 每种类型的资源缓存默认的最大条目数
+     */
+    public static final long DEFAULT_RESOURCE_CACHE_LIMIT = 256;
 
     /**
      * 类加载器
@@ -22,14 +28,49 @@ public class DefaultResouceLoader implements ResourceLoader {
     private ClassLoader classLoader;
 
     /**
-     * 协议解析器
+     * 协议解析器，集合被修改时清除路径解析结果缓存
      */
-    private final Set<ProtocolResolver> protocolResolvers = new LinkedHashSet<>(4);
+    private final Set<ProtocolResolver> protocolResolvers = new ProtocolResolverSet();
 
     /**
      * 类对象和资源之间的关系缓存
      */
-    private final Map<Class<?>,Map<Resource,?>> resourceCaches = new ConcurrentHashMap<>();
+    private final Map<Class<?>,ResourceCache<?>> resourceCaches = new ConcurrentHashMap<>();
+
+    /**
+     * 每种类型的资源缓存的最大条目数
+     */
+    private volatile long resourceCacheLimit = DEFAULT_RESOURCE_CACHE_LIMIT;
+
+    /**
+     * 路径解析结果缓存的最大条目数，0表示不缓存，默认不缓存
+     */
+    private volatile int resolvedResourceCacheLimit;
+
+    /**
+     * 路径和解析出的资源之间的关系缓存，按访问顺序淘汰
+     */
+    private final Map<String,Resource> resolvedResources = new LinkedHashMap<String,Resource>(16,0.75f,true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,Resource> eldest) {
+            return size() > resolvedResourceCacheLimit;
+        }
+    };
+
+    /**
+     * 路径解析结果缓存的命中次数
+     */
+    private final LongAdder resolvedResourceHits = new LongAdder();
+
+    /**
+     * 路径解析结果缓存的未命中次数
+     */
+    private final LongAdder resolvedResourceMisses = new LongAdder();
+
+    /**
+     * 未命中时解析资源花费的总纳秒数
+     */
+    private final LongAdder resolutionNanos = new LongAdder();
 
 
     /**
@@ -57,13 +98,57 @@ public class DefaultResouceLoader implements ResourceLoader {
     }
 
     /**
-     * 获取给定类型的资源缓存
+     * 获取给定类型的资源缓存，超过条目上限时淘汰最久未访问的资源
      * @param valueType 类型
      * @param <T>
      * @return
      */
-    public <T> Map<Resource,T> getResourceCache(Class<T> valueType){
-        return (Map<Resource,T>)this.resourceCaches.computeIfAbsent(valueType,key ->new ConcurrentHashMap<>());
+    public <T> ResourceCache<T> getResourceCache(Class<T> valueType){
+        return obtainResourceCache(valueType,() -> new ResourceCache<>(this.resourceCacheLimit));
+    }
+
+    /**
+     * 获取给定类型的资源缓存，按权重计算器计算的总权重限制容量
+     * 缓存已经存在时返回已有的缓存
+     * @param valueType 类型
+     * @param maximumWeight 最大总权重
+     * @param weigher 权重计算器
+     * @param <T>
+     * @return
+     */
+    public <T> ResourceCache<T> getResourceCache(Class<T> valueType,long maximumWeight,ResourceCache.Weigher<? super T> weigher){
+        Assert.notNull(weigher,"Weigher must not be null");
+        return obtainResourceCache(valueType,() -> new ResourceCache<>(maximumWeight,weigher));
+    }
+
+    /**
+     * 获取给定类型的资源缓存，不存在时创建
+     * @param valueType 类型
+     * @param cacheFactory 缓存的创建方法
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResourceCache<T> obtainResourceCache(Class<T> valueType,Supplier<ResourceCache<T>> cacheFactory){
+        //资源缓存只在这里以值类型为键创建，键为Class<T>的缓存一定是ResourceCache<T>
+        return (ResourceCache<T>) this.resourceCaches.computeIfAbsent(valueType,key -> cacheFactory.get());
+    }
+
+    /**
+     * 设置之后创建的资源缓存的最大条目数
+     * @param resourceCacheLimit 最大条目数
+     */
+    public void setResourceCacheLimit(long resourceCacheLimit){
+        Assert.isTrue(resourceCacheLimit >= 0,"Resource cache limit must not be negative");
+        this.resourceCacheLimit = resourceCacheLimit;
+    }
+
+    /**
+     * 获取资源缓存的最大条目数
+     * @return
+     */
+    public long getResourceCacheLimit(){
+        return this.resourceCacheLimit;
     }
 
     /**
@@ -74,10 +159,45 @@ public class DefaultResouceLoader implements ResourceLoader {
     }
 
 
+    /**
+     * 获取路径对应的资源
+     * 开启路径解析结果缓存后，重复的路径直接返回缓存的同一个资源实例，调用者之间共享它的状态（例如元数据的有效期），
+     * 因此默认不缓存，每次返回新的资源实例
+     * @param location 路径
+     * @return
+     */
     @Override
     public Resource getResource(String location) {
         Assert.notNull(location,"location must not be null");
+        if(this.resolvedResourceCacheLimit == 0){
+            return resolveResource(location);
+        }
+
+        Resource resource;
+        synchronized (this.resolvedResources){
+            resource = this.resolvedResources.get(location);
+        }
+        if(resource != null){
+            this.resolvedResourceHits.increment();
+            return resource;
+        }
 
+        long start = System.nanoTime();
+        resource = resolveResource(location);
+        this.resolutionNanos.add(System.nanoTime() - start);
+        this.resolvedResourceMisses.increment();
+        synchronized (this.resolvedResources){
+            this.resolvedResources.put(location,resource);
+        }
+        return resource;
+    }
+
+    /**
+     * 解析路径对应的资源
+     * @param location 路径
+     * @return
+     */
+    protected Resource resolveResource(String location){
         //通过协议解析器去获取资源
         for(ProtocolResolver protocolResolver : this.protocolResolvers){
             Resource resource = protocolResolver.resolve(location,this);
@@ -93,12 +213,15 @@ public class DefaultResouceLoader implements ResourceLoader {
         }else if(location.startsWith(CLASSPATH_URL_PREFIX)){
             //如果为classpath路径
             return new ClassPathResource(location.substring(CLASSPATH_URL_PREFIX.length()),getClassLoader());
+        }else if(ResourceUtils.classifyLocation(location) == ResourceUtils.LocationType.PATH){
+            //普通路径不可能是Url，不需要通过异常判断
+            return getResourceByPath(location);
         }else{
 
             try{
                 URL url = new URL(location);
                 //文件资源获取其他资源
-                return ResourceUtils.isFileUrl(url)?new FileUrlResource(location):new UrlResource(location);
+                return ResourceUtils.isFileUrl(url)?new FileUrlResource(url):new UrlResource(url);
             }catch (MalformedURLException ex){
                 return getResourceByPath(location);
             }
@@ -119,6 +242,70 @@ public class DefaultResouceLoader implements ResourceLoader {
 
     public void setClassLoader(@Nullable ClassLoader classLoader){
         this.classLoader = classLoader;
+        clearResolvedResources();
+    }
+
+    /**
+     * 设置路径解析结果缓存的最大条目数，0表示不缓存
+     * 开启后相同路径返回同一个资源实例，调用者不应该修改返回的资源
+     * @param resolvedResourceCacheLimit 最大条目数
+     */
+    public void setResolvedResourceCacheLimit(int resolvedResourceCacheLimit){
+        Assert.isTrue(resolvedResourceCacheLimit >= 0,"Resolved resource cache limit must not be negative");
+        this.resolvedResourceCacheLimit = resolvedResourceCacheLimit;
+        clearResolvedResources();
+    }
+
+    /**
+     * 获取路径解析结果缓存的最大条目数
+     * @return
+     */
+    public int getResolvedResourceCacheLimit(){
+        return this.resolvedResourceCacheLimit;
+    }
+
+    /**
+     * 清除路径解析结果缓存，协议解析器和类加载器变化时会自动调用
+     */
+    public void clearResolvedResources(){
+        synchronized (this.resolvedResources){
+            this.resolvedResources.clear();
+        }
+    }
+
+    /**
+     * 获取路径解析结果缓存的命中次数
+     * @return
+     */
+    public long getResolvedResourceHitCount(){
+        return this.resolvedResourceHits.sum();
+    }
+
+    /**
+     * 获取路径解析结果缓存的未命中次数
+     * @return
+     */
+    public long getResolvedResourceMissCount(){
+        return this.resolvedResourceMisses.sum();
+    }
+
+    /**
+     * 获取路径解析结果缓存的命中率，没有请求时返回0
+     * @return
+     */
+    public double getResolvedResourceHitRate(){
+        long hits = this.resolvedResourceHits.sum();
+        long total = hits + this.resolvedResourceMisses.sum();
+        return (total == 0 ? 0.0 : (double) hits / total);
+    }
+
+    /**
+     * 获取未命中时解析资源的平均纳秒数，没有解析过时返回0
+     * @return
+     */
+    public double getAverageResolutionNanos(){
+        long misses = this.resolvedResourceMisses.sum();
+        return (misses == 0 ? 0.0 : (double) this.resolutionNanos.sum() / misses);
     }
 
     /**
@@ -132,13 +319,72 @@ public class DefaultResouceLoader implements ResourceLoader {
     }
 
     /**
-     * 获取协议解析器
+     * 获取协议解析器，对集合的修改会清除路径解析结果缓存
      * @return
      */
     public Collection<ProtocolResolver> getProtocolResolvers(){
         return this.protocolResolvers;
     }
 
+    /**
+     * 协议解析器集合，添加或删除解析器时清除路径解析结果缓存
+     */
+    private final class ProtocolResolverSet extends AbstractSet<ProtocolResolver> {
+
+        private final Set<ProtocolResolver> resolvers = new LinkedHashSet<>(4);
+
+        @Override
+        public boolean add(ProtocolResolver protocolResolver) {
+            boolean added = this.resolvers.add(protocolResolver);
+            if(added){
+                clearResolvedResources();
+            }
+            return added;
+        }
+
+        @Override
+        public boolean remove(Object protocolResolver) {
+            boolean removed = this.resolvers.remove(protocolResolver);
+            if(removed){
+                clearResolvedResources();
+            }
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            this.resolvers.clear();
+            clearResolvedResources();
+        }
+
+        @Override
+        public Iterator<ProtocolResolver> iterator() {
+            Iterator<ProtocolResolver> it = this.resolvers.iterator();
+            return new Iterator<ProtocolResolver>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public ProtocolResolver next() {
+                    return it.next();
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                    clearResolvedResources();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.resolvers.size();
+        }
+    }
+
     /**
      * classpath上下文资源
      */
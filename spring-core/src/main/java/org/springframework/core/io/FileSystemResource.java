@@ -6,13 +6,24 @@ import org.springframework.util.StringUtils;
 import java.io.*;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.*;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class FileSystemResource extends AbstractResource implements WritableResource {
 
+    /**
+     * 默认的内存映射阈值，文件长度不小于该值时使用内存映射，否则读入堆内存
+     */
+    public static final long DEFAULT_MAPPING_THRESHOLD = 1024 * 1024;
+
     /**
      * 文件路径
      */
@@ -98,6 +109,169 @@ public class FileSystemResource extends AbstractResource implements WritableReso
 
     }
 
+    /**
+     * 以只读字节缓冲区的形式读取文件全部内容，使用默认的内存映射阈值
+     * @return 只读字节缓冲区，position为0，limit为文件长度
+     * @throws IOException
+     */
+    public ByteBuffer readByteBuffer() throws IOException {
+        return readByteBuffer(DEFAULT_MAPPING_THRESHOLD);
+    }
+
+    /**
+     * 以只读字节缓冲区的形式读取文件全部内容
+     * 文件长度不小于阈值时返回只读的内存映射缓冲区，不复制到堆内存；否则一次性读入堆缓冲区
+     * @param mappingThreshold 内存映射阈值，0表示总是映射，Long.MAX_VALUE表示从不映射
+     * @return 只读字节缓冲区，position为0，limit为文件长度
+     * @throws IOException
+     */
+    public ByteBuffer readByteBuffer(long mappingThreshold) throws IOException {
+        Assert.isTrue(mappingThreshold >= 0,"Mapping threshold must not be negative");
+        try(FileChannel channel = FileChannel.open(this.filePath,StandardOpenOption.READ)){
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE){
+                throw new IOException(getDescription() + " is too large to be read into a single buffer: " + size + " bytes");
+            }
+            if(size >= mappingThreshold){
+                //映射在管道关闭后仍然有效
+                return channel.map(FileChannel.MapMode.READ_ONLY,0,size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int)size);
+            while(buffer.hasRemaining()){
+                if(channel.read(buffer) < 0){
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        }catch (NoSuchFileException ex){
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * 通过异步文件管道读取文件全部内容，打开文件和读取文件都在资源读取线程池中进行，不占用调用线程
+     * @return 读取完成后得到只读字节缓冲区
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> readAsync() {
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        ResourceExecutors.executeRead(future,() -> {
+            AsynchronousFileChannel channel = openAsynchronousFileChannel();
+            try{
+                long size = channel.size();
+                if(size > Integer.MAX_VALUE){
+                    throw new IOException(getDescription() + " is too large to be read into a single buffer: " + size + " bytes");
+                }
+                readFully(channel,ByteBuffer.allocate((int)size),future);
+            }catch (IOException | RuntimeException ex){
+                closeQuietly(channel);
+                throw ex;
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 从异步文件管道读满缓冲区
+     * @param channel 异步文件管道
+     * @param buffer 缓冲区
+     * @param future 读取完成后得到只读字节缓冲区
+     */
+    private static void readFully(AsynchronousFileChannel channel,ByteBuffer buffer,CompletableFuture<ByteBuffer> future){
+        channel.read(buffer,0,null,new CompletionHandler<Integer,Void>() {
+            @Override
+            public void completed(Integer result,Void attachment) {
+                if(result != -1 && buffer.hasRemaining()){
+                    //没有读满时从当前位置继续读取
+                    channel.read(buffer,buffer.position(),null,this);
+                    return;
+                }
+                closeQuietly(channel);
+                buffer.flip();
+                future.complete(buffer.asReadOnlyBuffer());
+            }
+
+            @Override
+            public void failed(Throwable ex,Void attachment) {
+                closeQuietly(channel);
+                future.completeExceptionally(ex);
+            }
+        });
+    }
+
+    /**
+     * 通过异步文件管道分块读取文件，上一块处理完成后才读取下一块，打开文件和读取文件都在资源读取线程池中进行
+     * @param chunkConsumer 块消费者，缓冲区只在回调期间有效，回调返回后会被复用
+     * @return 全部内容读取完成后完成
+     */
+    @Override
+    public CompletableFuture<Void> readAsync(Consumer<? super ByteBuffer> chunkConsumer) {
+        Assert.notNull(chunkConsumer,"Chunk consumer must not be null");
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        ResourceExecutors.executeRead(future,() -> readChunks(openAsynchronousFileChannel(),chunkConsumer,future));
+        return future;
+    }
+
+    /**
+     * 从异步文件管道依次读取每块内容
+     * @param channel 异步文件管道
+     * @param chunkConsumer 块消费者
+     * @param future 全部内容读取完成后完成
+     */
+    private static void readChunks(AsynchronousFileChannel channel,Consumer<? super ByteBuffer> chunkConsumer,CompletableFuture<Void> future){
+        ByteBuffer buffer = ByteBuffer.allocate(ResourceExecutors.CHUNK_SIZE);
+        channel.read(buffer,0,0L,new CompletionHandler<Integer,Long>() {
+            @Override
+            public void completed(Integer result,Long position) {
+                if(result == -1){
+                    closeQuietly(channel);
+                    future.complete(null);
+                    return;
+                }
+                buffer.flip();
+                try{
+                    if(buffer.hasRemaining()){
+                        chunkConsumer.accept(buffer);
+                    }
+                }catch (Throwable ex){
+                    failed(ex,position);
+                    return;
+                }
+                buffer.clear();
+                long nextPosition = position + result;
+                channel.read(buffer,nextPosition,nextPosition,this);
+            }
+
+            @Override
+            public void failed(Throwable ex,Long position) {
+                closeQuietly(channel);
+                future.completeExceptionally(ex);
+            }
+        });
+    }
+
+    /**
+     * 打开异步文件管道，读取在资源读取线程池中进行
+     * @return
+     * @throws IOException
+     */
+    private AsynchronousFileChannel openAsynchronousFileChannel() throws IOException {
+        try{
+            return AsynchronousFileChannel.open(this.filePath,Collections.singleton(StandardOpenOption.READ),ResourceExecutors.getReadExecutor());
+        }catch (NoSuchFileException ex){
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    private static void closeQuietly(AsynchronousFileChannel channel){
+        try{
+            channel.close();
+        }catch (IOException ex){
+            //忽略
+        }
+    }
+
     /**
      * 获取可写的字节管道
      * @return
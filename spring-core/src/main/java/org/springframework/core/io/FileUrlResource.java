@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
@@ -54,6 +55,27 @@ public class FileUrlResource extends UrlResource implements WritableResource {
         return file;
     }
 
+    /**
+     * 以只读字节缓冲区的形式读取文件全部内容，使用默认的内存映射阈值
+     * @return 只读字节缓冲区
+     * @throws IOException
+     * @see FileSystemResource#readByteBuffer()
+     */
+    public ByteBuffer readByteBuffer() throws IOException {
+        return readByteBuffer(FileSystemResource.DEFAULT_MAPPING_THRESHOLD);
+    }
+
+    /**
+     * 以只读字节缓冲区的形式读取文件全部内容
+     * @param mappingThreshold 内存映射阈值
+     * @return 只读字节缓冲区
+     * @throws IOException
+     * @see FileSystemResource#readByteBuffer(long)
+     */
+    public ByteBuffer readByteBuffer(long mappingThreshold) throws IOException {
+        return new FileSystemResource(getFile()).readByteBuffer(mappingThreshold);
+    }
+
     /**}
      * 获取可写的字节管道
      * @return
@@ -0,0 +1,438 @@
+package org.springframework.core.io;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * jar包索引缓存
+ * 缓存打开的jar包以及按名称排序的条目名数组，条目是否存在和前缀查询都通过二分查找完成，不需要重复打开jar包；
+ * 打开的jar包数量有上限，超出时淘汰最久未使用的jar包。jar包通过引用计数管理，被淘汰时如果还有使用者，
+ * 等最后一个使用者释放后再关闭；
+ * 查询不加全局锁，jar包是否被修改在查询线程中检查
+ */
+public class JarIndexCache {
+
+    /**
+     * 默认缓存的jar包数量上限
+     */
+    public static final int DEFAULT_CACHE_LIMIT = 32;
+
+    /**
+     * 共享的jar包索引缓存
+     */
+    private static final JarIndexCache sharedInstance = new JarIndexCache(DEFAULT_CACHE_LIMIT);
+
+    /**
+     * 缓存的jar包数量上限
+     */
+    private final int cacheLimit;
+
+    /**
+     * jar包文件 -> jar包索引
+     */
+    private final ConcurrentHashMap<File,JarIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 访问时钟，每次访问递增，用于找出最久未使用的jar包
+     */
+    private final AtomicLong accessClock = new AtomicLong();
+
+    /**
+     * 命中次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 打开jar包的次数
+     */
+    private final LongAdder openCount = new LongAdder();
+
+    /**
+     * 通过缓存的jar包数量上限构造
+     * @param cacheLimit 缓存的jar包数量上限
+     */
+    public JarIndexCache(int cacheLimit){
+        Assert.isTrue(cacheLimit > 0,"Cache limit must be greater than 0");
+        this.cacheLimit = cacheLimit;
+    }
+
+    /**
+     * 获取共享的jar包索引缓存
+     * @return
+     */
+    public static JarIndexCache getSharedInstance(){
+        return sharedInstance;
+    }
+
+    /**
+     * 判断资源定位符能否通过jar包索引查询，只支持本地文件系统中的jar包，不支持嵌套的jar包
+     * @param url 资源定位符
+     * @return
+     */
+    public static boolean isIndexable(URL url){
+        if(!ResourceUtils.URL_PROTOCOL_JAR.equals(url.getProtocol())){
+            return false;
+        }
+        String file = url.getFile();
+        int separatorIndex = file.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        //条目名中的转义字符需要解码，交给jar连接处理
+        return (file.startsWith(ResourceUtils.FILE_URL_PREFIX) && separatorIndex != -1 &&
+                file.indexOf(ResourceUtils.JAR_URL_SEPARATOR,separatorIndex + 2) == -1 &&
+                file.indexOf('%',separatorIndex) == -1);
+    }
+
+    /**
+     * 获取缓存的jar包数量上限
+     * @return
+     */
+    public int getCacheLimit(){
+        return this.cacheLimit;
+    }
+
+    /**
+     * 获取jar包的索引，使用完毕后必须关闭返回的句柄
+     * @param jarFile jar包文件
+     * @return
+     * @throws IOException
+     */
+    public Handle acquire(File jarFile) throws IOException {
+        Assert.notNull(jarFile,"Jar file must not be null");
+        File key = jarFile.getAbsoluteFile();
+        JarIndex index = this.indexes.get(key);
+        while(index != null){
+            if(index.isStale()){
+                if(this.indexes.remove(key,index)){
+                    index.evict();
+                }
+                break;
+            }
+            if(index.tryRetain()){
+                index.lastAccess = this.accessClock.incrementAndGet();
+                this.hitCount.increment();
+                return new Handle(index);
+            }
+            //已被其他线程淘汰，重新查找
+            this.indexes.remove(key,index);
+            index = this.indexes.get(key);
+        }
+
+        //打开jar包时不阻塞其他jar包的查询，同一个jar包被同时打开时保留最后放入的索引
+        JarIndex created = new JarIndex(key);
+        this.openCount.increment();
+        created.retain();
+        created.lastAccess = this.accessClock.incrementAndGet();
+        JarIndex previous = this.indexes.put(key,created);
+        if(previous != null){
+            previous.evict();
+        }
+        evictIfNecessary();
+        return new Handle(created);
+    }
+
+    /**
+     * 超出数量上限时淘汰最久未使用的jar包
+     */
+    private void evictIfNecessary(){
+        while(this.indexes.size() > this.cacheLimit){
+            Map.Entry<File,JarIndex> eldest = null;
+            for(Map.Entry<File,JarIndex> entry : this.indexes.entrySet()){
+                if(eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess){
+                    eldest = entry;
+                }
+            }
+            if(eldest == null){
+                return;
+            }
+            if(this.indexes.remove(eldest.getKey(),eldest.getValue())){
+                eldest.getValue().evict();
+            }
+        }
+    }
+
+    /**
+     * 判断jar资源定位符指向的条目是否存在
+     * @param jarUrl jar资源定位符，必须满足isIndexable
+     * @return
+     * @throws IOException
+     */
+    public boolean containsEntry(URL jarUrl) throws IOException {
+        Assert.isTrue(isIndexable(jarUrl),"URL [" + jarUrl + "] cannot be resolved through the jar index");
+        String file = jarUrl.getFile();
+        int separatorIndex = file.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        File jarFile = ResourceUtils.getFile(new URL(file.substring(0,separatorIndex)));
+        try(Handle handle = acquire(jarFile)){
+            return handle.containsEntry(file.substring(separatorIndex + 2));
+        }
+    }
+
+    /**
+     * 读取jar资源定位符指向的条目，返回的输入流持有jar包的引用，关闭输入流后释放
+     * @param jarUrl jar资源定位符，必须满足isIndexable
+     * @return
+     * @throws IOException
+     */
+    public InputStream getInputStream(URL jarUrl) throws IOException {
+        Assert.isTrue(isIndexable(jarUrl),"URL [" + jarUrl + "] cannot be resolved through the jar index");
+        String file = jarUrl.getFile();
+        int separatorIndex = file.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        File jarFile = ResourceUtils.getFile(new URL(file.substring(0,separatorIndex)));
+        try(Handle handle = acquire(jarFile)){
+            return handle.getInputStream(file.substring(separatorIndex + 2));
+        }
+    }
+
+    /**
+     * 获取缓存的jar包数量
+     * @return
+     */
+    public int size(){
+        return this.indexes.size();
+    }
+
+    /**
+     * 获取命中次数
+     * @return
+     */
+    public long getHitCount(){
+        return this.hitCount.sum();
+    }
+
+    /**
+     * 获取打开jar包的次数
+     * @return
+     */
+    public long getOpenCount(){
+        return this.openCount.sum();
+    }
+
+    /**
+     * 清空缓存，正在使用的jar包在释放后关闭
+     */
+    public void clear(){
+        for(Map.Entry<File,JarIndex> entry : this.indexes.entrySet()){
+            if(this.indexes.remove(entry.getKey(),entry.getValue())){
+                entry.getValue().evict();
+            }
+        }
+    }
+
+    /**
+     * 打开的jar包以及条目名索引
+     */
+    private static final class JarIndex {
+
+        private final File file;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final JarFile jarFile;
+
+        /**
+         * 按名称排序的条目名
+         */
+        private final String[] entryNames;
+
+        /**
+         * 使用者数量
+         */
+        private int refCount;
+
+        /**
+         * 是否已被淘汰
+         */
+        private boolean evicted;
+
+        /**
+         * 最后一次访问的时钟值
+         */
+        volatile long lastAccess;
+
+        JarIndex(File file) throws IOException {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.jarFile = new JarFile(file);
+            List<String> names = new ArrayList<>(this.jarFile.size());
+            for(Enumeration<JarEntry> entries = this.jarFile.entries();entries.hasMoreElements();){
+                names.add(entries.nextElement().getName());
+            }
+            this.entryNames = names.toArray(new String[0]);
+            Arrays.sort(this.entryNames);
+        }
+
+        /**
+         * jar包在打开后是否被修改
+         * @return
+         */
+        boolean isStale(){
+            return (this.file.lastModified() != this.lastModified || this.file.length() != this.length);
+        }
+
+        /**
+         * 增加使用者，调用者必须已经持有引用
+         */
+        synchronized void retain(){
+            this.refCount++;
+        }
+
+        /**
+         * 尚未被淘汰时增加使用者
+         * @return 已被淘汰时返回false
+         */
+        synchronized boolean tryRetain(){
+            if(this.evicted){
+                return false;
+            }
+            this.refCount++;
+            return true;
+        }
+
+        synchronized void release(){
+            this.refCount--;
+            if(this.evicted && this.refCount == 0){
+                closeJarFile();
+            }
+        }
+
+        synchronized void evict(){
+            this.evicted = true;
+            if(this.refCount == 0){
+                closeJarFile();
+            }
+        }
+
+        private void closeJarFile(){
+            try{
+                this.jarFile.close();
+            }catch (IOException ex){
+                //忽略
+            }
+        }
+
+        /**
+         * 获取条目名在索引中的插入位置
+         * @param name 条目名
+         * @return
+         */
+        int indexOf(String name){
+            int index = Arrays.binarySearch(this.entryNames,name);
+            return (index >= 0 ? index : -index - 1);
+        }
+    }
+
+    /**
+     * jar包索引的句柄，关闭后不能再使用
+     */
+    public static final class Handle implements Closeable {
+
+        @Nullable
+        private JarIndex index;
+
+        Handle(JarIndex index){
+            this.index = index;
+        }
+
+        private JarIndex obtainIndex(){
+            JarIndex index = this.index;
+            Assert.isTrue(index != null,"Handle has already been closed");
+            return index;
+        }
+
+        /**
+         * 读取条目，返回的输入流单独持有jar包的引用，句柄关闭后仍然可以读取，关闭输入流后释放
+         * @param entryName 条目名
+         * @return
+         * @throws IOException
+         */
+        public InputStream getInputStream(String entryName) throws IOException {
+            JarIndex index = obtainIndex();
+            JarEntry entry = index.jarFile.getJarEntry(entryName);
+            if(entry == null){
+                throw new FileNotFoundException("JAR entry " + entryName + " not found in " + index.file);
+            }
+            index.retain();
+            try{
+                return new FilterInputStream(index.jarFile.getInputStream(entry)) {
+                    private boolean closed;
+
+                    @Override
+                    public void close() throws IOException {
+                        if(this.closed){
+                            return;
+                        }
+                        this.closed = true;
+                        try{
+                            super.close();
+                        }finally {
+                            index.release();
+                        }
+                    }
+                };
+            }catch (IOException | RuntimeException ex){
+                index.release();
+                throw ex;
+            }
+        }
+
+        /**
+         * 判断条目是否存在，目录条目可以省略结尾的"/"，空的条目名表示jar包根目录
+         * @param entryName 条目名
+         * @return
+         */
+        public boolean containsEntry(String entryName){
+            JarIndex index = obtainIndex();
+            if(entryName.isEmpty()){
+                return true;
+            }
+            String[] names = index.entryNames;
+            int position = index.indexOf(entryName);
+            if(position < names.length && names[position].equals(entryName)){
+                return true;
+            }
+            //目录没有单独的条目时，只要存在以它为前缀的条目就认为目录存在
+            String directory = (entryName.endsWith("/") ? entryName : entryName + "/");
+            position = index.indexOf(directory);
+            return (position < names.length && names[position].startsWith(directory));
+        }
+
+        /**
+         * 获取以给定前缀开头的所有条目名，按名称排序
+         * @param prefix 前缀
+         * @return
+         */
+        public List<String> getEntryNames(String prefix){
+            JarIndex index = obtainIndex();
+            String[] names = index.entryNames;
+            int start = index.indexOf(prefix);
+            int end = start;
+            while(end < names.length && names[end].startsWith(prefix)){
+                end++;
+            }
+            return Collections.unmodifiableList(Arrays.asList(names).subList(start,end));
+        }
+
+        /**
+         * 释放jar包
+         */
+        @Override
+        public void close() {
+            JarIndex index = this.index;
+            if(index != null){
+                this.index = null;
+                index.release();
+            }
+        }
+    }
+}
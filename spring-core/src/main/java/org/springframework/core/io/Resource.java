@@ -5,8 +5,11 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * 资源公共接口
@@ -28,6 +31,23 @@ public interface Resource extends InputStreamSouce {
         return Channels.newChannel(getInputStream());
     };
 
+    /**
+     * 异步读取资源的全部内容，读取在有界的读取线程池中进行，调用线程不会阻塞
+     * @return 读取完成后得到只读字节缓冲区，读取失败时以IOException异常完成
+     */
+    default CompletableFuture<ByteBuffer> readAsync(){
+        return ResourceExecutors.readAsync(this);
+    }
+
+    /**
+     * 异步分块读取资源，按顺序把每块内容交给消费者
+     * @param chunkConsumer 块消费者，缓冲区只在回调期间有效，回调返回后会被复用
+     * @return 全部内容读取完成后完成，读取失败时以IOException异常完成
+     */
+    default CompletableFuture<Void> readAsync(Consumer<? super ByteBuffer> chunkConsumer){
+        return ResourceExecutors.readAsync(this,chunkConsumer);
+    }
+
     /**
      * 资源的长度
      * @return
@@ -0,0 +1,399 @@
+package org.springframework.core.io;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 有界的资源缓存
+ * 按最近最少使用的顺序淘汰，总权重超过上限时淘汰最久未访问的条目；权重本身超过上限的值不会被缓存，
+ * 以免一个过大的值清空整个缓存；
+ * 文件资源在读取时会比较最后修改时间，文件被修改后缓存条目失效；
+ * 读取不加锁，只记录访问时钟，放入、移除和淘汰在写锁内进行；computeIfAbsent按资源分段加锁，同一个资源的值只计算一次
+ * @param <T> 缓存值类型
+ */
+public class ResourceCache<T> extends AbstractMap<Resource,T> {
+
+    /**
+     * 最后修改时间未知，不做失效校验
+     */
+    private static final long UNKNOWN_LAST_MODIFIED = -1L;
+
+    /**
+     * computeIfAbsent使用的分段锁数量，必须是2的幂
+     */
+    private static final int COMPUTE_LOCK_COUNT = 16;
+
+    /**
+     * 最大总权重
+     */
+    private final long maximumWeight;
+
+    /**
+     * 权重计算器，为null时每个条目的权重为1
+     */
+    @Nullable
+    private final Weigher<? super T> weigher;
+
+    /**
+     * 缓存条目
+     */
+    private final ConcurrentHashMap<Resource,CacheEntry<T>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 访问时钟，每次访问递增，用于找出最久未访问的条目
+     */
+    private final AtomicLong accessClock = new AtomicLong();
+
+    /**
+     * 放入、移除和淘汰条目时使用的锁，保证总权重与条目一致
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * computeIfAbsent按资源分段使用的锁
+     */
+    private final Object[] computeLocks = new Object[COMPUTE_LOCK_COUNT];
+
+    /**
+     * 当前总权重，只在写锁内修改
+     */
+    private volatile long totalWeight;
+
+    /**
+     * 命中次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 未命中次数
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 因超出容量被淘汰的次数
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 因资源被修改而失效的次数
+     */
+    private final LongAdder invalidationCount = new LongAdder();
+
+    /**
+     * 通过最大条目数构造缓存
+     * @param maximumSize 最大条目数
+     */
+    public ResourceCache(long maximumSize){
+        this(maximumSize,null);
+    }
+
+    /**
+     * 通过最大总权重和权重计算器构造缓存
+     * @param maximumWeight 最大总权重
+     * @param weigher 权重计算器，为null时每个条目的权重为1
+     */
+    public ResourceCache(long maximumWeight,@Nullable Weigher<? super T> weigher){
+        Assert.isTrue(maximumWeight >= 0,"Maximum weight must not be negative");
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        for(int i=0;i<COMPUTE_LOCK_COUNT;i++){
+            this.computeLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * 获取资源对应的缓存值，文件资源被修改后返回null
+     * @param key 资源
+     * @return
+     */
+    @Override
+    @Nullable
+    public T get(Object key) {
+        T value = getIfValid(key);
+        if(value == null){
+            this.missCount.increment();
+            return null;
+        }
+        this.hitCount.increment();
+        return value;
+    }
+
+    /**
+     * 获取有效的缓存值并记录访问时间，不计入命中统计
+     * @param key 资源
+     * @return 不存在或已失效时返回null
+     */
+    @Nullable
+    private T getIfValid(Object key){
+        CacheEntry<T> entry = this.entries.get(key);
+        if(entry == null){
+            return null;
+        }
+        if(entry.lastModified != UNKNOWN_LAST_MODIFIED && entry.lastModified != lastModifiedOf((Resource) key)){
+            synchronized (this.writeLock){
+                if(this.entries.remove(key,entry)){
+                    this.totalWeight -= entry.weight;
+                    this.invalidationCount.increment();
+                }
+            }
+            return null;
+        }
+        entry.lastAccess = this.accessClock.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * 判断是否包含有效的缓存值
+     * @param key 资源
+     * @return
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * 获取资源对应的缓存值，不存在时计算并放入
+     * 同一个资源同时只有一个线程计算，其他线程等待并使用它的结果；不同资源的计算可以并行
+     * @param key 资源
+     * @param mappingFunction 计算缓存值的函数，返回null时不缓存
+     * @return
+     */
+    @Override
+    @Nullable
+    public T computeIfAbsent(Resource key,Function<? super Resource,? extends T> mappingFunction) {
+        Assert.notNull(key,"Resource must not be null");
+        Assert.notNull(mappingFunction,"Mapping function must not be null");
+        T value = getIfValid(key);
+        if(value != null){
+            this.hitCount.increment();
+            return value;
+        }
+        synchronized (this.computeLocks[(key.hashCode() ^ (key.hashCode() >>> 16)) & (COMPUTE_LOCK_COUNT - 1)]){
+            value = getIfValid(key);
+            if(value != null){
+                this.hitCount.increment();
+                return value;
+            }
+            this.missCount.increment();
+            value = mappingFunction.apply(key);
+            if(value != null){
+                put(key,value);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * 放入缓存值，超出容量时淘汰最久未访问的条目
+     * 值的权重超过最大总权重时不缓存，只移除资源原有的缓存值
+     * @param key 资源
+     * @param value 缓存值
+     * @return 旧的缓存值
+     */
+    @Override
+    @Nullable
+    public T put(Resource key, T value) {
+        Assert.notNull(key,"Resource must not be null");
+        Assert.notNull(value,"Value must not be null");
+        long lastModified = lastModifiedOf(key);
+        int weight = (this.weigher != null ? this.weigher.weigh(key,value) : 1);
+        Assert.isTrue(weight >= 0,"Weight must not be negative");
+        if(weight > this.maximumWeight){
+            return remove(key);
+        }
+        CacheEntry<T> newEntry = new CacheEntry<>(value,weight,lastModified);
+        newEntry.lastAccess = this.accessClock.incrementAndGet();
+        synchronized (this.writeLock){
+            CacheEntry<T> oldEntry = this.entries.put(key,newEntry);
+            long totalWeight = this.totalWeight + weight;
+            if(oldEntry != null){
+                totalWeight -= oldEntry.weight;
+            }
+            this.totalWeight = totalWeight;
+            evictIfNecessary();
+            return (oldEntry != null ? oldEntry.value : null);
+        }
+    }
+
+    /**
+     * 移除缓存值
+     * @param key 资源
+     * @return
+     */
+    @Override
+    @Nullable
+    public T remove(Object key) {
+        synchronized (this.writeLock){
+            CacheEntry<T> entry = this.entries.remove(key);
+            if(entry == null){
+                return null;
+            }
+            this.totalWeight -= entry.weight;
+            return entry.value;
+        }
+    }
+
+    /**
+     * 清空缓存，统计计数保留
+     */
+    @Override
+    public void clear() {
+        synchronized (this.writeLock){
+            this.entries.clear();
+            this.totalWeight = 0;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * 获取当前缓存条目的快照，按访问时间从早到晚排列，不会改变访问时间，对快照的修改不影响缓存
+     * @return
+     */
+    @Override
+    public Set<Entry<Resource,T>> entrySet() {
+        List<Map.Entry<Resource,CacheEntry<T>>> current = new ArrayList<>(this.entries.entrySet());
+        current.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        Set<Entry<Resource,T>> snapshot = new LinkedHashSet<>(current.size());
+        for(Map.Entry<Resource,CacheEntry<T>> entry : current){
+            snapshot.add(new SimpleImmutableEntry<>(entry.getKey(),entry.getValue().value));
+        }
+        return Collections.unmodifiableSet(snapshot);
+    }
+
+    /**
+     * 淘汰最久未访问的条目，直到总权重不超过上限，调用者持有写锁
+     */
+    private void evictIfNecessary(){
+        while(this.totalWeight > this.maximumWeight){
+            Map.Entry<Resource,CacheEntry<T>> eldest = null;
+            for(Map.Entry<Resource,CacheEntry<T>> entry : this.entries.entrySet()){
+                if(eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess){
+                    eldest = entry;
+                }
+            }
+            if(eldest == null){
+                return;
+            }
+            if(this.entries.remove(eldest.getKey(),eldest.getValue())){
+                this.totalWeight -= eldest.getValue().weight;
+                this.evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 获取资源的最后修改时间，只校验文件资源，其他资源的最后修改时间需要建立连接，不做校验
+     * @param resource 资源
+     * @return
+     */
+    private static long lastModifiedOf(Resource resource){
+        if(!resource.isFile()){
+            return UNKNOWN_LAST_MODIFIED;
+        }
+        try{
+            return resource.lastModified();
+        }catch (IOException ex){
+            return UNKNOWN_LAST_MODIFIED;
+        }
+    }
+
+    /**
+     * 获取最大总权重
+     * @return
+     */
+    public long getMaximumWeight(){
+        return this.maximumWeight;
+    }
+
+    /**
+     * 获取当前总权重
+     * @return
+     */
+    public long getTotalWeight(){
+        return this.totalWeight;
+    }
+
+    /**
+     * 获取命中次数
+     * @return
+     */
+    public long getHitCount(){
+        return this.hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     * @return
+     */
+    public long getMissCount(){
+        return this.missCount.sum();
+    }
+
+    /**
+     * 获取因超出容量被淘汰的次数
+     * @return
+     */
+    public long getEvictionCount(){
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * 获取因资源被修改而失效的次数
+     * @return
+     */
+    public long getInvalidationCount(){
+        return this.invalidationCount.sum();
+    }
+
+    /**
+     * 缓存值的权重计算器
+     * @param <T> 缓存值类型
+     */
+    @FunctionalInterface
+    public interface Weigher<T> {
+
+        /**
+         * 计算缓存条目的权重
+         * @param resource 资源
+         * @param value 缓存值
+         * @return 非负的权重
+         */
+        int weigh(Resource resource,T value);
+    }
+
+    /**
+     * 缓存条目
+     * @param <T> 缓存值类型
+     */
+    private static final class CacheEntry<T> {
+
+        private final T value;
+
+        private final int weight;
+
+        private final long lastModified;
+
+        /**
+         * 最后一次访问时的访问时钟
+         */
+        private volatile long lastAccess;
+
+        CacheEntry(T value,int weight,long lastModified){
+            this.value = value;
+            this.weight = weight;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.springframework.core.io;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 资源异步读取和批量操作使用的线程池
+ * 读取线程池的线程数量有上限，同时进行的读取数量也有上限，超出时返回的future以RejectedExecutionException异常完成，
+ * 读取不会在提交任务的线程中执行；线程池的队列本身不限长度，已经开始的读取提交的后续任务不会被拒绝；
+ * 批量操作在支持虚拟线程的运行环境中每个任务使用一个虚拟线程，否则使用队列有界的平台线程池；
+ * 每次批量操作最多同时提交MAX_BULK_TASKS_PER_CALL个任务，多个批量操作共享有界的队列，
+ * 线程池仍然拒绝任务时批量操作以RejectedExecutionException失败，
+ * 同样不会在提交任务的线程中执行
+ */
+final class ResourceExecutors {
+
+    /**
+     * 分块读取时每块的大小
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    /**
+     * 等待队列的长度上限
+     */
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * 同时进行的读取数量上限
+     */
+    static final int MAX_PENDING_READS = 1024;
+
+    /**
+     * 平台线程池中每个处理器对应的批量操作线程数，资源探测主要在等待I/O
+     */
+    private static final int BULK_THREADS_PER_PROCESSOR = 4;
+
+    /**
+     * 每次批量操作同时提交的任务数上限，多个批量操作同时进行时共享批量操作线程池的队列
+     */
+    static final int MAX_BULK_TASKS_PER_CALL = 64;
+
+    private ResourceExecutors(){
+    }
+
+    /**
+     * 获取读取资源的线程池
+     * @return
+     */
+    static ExecutorService getReadExecutor(){
+        return ReadExecutorHolder.readExecutor;
+    }
+
+    /**
+     * 获取批量资源操作使用的线程池
+     * @return
+     */
+    static ExecutorService getBulkExecutor(){
+        return BulkExecutorHolder.bulkExecutor;
+    }
+
+    /**
+     * 批量操作是否使用虚拟线程
+     * @return
+     */
+    static boolean isVirtualThreadBulkExecutor(){
+        return BulkExecutorHolder.virtualThreads;
+    }
+
+    /**
+     * 并行判断所有位置的资源是否存在
+     * @param resourceLoader 资源加载器
+     * @param locations 资源位置
+     * @return 资源位置 -> 是否存在，按资源位置的顺序排列
+     */
+    static Map<String,Boolean> existsAll(ResourceLoader resourceLoader,Collection<String> locations){
+        List<Boolean> exists = mapAll(locations,location -> exists(resourceLoader.getResource(location)));
+        Map<String,Boolean> result = new LinkedHashMap<>(locations.size() * 2);
+        Iterator<Boolean> iterator = exists.iterator();
+        for(String location : locations){
+            result.put(location,iterator.next());
+        }
+        return result;
+    }
+
+    /**
+     * 并行获取所有位置中存在的资源
+     * @param resourceLoader 资源加载器
+     * @param locations 资源位置
+     * @return 存在的资源，按资源位置的顺序排列
+     */
+    static List<Resource> getExistingResources(ResourceLoader resourceLoader,Collection<String> locations){
+        List<Resource> resources = mapAll(locations,location -> {
+            Resource resource = resourceLoader.getResource(location);
+            return (exists(resource) ? resource : null);
+        });
+        resources.removeIf(Objects::isNull);
+        return resources;
+    }
+
+    /**
+     * 在批量操作线程池中并行处理所有资源位置，等待全部完成后按顺序返回结果
+     * @param locations 资源位置
+     * @param function 处理函数
+     * @return
+     */
+    private static <T> List<T> mapAll(Collection<String> locations,Function<String,T> function){
+        Assert.notNull(locations,"Locations must not be null");
+        List<CompletableFuture<T>> futures = new ArrayList<>(locations.size());
+        //限制本次批量操作同时提交的任务数，单次操作不会占满线程池的队列
+        Semaphore window = new Semaphore(MAX_BULK_TASKS_PER_CALL);
+        for(String location : locations){
+            try{
+                window.acquire();
+            }catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(false));
+                throw new IllegalStateException("Interrupted while submitting bulk resource operations",ex);
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.whenComplete((result,ex) -> window.release());
+            executeBulk(future,() -> function.apply(location));
+            futures.add(future);
+        }
+        List<T> result = new ArrayList<>(futures.size());
+        for(CompletableFuture<T> future : futures){
+            try{
+                result.add(future.join());
+            }catch (CompletionException ex){
+                Throwable cause = ex.getCause();
+                if(cause instanceof RuntimeException){
+                    throw (RuntimeException) cause;
+                }
+                if(cause instanceof Error){
+                    throw (Error) cause;
+                }
+                throw ex;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在批量操作线程池中执行任务，线程池拒绝时future以RejectedExecutionException异常完成，不在提交任务的线程中执行
+     * @param future 任务结果
+     * @param task 任务
+     */
+    private static <T> void executeBulk(CompletableFuture<T> future,Supplier<T> task){
+        try{
+            getBulkExecutor().execute(() -> {
+                try{
+                    future.complete(task.get());
+                }catch (Throwable ex){
+                    future.completeExceptionally(ex);
+                }
+            });
+        }catch (RejectedExecutionException ex){
+            future.completeExceptionally(ex);
+        }
+    }
+
+    private static boolean exists(Resource resource){
+        try{
+            return resource.exists();
+        }catch (IOException ex){
+            return false;
+        }
+    }
+
+    /**
+     * 在读取线程池中读取资源的全部内容
+     * @param resource 资源
+     * @return 只读字节缓冲区
+     */
+    static CompletableFuture<ByteBuffer> readAsync(Resource resource){
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        executeRead(future,() -> {
+            try(InputStream in = resource.getInputStream()){
+                future.complete(ByteBuffer.wrap(StreamUtils.copyToByteArray(in,expectedLength(resource))).asReadOnlyBuffer());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 获取资源的预计长度，用于分配读取的数组
+     * @param resource 资源
+     * @return 长度未知时返回-1
+     */
+    private static int expectedLength(Resource resource){
+        try{
+            long contentLength = resource.contentLength();
+            return (contentLength >= 0 && contentLength < Integer.MAX_VALUE - 8 ? (int) contentLength : -1);
+        }catch (IOException ex){
+            return -1;
+        }
+    }
+
+    /**
+     * 在读取线程池中分块读取资源，依次把每块内容交给消费者
+     * @param resource 资源
+     * @param chunkConsumer 块消费者，缓冲区在回调返回后被复用
+     * @return 读取完成时完成
+     */
+    static CompletableFuture<Void> readAsync(Resource resource,Consumer<? super ByteBuffer> chunkConsumer){
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executeRead(future,() -> {
+            try(ReadableByteChannel channel = resource.readableByteChannel()){
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                while(channel.read(buffer) != -1){
+                    buffer.flip();
+                    if(buffer.hasRemaining()){
+                        chunkConsumer.accept(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            future.complete(null);
+        });
+        return future;
+    }
+
+    /**
+     * 在读取线程池中执行读取任务，读取任务负责完成future
+     * 同时进行的读取达到上限时不执行任务，future以RejectedExecutionException异常完成；任务抛出异常时future以该异常完成
+     * @param future 读取结果，完成后释放读取名额
+     * @param task 读取任务
+     */
+    static void executeRead(CompletableFuture<?> future,ReadTask task){
+        Semaphore permits = ReadExecutorHolder.readPermits;
+        if(!permits.tryAcquire()){
+            future.completeExceptionally(new RejectedExecutionException(
+                    "Too many pending resource reads, limit is " + MAX_PENDING_READS));
+            return;
+        }
+        future.whenComplete((result,ex) -> permits.release());
+        try{
+            getReadExecutor().execute(() -> {
+                try{
+                    task.run();
+                }catch (Throwable ex){
+                    future.completeExceptionally(ex);
+                }
+            });
+        }catch (RejectedExecutionException ex){
+            future.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * 读取任务
+     */
+    @FunctionalInterface
+    interface ReadTask {
+
+        void run() throws IOException;
+    }
+
+    /**
+     * 延迟创建读取线程池
+     */
+    private static class ReadExecutorHolder {
+
+        static final ExecutorService readExecutor = createReadExecutor();
+
+        /**
+         * 读取名额，限制同时进行的读取数量
+         */
+        static final Semaphore readPermits = new Semaphore(MAX_PENDING_READS);
+
+        private static ExecutorService createReadExecutor(){
+            int threads = Math.max(2,Runtime.getRuntime().availableProcessors());
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,threads,60L,TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),runnable -> {
+                        Thread thread = new Thread(runnable,"resource-read-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * 延迟创建批量操作线程池
+     */
+    private static class BulkExecutorHolder {
+
+        static final boolean virtualThreads;
+
+        static final ExecutorService bulkExecutor;
+
+        static {
+            ExecutorService executor = createVirtualThreadExecutor();
+            virtualThreads = (executor != null);
+            bulkExecutor = (executor != null ? executor : createPlatformThreadExecutor());
+        }
+
+        /**
+         * 通过反射创建虚拟线程执行器，运行环境不支持虚拟线程时返回null
+         * @return
+         */
+        @Nullable
+        private static ExecutorService createVirtualThreadExecutor(){
+            try{
+                Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factoryMethod.invoke(null);
+            }catch (ReflectiveOperationException | RuntimeException ex){
+                return null;
+            }
+        }
+
+        private static ExecutorService createPlatformThreadExecutor(){
+            int threads = Math.max(4,Runtime.getRuntime().availableProcessors() * BULK_THREADS_PER_PROCESSOR);
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,threads,60L,TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_CAPACITY),runnable -> {
+                        Thread thread = new Thread(runnable,"resource-bulk-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -2,6 +2,10 @@ package org.springframework.core.io;
 
 import org.springframework.util.ResourceUtils;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 资源加载器
  */
@@ -24,4 +28,22 @@ public interface ResourceLoader {
      * @return
      */
     ClassLoader getClassLoader();
+
+    /**
+     * 并行判断所有位置的资源是否存在，运行环境支持虚拟线程时每个位置使用一个虚拟线程，否则使用有界的线程池
+     * @param locations 资源位置
+     * @return 资源位置 -> 是否存在，按资源位置的顺序排列
+     */
+    default Map<String,Boolean> existsAll(Collection<String> locations){
+        return ResourceExecutors.existsAll(this,locations);
+    }
+
+    /**
+     * 并行获取所有位置中存在的资源，适合探测大量可选的配置位置
+     * @param locations 资源位置
+     * @return 存在的资源，按资源位置的顺序排列
+     */
+    default List<Resource> getExistingResources(Collection<String> locations){
+        return ResourceExecutors.getExistingResources(this,locations);
+    }
 }
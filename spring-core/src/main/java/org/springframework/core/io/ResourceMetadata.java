@@ -0,0 +1,111 @@
+package org.springframework.core.io;
+
+/**
+ * 资源元数据快照
+ * 一次探测得到的资源是否存在、是否可读、长度和最后修改时间，以及探测的时间
+ */
+public final class ResourceMetadata {
+
+    /**
+     * 资源是否存在
+     */
+    private final boolean exists;
+
+    /**
+     * 资源是否可读
+     */
+    private final boolean readable;
+
+    /**
+     * 资源长度，未知时为-1
+     */
+    private final long contentLength;
+
+    /**
+     * 资源最后修改时间，未知时为0
+     */
+    private final long lastModified;
+
+    /**
+     * 探测的时间
+     */
+    private final long probeTime;
+
+    /**
+     * 通过探测结果构造
+     * @param exists 资源是否存在
+     * @param readable 资源是否可读
+     * @param contentLength 资源长度，未知时为-1
+     * @param lastModified 资源最后修改时间，未知时为0
+     */
+    public ResourceMetadata(boolean exists,boolean readable,long contentLength,long lastModified){
+        this.exists = exists;
+        this.readable = readable;
+        this.contentLength = contentLength;
+        this.lastModified = lastModified;
+        this.probeTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 构造不存在的资源的元数据
+     * @return
+     */
+    public static ResourceMetadata notFound(){
+        return new ResourceMetadata(false,false,-1,0);
+    }
+
+    /**
+     * 资源是否存在
+     * @return
+     */
+    public boolean exists(){
+        return this.exists;
+    }
+
+    /**
+     * 资源是否可读
+     * @return
+     */
+    public boolean isReadable(){
+        return this.readable;
+    }
+
+    /**
+     * 获取资源长度
+     * @return 未知时返回-1
+     */
+    public long contentLength(){
+        return this.contentLength;
+    }
+
+    /**
+     * 获取资源最后修改时间
+     * @return 未知时返回0
+     */
+    public long lastModified(){
+        return this.lastModified;
+    }
+
+    /**
+     * 获取探测的时间
+     * @return
+     */
+    public long getProbeTime(){
+        return this.probeTime;
+    }
+
+    /**
+     * 快照是否仍在有效期内
+     * @param ttlMillis 有效期，单位毫秒
+     * @return
+     */
+    public boolean isFresh(long ttlMillis){
+        return (System.currentTimeMillis() - this.probeTime < ttlMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceMetadata [exists=" + this.exists + ", readable=" + this.readable +
+                ", contentLength=" + this.contentLength + ", lastModified=" + this.lastModified + "]";
+    }
+}
@@ -147,6 +147,10 @@ public class UrlResource extends AbstractFileResolvingResource {
      */
     @Override
     public InputStream getInputStream() throws IOException {
+        if(JarIndexCache.isIndexable(this.url)){
+            //本地jar包中的条目通过共享的jar包缓存读取，不需要每次打开jar包
+            return JarIndexCache.getSharedInstance().getInputStream(this.url);
+        }
         URLConnection con = this.url.openConnection();
         ResourceUtils.useCacheIfNecessary(con);
         try{
@@ -0,0 +1,739 @@
+package org.springframework.core.io.support;
+
+import org.springframework.core.io.ClassPathIndex;
+import org.springframework.core.io.DefaultResouceLoader;
+import org.springframework.core.io.DescriptiveResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.JarIndexCache;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 支持ant风格模式的资源加载器
+ * 支持"classpath*:"前缀从所有classpath根目录加载资源，如"classpath*:META-INF/*.xml"；
+ * 每个根目录或者jar包作为一个任务在fork-join线程池中并行扫描，目录中的子目录继续拆分为子任务
+ */
+public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
+
+    private static final LogAccessor logAccessor = new LogAccessor(PathMatchingResourcePatternResolver.class);
+
+    /**
+     * 流式结果的结束标记
+     */
+    private static final Resource END_OF_STREAM = new DescriptiveResource("end of stream");
+
+    /**
+     * 流式结果缓冲的资源数量上限，消费者跟不上时扫描任务等待
+     */
+    private static final int STREAM_BUFFER_SIZE = 256;
+
+    /**
+     * 加载单个资源的资源加载器
+     */
+    private final ResourceLoader resourceLoader;
+
+    /**
+     * 路径匹配器
+     */
+    private PathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * 扫描使用的线程池，扫描主要在等待文件系统和jar包的I/O，默认使用专用的线程池，不占用公共线程池
+     */
+    private ForkJoinPool forkJoinPool = ScanPoolHolder.scanPool;
+
+    /**
+     * 扫描jar包使用的索引缓存
+     */
+    private JarIndexCache jarIndexCache = JarIndexCache.getSharedInstance();
+
+    /**
+     * classpath索引，根在索引中并且没有被修改时直接从索引中查找资源
+     */
+    @Nullable
+    private ClassPathIndex classPathIndex = ClassPathIndex.getSharedInstance();
+
+    /**
+     * 使用默认资源加载器构造
+     */
+    public PathMatchingResourcePatternResolver(){
+        this.resourceLoader = new DefaultResouceLoader();
+    }
+
+    /**
+     * 通过资源加载器构造
+     * @param resourceLoader 资源加载器
+     */
+    public PathMatchingResourcePatternResolver(ResourceLoader resourceLoader){
+        Assert.notNull(resourceLoader,"ResourceLoader must not be null");
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * 通过类加载器构造
+     * @param classLoader 类加载器
+     */
+    public PathMatchingResourcePatternResolver(@Nullable ClassLoader classLoader){
+        this.resourceLoader = new DefaultResouceLoader(classLoader);
+    }
+
+    /**
+     * 获取资源加载器
+     * @return
+     */
+    public ResourceLoader getResourceLoader(){
+        return this.resourceLoader;
+    }
+
+    /**
+     * 获取类加载器
+     * @return
+     */
+    @Override
+    @Nullable
+    public ClassLoader getClassLoader() {
+        return getResourceLoader().getClassLoader();
+    }
+
+    /**
+     * 设置路径匹配器
+     * @param pathMatcher 路径匹配器
+     */
+    public void setPathMatcher(PathMatcher pathMatcher){
+        Assert.notNull(pathMatcher,"PathMatcher must not be null");
+        this.pathMatcher = pathMatcher;
+    }
+
+    /**
+     * 获取路径匹配器
+     * @return
+     */
+    public PathMatcher getPathMatcher(){
+        return this.pathMatcher;
+    }
+
+    /**
+     * 设置扫描使用的线程池，默认使用所有解析器共享的扫描专用线程池
+     * @param forkJoinPool 线程池
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool){
+        Assert.notNull(forkJoinPool,"ForkJoinPool must not be null");
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * 获取扫描使用的线程池
+     * @return
+     */
+    public ForkJoinPool getForkJoinPool(){
+        return this.forkJoinPool;
+    }
+
+    /**
+     * 设置扫描jar包使用的索引缓存，默认使用共享的索引缓存
+     * @param jarIndexCache jar包索引缓存
+     */
+    public void setJarIndexCache(JarIndexCache jarIndexCache){
+        Assert.notNull(jarIndexCache,"JarIndexCache must not be null");
+        this.jarIndexCache = jarIndexCache;
+    }
+
+    /**
+     * 获取扫描jar包使用的索引缓存
+     * @return
+     */
+    public JarIndexCache getJarIndexCache(){
+        return this.jarIndexCache;
+    }
+
+    /**
+     * 设置classpath索引，默认使用系统属性指定的共享索引，设置为null时总是扫描文件系统和jar包
+     * @param classPathIndex classpath索引
+     */
+    public void setClassPathIndex(@Nullable ClassPathIndex classPathIndex){
+        this.classPathIndex = classPathIndex;
+    }
+
+    /**
+     * 获取classpath索引
+     * @return
+     */
+    @Nullable
+    public ClassPathIndex getClassPathIndex(){
+        return this.classPathIndex;
+    }
+
+    /**
+     * 获取单个资源
+     * @param location 路径
+     * @return
+     */
+    @Override
+    public Resource getResource(String location) {
+        return getResourceLoader().getResource(location);
+    }
+
+    /**
+     * 获取匹配的所有资源，按classpath根目录的顺序和目录中文件名的顺序排列
+     * @param locationPattern 路径模式
+     * @return
+     * @throws IOException
+     */
+    @Override
+    public Resource[] getResources(String locationPattern) throws IOException {
+        List<Resource> resources = findResources(locationPattern,null);
+        return resources.toArray(new Resource[0]);
+    }
+
+    /**
+     * 扫描匹配的资源，每找到一个资源就回调一次，扫描完成后返回
+     * 回调会在线程池的多个线程中同时执行，顺序不确定
+     * @param locationPattern 路径模式
+     * @param callback 回调，必须是线程安全的
+     * @throws IOException
+     */
+    public void getResources(String locationPattern,Consumer<? super Resource> callback) throws IOException {
+        Assert.notNull(callback,"Callback must not be null");
+        findResources(locationPattern,callback);
+    }
+
+    /**
+     * 以流的形式获取匹配的资源，扫描在后台进行，找到的资源可以立即被消费
+     * 扫描出错时，从流中读取会抛出UncheckedIOException；
+     * 最多缓冲STREAM_BUFFER_SIZE个资源，消费者跟不上时扫描任务等待；关闭流后扫描任务不再处理新的条目并丢弃找到的资源，
+     * 因此没有读完的流必须关闭
+     * @param locationPattern 路径模式
+     * @return
+     */
+    public Stream<Resource> streamResources(String locationPattern){
+        Assert.notNull(locationPattern,"Location pattern must not be null");
+        StreamSink sink = new StreamSink();
+        CompletableFuture<Void> scan = CompletableFuture.runAsync(() -> {
+            try{
+                findResources(locationPattern,sink);
+            }catch (IOException ex){
+                throw new UncheckedIOException(ex);
+            }
+        },this.forkJoinPool);
+        scan.whenComplete((result,ex) -> sink.accept(END_OF_STREAM));
+
+        Spliterator<Resource> spliterator = new Spliterators.AbstractSpliterator<Resource>(Long.MAX_VALUE,Spliterator.NONNULL) {
+            private boolean finished;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Resource> action) {
+                if(this.finished){
+                    return false;
+                }
+                Resource resource;
+                try{
+                    resource = sink.queue.take();
+                }catch (InterruptedException ex){
+                    Thread.currentThread().interrupt();
+                    sink.close();
+                    throw new IllegalStateException("Interrupted while waiting for resources matching " + locationPattern,ex);
+                }
+                if(resource == END_OF_STREAM){
+                    this.finished = true;
+                    rethrowScanFailure(scan);
+                    return false;
+                }
+                action.accept(resource);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator,false).onClose(sink::close);
+    }
+
+    /**
+     * 扫描失败时抛出原因
+     * @param scan 扫描任务
+     */
+    private static void rethrowScanFailure(CompletableFuture<Void> scan){
+        if(!scan.isCompletedExceptionally() || scan.isCancelled()){
+            return;
+        }
+        try{
+            scan.join();
+        }catch (CompletionException ex){
+            Throwable cause = ex.getCause();
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 查找匹配的资源
+     * @param locationPattern 路径模式
+     * @param callback 找到资源时的回调，可以为null
+     * @return 匹配的资源，按顺序排列
+     * @throws IOException
+     */
+    protected List<Resource> findResources(String locationPattern,@Nullable Consumer<? super Resource> callback) throws IOException {
+        Assert.notNull(locationPattern,"Location pattern must not be null");
+        List<Resource> resources;
+        if(locationPattern.startsWith(CLASS_ALL_URL_PREFIX)){
+            if(getPathMatcher().isPattern(locationPattern.substring(CLASS_ALL_URL_PREFIX.length()))){
+                return findPathMatchingResources(locationPattern,callback);
+            }
+            resources = findAllClassPathResources(locationPattern.substring(CLASS_ALL_URL_PREFIX.length()));
+        }else{
+            //war:开头的路径只匹配"*/"之后的部分
+            int prefixEnd = (locationPattern.startsWith(ResourceUtils.WAR_URL_PREFIX) ? locationPattern.indexOf(ResourceUtils.WAR_URL_SEPARATOR) + 1 :
+                    locationPattern.indexOf(':') + 1);
+            if(getPathMatcher().isPattern(locationPattern.substring(prefixEnd))){
+                return findPathMatchingResources(locationPattern,callback);
+            }
+            resources = Collections.singletonList(getResource(locationPattern));
+        }
+        if(callback != null){
+            resources.forEach(callback);
+        }
+        return resources;
+    }
+
+    /**
+     * 通过类加载器获取所有classpath根目录下给定路径的资源
+     * @param location 不带前缀的路径
+     * @return
+     * @throws IOException
+     */
+    protected List<Resource> findAllClassPathResources(String location) throws IOException {
+        String path = (location.startsWith("/") ? location.substring(1) : location);
+        ClassLoader classLoader = getClassLoader();
+        Enumeration<URL> urls = (classLoader != null ? classLoader.getResources(path) : ClassLoader.getSystemResources(path));
+        Set<Resource> result = new LinkedHashSet<>(16);
+        while(urls.hasMoreElements()){
+            result.add(new UrlResource(urls.nextElement()));
+        }
+        if(path.isEmpty()){
+            //类加载器不会返回jar包的根目录，从classpath系统属性中补充
+            addClassPathJarRoots(result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * 添加classpath系统属性中所有jar包的根目录
+     * @param result 资源集合
+     */
+    protected void addClassPathJarRoots(Set<Resource> result){
+        String javaClassPath = System.getProperty("java.class.path");
+        if(javaClassPath == null){
+            return;
+        }
+        for(String path : StringUtils.delimitedListToStringArray(javaClassPath,File.pathSeparator)){
+            if(!path.endsWith(ResourceUtils.JAR_FILE_EXTENSION)){
+                continue;
+            }
+            try{
+                String filePath = new File(path).getAbsoluteFile().toURI().toURL().toString();
+                result.add(new UrlResource(ResourceUtils.JAR_URL_PREFIX + filePath + ResourceUtils.JAR_URL_SEPARATOR));
+            }catch (IOException ex){
+                logAccessor.debug(ex,() -> "Cannot search for matching files underneath [" + path + "]");
+            }
+        }
+    }
+
+    /**
+     * 查找匹配模式的资源，先获取模式之前的根目录，再并行扫描每个根目录
+     * @param locationPattern 路径模式
+     * @param callback 找到资源时的回调，可以为null
+     * @return
+     * @throws IOException
+     */
+    protected List<Resource> findPathMatchingResources(String locationPattern,@Nullable Consumer<? super Resource> callback) throws IOException {
+        String rootDirPath = determineRootDir(locationPattern);
+        String subPattern = locationPattern.substring(rootDirPath.length());
+        Resource[] rootDirResources = getResources(rootDirPath);
+
+        List<ForkJoinTask<List<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+        for(Resource rootDirResource : rootDirResources){
+            ForkJoinTask<List<Resource>> task = createRootDirTask(rootDirResource,subPattern,callback);
+            if(task != null){
+                tasks.add(this.forkJoinPool.submit(task));
+            }
+        }
+
+        List<Resource> result = new ArrayList<>();
+        for(ForkJoinTask<List<Resource>> task : tasks){
+            try{
+                result.addAll(task.get());
+            }catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                tasks.forEach(other -> other.cancel(true));
+                throw new IOException("Interrupted while resolving " + locationPattern,ex);
+            }catch (ExecutionException ex){
+                Throwable cause = ex.getCause();
+                if(cause instanceof UncheckedIOException){
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                if(cause instanceof RuntimeException){
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Failed to resolve " + locationPattern,cause);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 为根目录创建扫描任务
+     * @param rootDirResource 根目录资源
+     * @param subPattern 根目录之后的模式
+     * @param callback 回调
+     * @return 不支持的根目录返回null
+     * @throws IOException
+     */
+    @Nullable
+    protected ForkJoinTask<List<Resource>> createRootDirTask(Resource rootDirResource,String subPattern,
+                                                            @Nullable Consumer<? super Resource> callback) throws IOException {
+        URL rootDirUrl = rootDirResource.getURL();
+        ClassPathIndex classPathIndex = getClassPathIndex();
+        if(classPathIndex != null){
+            ForkJoinTask<List<Resource>> indexTask = createIndexScanTask(classPathIndex,rootDirResource,rootDirUrl,subPattern,callback);
+            if(indexTask != null){
+                return indexTask;
+            }
+        }
+        if(ResourceUtils.isJarURL(rootDirUrl)){
+            return new JarScanTask(rootDirResource,rootDirUrl,subPattern,callback);
+        }
+        File rootDir;
+        try{
+            rootDir = rootDirResource.getFile().getAbsoluteFile();
+        }catch (IOException ex){
+            logAccessor.debug(ex,() -> "Cannot search for matching files underneath " + rootDirResource + " because it does not correspond to a directory in the file system");
+            return null;
+        }
+        if(!rootDir.isDirectory() || !rootDir.canRead()){
+            logAccessor.debug(() -> "Skipping search for matching files underneath [" + rootDir.getAbsolutePath() + "] because it is not a readable directory");
+            return null;
+        }
+        String fullPattern = StringUtils.replace(rootDir.getAbsolutePath(),File.separator,"/");
+        if(!subPattern.startsWith("/")){
+            fullPattern += "/";
+        }
+        fullPattern = fullPattern + StringUtils.replace(subPattern,File.separator,"/");
+        return new DirectoryScanTask(rootDir,fullPattern,callback);
+    }
+
+    /**
+     * 为索引中的根目录创建扫描任务
+     * @param classPathIndex classpath索引
+     * @param rootDirResource 根目录资源
+     * @param rootDirUrl 根目录资源定位符
+     * @param subPattern 根目录之后的模式
+     * @param callback 回调
+     * @return 根目录不在索引中或者已被修改时返回null
+     * @throws IOException
+     */
+    @Nullable
+    protected ForkJoinTask<List<Resource>> createIndexScanTask(ClassPathIndex classPathIndex,Resource rootDirResource,URL rootDirUrl,
+                                                               String subPattern,@Nullable Consumer<? super Resource> callback) throws IOException {
+        ClassPathIndex.Root root = null;
+        String rootEntryPath = null;
+        if(JarIndexCache.isIndexable(rootDirUrl)){
+            String urlFile = rootDirUrl.getFile();
+            int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+            root = classPathIndex.findRoot(ResourceUtils.getFile(new URL(urlFile.substring(0,separatorIndex))));
+            rootEntryPath = urlFile.substring(separatorIndex + 2);
+        }else if(ResourceUtils.isFileUrl(rootDirUrl)){
+            String rootDirPath = ResourceUtils.getFile(rootDirUrl).getAbsolutePath();
+            for(ClassPathIndex.Root candidate : classPathIndex.getRoots()){
+                String rootPath = candidate.getFile().getPath();
+                if(rootDirPath.equals(rootPath) || rootDirPath.startsWith(rootPath + File.separator)){
+                    root = (candidate.isValid() ? candidate : null);
+                    rootEntryPath = StringUtils.replace(rootDirPath.substring(rootPath.length()),File.separator,"/");
+                    if(rootEntryPath.startsWith("/")){
+                        rootEntryPath = rootEntryPath.substring(1);
+                    }
+                    break;
+                }
+            }
+        }
+        if(root == null){
+            return null;
+        }
+        if(!rootEntryPath.isEmpty() && !rootEntryPath.endsWith("/")){
+            rootEntryPath = rootEntryPath + "/";
+        }
+        return new IndexScanTask(rootDirResource,root,rootEntryPath,subPattern,callback);
+    }
+
+    /**
+     * 获取模式中第一个通配符之前的目录，如"/WEB-INF/*.xml"返回"/WEB-INF/"
+     * @param location 路径模式
+     * @return
+     */
+    protected String determineRootDir(String location){
+        int prefixEnd = location.indexOf(':') + 1;
+        int rootDirEnd = location.length();
+        while(rootDirEnd > prefixEnd && getPathMatcher().isPattern(location.substring(prefixEnd,rootDirEnd))){
+            rootDirEnd = location.lastIndexOf('/',rootDirEnd - 2) + 1;
+        }
+        if(rootDirEnd == 0){
+            rootDirEnd = prefixEnd;
+        }
+        return location.substring(0,rootDirEnd);
+    }
+
+    /**
+     * 判断流式扫描是否已经被关闭，关闭后扫描任务不再处理新的条目
+     * @param callback 回调
+     * @return
+     */
+    private static boolean isStreamClosed(@Nullable Consumer<? super Resource> callback){
+        return callback instanceof StreamSink && ((StreamSink) callback).closed;
+    }
+
+    /**
+     * 通知找到的资源
+     */
+    private static void publish(Resource resource,List<Resource> result,@Nullable Consumer<? super Resource> callback){
+        result.add(resource);
+        if(callback != null){
+            callback.accept(resource);
+        }
+    }
+
+    /**
+     * 扫描文件系统目录的任务，子目录拆分为子任务并行扫描
+     */
+    private class DirectoryScanTask extends RecursiveTask<List<Resource>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+
+        private final String fullPattern;
+
+        @Nullable
+        private final Consumer<? super Resource> callback;
+
+        DirectoryScanTask(File dir,String fullPattern,@Nullable Consumer<? super Resource> callback){
+            this.dir = dir;
+            this.fullPattern = fullPattern;
+            this.callback = callback;
+        }
+
+        @Override
+        protected List<Resource> compute() {
+            if(isStreamClosed(this.callback)){
+                return Collections.emptyList();
+            }
+            File[] files = this.dir.listFiles();
+            if(files == null){
+                logAccessor.debug(() -> "Could not retrieve contents of directory [" + this.dir.getAbsolutePath() + "]");
+                return Collections.emptyList();
+            }
+            Arrays.sort(files,Comparator.comparing(File::getName));
+
+            List<Resource> result = new ArrayList<>();
+            List<DirectoryScanTask> subTasks = new ArrayList<>();
+            for(File file : files){
+                if(isStreamClosed(this.callback)){
+                    break;
+                }
+                String currPath = StringUtils.replace(file.getAbsolutePath(),File.separator,"/");
+                if(file.isDirectory()){
+                    if(file.canRead() && getPathMatcher().matchStart(this.fullPattern,currPath + "/")){
+                        DirectoryScanTask subTask = new DirectoryScanTask(file,this.fullPattern,this.callback);
+                        subTask.fork();
+                        subTasks.add(subTask);
+                    }
+                }else if(getPathMatcher().match(this.fullPattern,currPath)){
+                    publish(new FileSystemResource(file),result,this.callback);
+                }
+            }
+            for(DirectoryScanTask subTask : subTasks){
+                result.addAll(subTask.join());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 从classpath索引中查找资源的任务，不访问文件系统和jar包
+     */
+    private class IndexScanTask extends RecursiveTask<List<Resource>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Resource rootDirResource;
+
+        private final ClassPathIndex.Root root;
+
+        private final String rootEntryPath;
+
+        private final String subPattern;
+
+        @Nullable
+        private final Consumer<? super Resource> callback;
+
+        IndexScanTask(Resource rootDirResource,ClassPathIndex.Root root,String rootEntryPath,String subPattern,
+                      @Nullable Consumer<? super Resource> callback){
+            this.rootDirResource = rootDirResource;
+            this.root = root;
+            this.rootEntryPath = rootEntryPath;
+            this.subPattern = subPattern;
+            this.callback = callback;
+        }
+
+        @Override
+        protected List<Resource> compute() {
+            List<Resource> result = new ArrayList<>();
+            try{
+                for(String entryPath : this.root.getEntryNames(this.rootEntryPath,false)){
+                    if(isStreamClosed(this.callback)){
+                        break;
+                    }
+                    String relativePath = entryPath.substring(this.rootEntryPath.length());
+                    if(getPathMatcher().match(this.subPattern,relativePath)){
+                        publish(this.rootDirResource.createRelative(relativePath),result,this.callback);
+                    }
+                }
+            }catch (IOException ex){
+                throw new UncheckedIOException(ex);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 扫描jar包中条目的任务，通过jar包索引只遍历根目录下的条目
+     */
+    private class JarScanTask extends RecursiveTask<List<Resource>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Resource rootDirResource;
+
+        private final URL rootDirUrl;
+
+        private final String subPattern;
+
+        @Nullable
+        private final Consumer<? super Resource> callback;
+
+        JarScanTask(Resource rootDirResource,URL rootDirUrl,String subPattern,@Nullable Consumer<? super Resource> callback){
+            this.rootDirResource = rootDirResource;
+            this.rootDirUrl = rootDirUrl;
+            this.subPattern = subPattern;
+            this.callback = callback;
+        }
+
+        @Override
+        protected List<Resource> compute() {
+            try{
+                return doFindJarResources();
+            }catch (IOException ex){
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private List<Resource> doFindJarResources() throws IOException {
+            String urlFile = this.rootDirUrl.getFile();
+            int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
+            if(separatorIndex == -1){
+                separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+            }
+            String rootEntryPath = (separatorIndex != -1 ? urlFile.substring(separatorIndex + 2) : "");
+            if(!rootEntryPath.isEmpty() && !rootEntryPath.endsWith("/")){
+                rootEntryPath = rootEntryPath + "/";
+            }
+
+            File jarFile;
+            try{
+                jarFile = ResourceUtils.getFile(ResourceUtils.extractArchiveURL(this.rootDirUrl));
+            }catch (IllegalArgumentException ex){
+                logAccessor.debug(ex,() -> "Skipping jar root " + this.rootDirUrl + " because it is not a local file");
+                return Collections.emptyList();
+            }
+
+            List<Resource> result = new ArrayList<>();
+            try(JarIndexCache.Handle handle = getJarIndexCache().acquire(jarFile)){
+                for(String entryPath : handle.getEntryNames(rootEntryPath)){
+                    if(isStreamClosed(this.callback)){
+                        break;
+                    }
+                    String relativePath = entryPath.substring(rootEntryPath.length());
+                    if(getPathMatcher().match(this.subPattern,relativePath)){
+                        publish(this.rootDirResource.createRelative(relativePath),result,this.callback);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 流式扫描的回调，把找到的资源放入有界队列，关闭后丢弃资源并通知扫描任务停止
+     */
+    private static final class StreamSink implements Consumer<Resource> {
+
+        final BlockingQueue<Resource> queue = new ArrayBlockingQueue<>(STREAM_BUFFER_SIZE);
+
+        volatile boolean closed;
+
+        @Override
+        public void accept(Resource resource) {
+            try{
+                //队列满时等待消费者，定期检查流是否已经关闭
+                while(!this.closed){
+                    if(this.queue.offer(resource,100,TimeUnit.MILLISECONDS)){
+                        return;
+                    }
+                }
+            }catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while publishing " + resource);
+            }
+        }
+
+        void close(){
+            this.closed = true;
+            this.queue.clear();
+        }
+    }
+
+    /**
+     * 延迟创建扫描线程池
+     */
+    private static class ScanPoolHolder {
+
+        static final ForkJoinPool scanPool = createScanPool();
+
+        private static ForkJoinPool createScanPool(){
+            int parallelism = Math.max(2,Runtime.getRuntime().availableProcessors());
+            AtomicInteger threadCount = new AtomicInteger();
+            return new ForkJoinPool(parallelism,pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("resource-scan-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },null,false);
+        }
+    }
+}
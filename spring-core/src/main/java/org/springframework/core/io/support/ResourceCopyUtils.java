@@ -0,0 +1,99 @@
+package org.springframework.core.io.support;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 资源复制工具类
+ */
+public abstract class ResourceCopyUtils {
+
+    /**
+     * 把资源的全部内容复制到可写资源，目标为文件时覆盖原有内容
+     * 源和目标都是文件时通过文件管道的transferTo复制，内容不经过堆内存
+     * @param source 源资源
+     * @param target 目标资源
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static long copy(Resource source,WritableResource target) throws IOException {
+        Assert.notNull(source,"Source resource must not be null");
+        Assert.notNull(target,"Target resource must not be null");
+        ReadableByteChannel in;
+        if(source.isFile()){
+            try{
+                in = FileChannel.open(source.getFile().toPath(),StandardOpenOption.READ);
+            }catch (NoSuchFileException ex){
+                throw new FileNotFoundException(ex.getMessage());
+            }
+        }else{
+            in = source.readableByteChannel();
+        }
+        WritableByteChannel out;
+        try{
+            out = openWritableChannel(target);
+        }catch (IOException | RuntimeException ex){
+            in.close();
+            throw ex;
+        }
+        return FileCopyUtils.copy(in,out);
+    }
+
+    /**
+     * 读取资源的全部内容并转为字符串
+     * 资源长度已知时直接读入对应长度的字节数组，再一次性解码，不需要逐步扩容
+     * @param resource 资源
+     * @param charset 字符集
+     * @return
+     * @throws IOException
+     */
+    public static String copyToString(Resource resource,Charset charset) throws IOException {
+        Assert.notNull(resource,"Resource must not be null");
+        Assert.notNull(charset,"Charset must not be null");
+        int expectedLength = getExpectedLength(resource);
+        try(InputStream in = resource.getInputStream()){
+            return new String(StreamUtils.copyToByteArray(in,expectedLength),charset);
+        }
+    }
+
+    /**
+     * 获取资源的预计长度，用于分配读取的数组
+     * @param resource 资源
+     * @return 长度未知或者超出数组长度上限时返回-1
+     */
+    private static int getExpectedLength(Resource resource){
+        try{
+            long contentLength = resource.contentLength();
+            return (contentLength >= 0 && contentLength < Integer.MAX_VALUE - 8 ? (int) contentLength : -1);
+        }catch (IOException ex){
+            return -1;
+        }
+    }
+
+    /**
+     * 打开目标资源的可写管道，文件资源创建或者截断文件
+     * @param target 目标资源
+     * @return
+     * @throws IOException
+     */
+    private static WritableByteChannel openWritableChannel(WritableResource target) throws IOException {
+        if(target.isFile()){
+            return FileChannel.open(target.getFile().toPath(),StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,StandardOpenOption.WRITE);
+        }
+        return target.getWritableByteChannel();
+    }
+}
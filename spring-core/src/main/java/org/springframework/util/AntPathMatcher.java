@@ -0,0 +1,228 @@
+package org.springframework.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ant风格的路径匹配器
+ * "?"匹配一个字符，"*"匹配目录中的零个或多个字符，"**"匹配零个或多个目录
+ * 如"org/**"匹配org目录下的所有路径，"org/*.xml"只匹配org目录下的xml文件
+ */
+public class AntPathMatcher implements PathMatcher {
+
+    /**
+     * 默认的路径分隔符
+     */
+    public static final String DEFAULT_PATH_SEPARATOR = "/";
+
+    /**
+     * 模式分割结果缓存的最大条目数
+     */
+    private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+
+    /**
+     * 路径分隔符
+     */
+    private final String pathSeparator;
+
+    /**
+     * 模式和分割后的目录之间的关系缓存
+     */
+    private final Map<String,String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+
+    /**
+     * 使用默认的路径分隔符构造
+     */
+    public AntPathMatcher(){
+        this(DEFAULT_PATH_SEPARATOR);
+    }
+
+    /**
+     * 通过路径分隔符构造
+     * @param pathSeparator 路径分隔符
+     */
+    public AntPathMatcher(String pathSeparator){
+        Assert.notNull(pathSeparator,"Path separator must not be null");
+        this.pathSeparator = pathSeparator;
+    }
+
+    @Override
+    public boolean isPattern(String path){
+        return (path.indexOf('*') != -1 || path.indexOf('?') != -1);
+    }
+
+    @Override
+    public boolean match(String pattern,String path){
+        return doMatch(pattern,path,true);
+    }
+
+    @Override
+    public boolean matchStart(String pattern,String path){
+        return doMatch(pattern,path,false);
+    }
+
+    /**
+     * 匹配路径
+     * @param pattern 模式
+     * @param path 路径
+     * @param fullMatch 是否完全匹配，为false时只需要匹配模式的开始部分
+     * @return
+     */
+    protected boolean doMatch(String pattern,String path,boolean fullMatch){
+        if(path.startsWith(this.pathSeparator) != pattern.startsWith(this.pathSeparator)){
+            return false;
+        }
+
+        String[] pattDirs = tokenizePattern(pattern);
+        String[] pathDirs = StringUtils.tokenizeToStringArray(path,this.pathSeparator,false,true);
+        int pattIdxStart = 0;
+        int pattIdxEnd = pattDirs.length - 1;
+        int pathIdxStart = 0;
+        int pathIdxEnd = pathDirs.length - 1;
+
+        //匹配第一个"**"之前的目录
+        while(pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd){
+            String pattDir = pattDirs[pattIdxStart];
+            if("**".equals(pattDir)){
+                break;
+            }
+            if(!matchStrings(pattDir,pathDirs[pathIdxStart])){
+                return false;
+            }
+            pattIdxStart++;
+            pathIdxStart++;
+        }
+
+        if(pathIdxStart > pathIdxEnd){
+            //路径已经匹配完，剩余的模式只能是"*"或者"**"
+            if(pattIdxStart > pattIdxEnd){
+                return (pattern.endsWith(this.pathSeparator) == path.endsWith(this.pathSeparator));
+            }
+            if(!fullMatch){
+                return true;
+            }
+            if(pattIdxStart == pattIdxEnd && pattDirs[pattIdxStart].equals("*") && path.endsWith(this.pathSeparator)){
+                return true;
+            }
+            return onlyDoubleWildcards(pattDirs,pattIdxStart,pattIdxEnd);
+        }else if(pattIdxStart > pattIdxEnd){
+            //模式已经匹配完，路径还有剩余
+            return false;
+        }else if(!fullMatch && "**".equals(pattDirs[pattIdxStart])){
+            return true;
+        }
+
+        //从后向前匹配最后一个"**"之后的目录
+        while(pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd){
+            String pattDir = pattDirs[pattIdxEnd];
+            if(pattDir.equals("**")){
+                break;
+            }
+            if(!matchStrings(pattDir,pathDirs[pathIdxEnd])){
+                return false;
+            }
+            pattIdxEnd--;
+            pathIdxEnd--;
+        }
+        if(pathIdxStart > pathIdxEnd){
+            return onlyDoubleWildcards(pattDirs,pattIdxStart,pattIdxEnd);
+        }
+
+        //匹配两个"**"之间的目录
+        while(pattIdxStart != pattIdxEnd && pathIdxStart <= pathIdxEnd){
+            int patIdxTmp = -1;
+            for(int i=pattIdxStart+1;i<=pattIdxEnd;i++){
+                if(pattDirs[i].equals("**")){
+                    patIdxTmp = i;
+                    break;
+                }
+            }
+            if(patIdxTmp == pattIdxStart + 1){
+                //"**/**"的情况
+                pattIdxStart++;
+                continue;
+            }
+            int patLength = patIdxTmp - pattIdxStart - 1;
+            int strLength = pathIdxEnd - pathIdxStart + 1;
+            int foundIdx = -1;
+            strLoop:
+            for(int i=0;i<=strLength-patLength;i++){
+                for(int j=0;j<patLength;j++){
+                    if(!matchStrings(pattDirs[pattIdxStart + j + 1],pathDirs[pathIdxStart + i + j])){
+                        continue strLoop;
+                    }
+                }
+                foundIdx = pathIdxStart + i;
+                break;
+            }
+            if(foundIdx == -1){
+                return false;
+            }
+            pattIdxStart = patIdxTmp;
+            pathIdxStart = foundIdx + patLength;
+        }
+        return onlyDoubleWildcards(pattDirs,pattIdxStart,pattIdxEnd);
+    }
+
+    /**
+     * 判断模式中给定范围内的目录是否都为"**"
+     */
+    private static boolean onlyDoubleWildcards(String[] pattDirs,int start,int end){
+        for(int i=start;i<=end;i++){
+            if(!pattDirs[i].equals("**")){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 分割模式，结果会被缓存
+     * @param pattern 模式
+     * @return
+     */
+    private String[] tokenizePattern(String pattern){
+        String[] tokenized = this.tokenizedPatternCache.get(pattern);
+        if(tokenized == null){
+            tokenized = StringUtils.tokenizeToStringArray(pattern,this.pathSeparator,false,true);
+            if(this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD){
+                this.tokenizedPatternCache.clear();
+            }
+            this.tokenizedPatternCache.put(pattern,tokenized);
+        }
+        return tokenized;
+    }
+
+    /**
+     * 匹配单个目录，支持"*"和"?"
+     * @param pattern 目录模式
+     * @param str 目录名
+     * @return
+     */
+    private static boolean matchStrings(String pattern,String str){
+        int p = 0;
+        int s = 0;
+        int starIdx = -1;
+        int matchIdx = 0;
+        while(s < str.length()){
+            if(p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == str.charAt(s))){
+                p++;
+                s++;
+            }else if(p < pattern.length() && pattern.charAt(p) == '*'){
+                //记录"*"的位置，先按匹配零个字符处理
+                starIdx = p++;
+                matchIdx = s;
+            }else if(starIdx != -1){
+                //回溯，让上一个"*"多匹配一个字符
+                p = starIdx + 1;
+                s = ++matchIdx;
+            }else{
+                return false;
+            }
+        }
+        while(p < pattern.length() && pattern.charAt(p) == '*'){
+            p++;
+        }
+        return p == pattern.length();
+    }
+}
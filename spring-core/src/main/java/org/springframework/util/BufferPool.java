@@ -0,0 +1,118 @@
+package org.springframework.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 复制使用的缓冲区池
+ * 字节数组和字符数组缓冲区每个线程缓存一个，获取时从线程中取出，放回前同一线程嵌套的复制会分配新的缓冲区，不会共用；
+ * 直接缓冲区的分配和回收代价较高，复制完成后放回共享的池中复用，池中的缓冲区数量有上限，超出时丢弃
+ */
+final class BufferPool {
+
+    /**
+     * 直接缓冲区的大小
+     */
+    static final int DIRECT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 池中直接缓冲区的数量上限
+     */
+    private static final int MAX_POOLED_DIRECT_BUFFERS = 16;
+
+    private static final Queue<ByteBuffer> directBuffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 每个线程缓存的字节数组缓冲区，数组中只有一个元素，被取出时为null
+     */
+    private static final ThreadLocal<byte[][]> byteBuffers = ThreadLocal.withInitial(() -> new byte[1][]);
+
+    /**
+     * 每个线程缓存的字符数组缓冲区，数组中只有一个元素，被取出时为null
+     */
+    private static final ThreadLocal<char[][]> charBuffers = ThreadLocal.withInitial(() -> new char[1][]);
+
+    /**
+     * 池中直接缓冲区的数量
+     */
+    private static final AtomicInteger directBufferCount = new AtomicInteger();
+
+    private BufferPool(){
+    }
+
+    /**
+     * 获取长度为StreamUtils.BUFFER_SIZE的字节数组，使用完毕后通过releaseByteBuffer放回
+     * @return
+     */
+    static byte[] acquireByteBuffer(){
+        byte[][] slot = byteBuffers.get();
+        byte[] buffer = slot[0];
+        if(buffer == null){
+            return new byte[StreamUtils.BUFFER_SIZE];
+        }
+        slot[0] = null;
+        return buffer;
+    }
+
+    /**
+     * 放回字节数组
+     * @param buffer 字节数组
+     */
+    static void releaseByteBuffer(byte[] buffer){
+        if(buffer.length == StreamUtils.BUFFER_SIZE){
+            byteBuffers.get()[0] = buffer;
+        }
+    }
+
+    /**
+     * 获取长度为StreamUtils.BUFFER_SIZE的字符数组，使用完毕后通过releaseCharBuffer放回
+     * @return
+     */
+    static char[] acquireCharBuffer(){
+        char[][] slot = charBuffers.get();
+        char[] buffer = slot[0];
+        if(buffer == null){
+            return new char[StreamUtils.BUFFER_SIZE];
+        }
+        slot[0] = null;
+        return buffer;
+    }
+
+    /**
+     * 放回字符数组
+     * @param buffer 字符数组
+     */
+    static void releaseCharBuffer(char[] buffer){
+        if(buffer.length == StreamUtils.BUFFER_SIZE){
+            charBuffers.get()[0] = buffer;
+        }
+    }
+
+    /**
+     * 获取直接缓冲区，使用完毕后通过releaseDirectBuffer放回
+     * @return 已清空的直接缓冲区
+     */
+    static ByteBuffer acquireDirectBuffer(){
+        ByteBuffer buffer = directBuffers.poll();
+        if(buffer == null){
+            return ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+        }
+        directBufferCount.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * 放回直接缓冲区
+     * @param buffer 直接缓冲区
+     */
+    static void releaseDirectBuffer(ByteBuffer buffer){
+        if(directBufferCount.incrementAndGet() > MAX_POOLED_DIRECT_BUFFERS){
+            directBufferCount.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        directBuffers.offer(buffer);
+    }
+}
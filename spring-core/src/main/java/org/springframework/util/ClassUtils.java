@@ -3,9 +3,9 @@ package org.springframework.util;
 import org.springframework.lang.Nullable;
 
 import java.lang.reflect.Modifier;
-import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 类操作工具
@@ -17,21 +17,41 @@ public abstract class ClassUtils {
     private static final char PATH_SEPARATOR = '/';
 
     /**
-     * 包装类型和基础类型对应的集合
+     * 包装类型到基础类型的映射
      */
-    private static final Map<Class<?>,Class<?>> primitiveTypeToWrapperMap = new IdentityHashMap<>();
+    private static final Map<Class<?>,Class<?>> primitiveWrapperTypeMap = new IdentityHashMap<>(9);
+
+    /**
+     * 基础类型到包装类型的映射
+     */
+    private static final Map<Class<?>,Class<?>> primitiveTypeToWrapperMap = new IdentityHashMap<>(9);
 
     static{
-        primitiveTypeToWrapperMap.put(Boolean.class,boolean.class);
-        primitiveTypeToWrapperMap.put(Integer.class,int.class);
-        primitiveTypeToWrapperMap.put(Double.class,double.class);
-        primitiveTypeToWrapperMap.put(Short.class,short.class);
-        primitiveTypeToWrapperMap.put(Long.class,long.class);
-        primitiveTypeToWrapperMap.put(Byte.class,byte.class);
-        primitiveTypeToWrapperMap.put(Void.class,void.class);
-        primitiveTypeToWrapperMap.put(Float.class,float.class);
+        primitiveWrapperTypeMap.put(Boolean.class,boolean.class);
+        primitiveWrapperTypeMap.put(Byte.class,byte.class);
+        primitiveWrapperTypeMap.put(Character.class,char.class);
+        primitiveWrapperTypeMap.put(Double.class,double.class);
+        primitiveWrapperTypeMap.put(Float.class,float.class);
+        primitiveWrapperTypeMap.put(Integer.class,int.class);
+        primitiveWrapperTypeMap.put(Long.class,long.class);
+        primitiveWrapperTypeMap.put(Short.class,short.class);
+        primitiveWrapperTypeMap.put(Void.class,void.class);
+
+        for(Map.Entry<Class<?>,Class<?>> entry : primitiveWrapperTypeMap.entrySet()){
+            primitiveTypeToWrapperMap.put(entry.getValue(),entry.getKey());
+        }
     }
 
+    /**
+     * 每个类的类名和赋值判断结果缓存，随类一起卸载
+     */
+    private static final ClassValue<TypeInfo> typeInfoCache = new ClassValue<TypeInfo>() {
+        @Override
+        protected TypeInfo computeValue(Class<?> type) {
+            return new TypeInfo(type);
+        }
+    };
+
     /**
      * 获取类加载器
      * @return
@@ -75,28 +95,33 @@ public abstract class ClassUtils {
     }
 
     /**
-     * 判断某个某个class对象的类名是否为给定的类名
+     * 判断某个某个class对象的类名是否为给定的类名，全限定名和简单类名都可以匹配
      * @param clzz class对象
      * @param typeName 类名
      * @return
      */
-    public static boolean matchesTypeName(Class<?> clzz,String typeName){
-        return typeName != null && (typeName.equals(clzz.getTypeName()) || typeName.equals(clzz.getSimpleName()));
+    public static boolean matchesTypeName(Class<?> clzz,@Nullable String typeName){
+        if(typeName == null){
+            return false;
+        }
+        TypeInfo typeInfo = typeInfoCache.get(clzz);
+        return typeName.equals(typeInfo.typeName) || typeName.equals(typeInfo.simpleName);
     }
 
     /**
-     * 判断指定的值的类型是否为某一类型
+     * 判断指定的值的类型是否为某一类型，值为null时只要类型不是基础类型就可以赋值
      * @param type 类型
      * @param value 值
      * @return
      */
     public static boolean isAssignableValue(Class<?> type,@Nullable Object value){
         Assert.notNull(type,"Type must not be null");
-        return type != null?isAssignableValue(type,value.getClass()):!type.isPrimitive();
+        return value != null?isAssignableValue(type,value.getClass()):!type.isPrimitive();
     }
 
     /**
-     * 判断右边的类型是否为左边的类型
+     * 判断右边的类型是否可以赋值给左边的类型，基础类型和包装类型之间可以互相赋值
+     * 判断结果按左边的类型缓存，重复判断时只需要一次查找
      * @param lhsType 左边类型
      * @param rhsType 右边类型
      * @return
@@ -105,28 +130,63 @@ public abstract class ClassUtils {
         Assert.notNull(lhsType,"Left hand side type must not be null");
         Assert.notNull(rhsType,"Right side type must not be null");
 
+        if(lhsType == rhsType){
+            return true;
+        }
+
+        Map<Class<?>,Boolean> assignableCache = typeInfoCache.get(lhsType).assignableCache;
+        Boolean assignable = assignableCache.get(rhsType);
+        if(assignable == null){
+            assignable = computeAssignable(lhsType,rhsType);
+            if(isCacheSafe(rhsType,lhsType.getClassLoader())){
+                assignableCache.put(rhsType,assignable);
+            }
+        }
+        return assignable;
+    }
+
+    /**
+     * 计算右边的类型是否可以赋值给左边的类型
+     * @param lhsType 左边类型
+     * @param rhsType 右边类型
+     * @return
+     */
+    private static boolean computeAssignable(Class<?> lhsType,Class<?> rhsType){
         if(lhsType.isAssignableFrom(rhsType)){
             //如果左边类型是右边类型的父类
             return true;
         }
 
         if(lhsType.isPrimitive()){
-            //如果左边为基础类型
-            Class<?> resolvedWrapper = primitiveTypeToWrapperMap.get(rhsType);
-            if(lhsType == resolvedWrapper){
-                return true;
-            }
-        }else{
+            //如果左边为基础类型，右边为对应的包装类型
+            Class<?> resolvedPrimitive = primitiveWrapperTypeMap.get(rhsType);
+            return lhsType == resolvedPrimitive;
+        }
 
-            //如果左边不是基本类型
-            Class<?> resolvedWrapper = primitiveTypeToWrapperMap.get(lhsType);
-            if(resolvedWrapper != null && lhsType.isAssignableFrom(resolvedWrapper)){
+        //如果左边不是基本类型，右边基础类型的包装类型可以赋值给左边
+        Class<?> resolvedWrapper = primitiveTypeToWrapperMap.get(rhsType);
+        return resolvedWrapper != null && lhsType.isAssignableFrom(resolvedWrapper);
+    }
+
+    /**
+     * 判断类是否由指定的类加载器或者它的父加载器加载，缓存这样的类不会导致其他类加载器无法卸载
+     * @param clazz 类
+     * @param classLoader 类加载器，可为null表示启动类加载器
+     * @return
+     */
+    private static boolean isCacheSafe(Class<?> clazz,@Nullable ClassLoader classLoader){
+        ClassLoader target = clazz.getClassLoader();
+        if(target == null){
+            return true;
+        }
+        ClassLoader current = classLoader;
+        while(current != null){
+            if(current == target){
                 return true;
             }
+            current = current.getParent();
         }
-
         return false;
-
     }
 
     /**
@@ -137,4 +197,30 @@ public abstract class ClassUtils {
     public static boolean isInnerClass(Class<?> clazz){
         return clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers());
     }
+
+    /**
+     * 类的类名和赋值判断结果
+     */
+    private static final class TypeInfo {
+
+        /**
+         * 全限定类名
+         */
+        private final String typeName;
+
+        /**
+         * 简单类名
+         */
+        private final String simpleName;
+
+        /**
+         * 其他类型是否可以赋值给该类型：右边类型 -> 是否可赋值
+         */
+        private final Map<Class<?>,Boolean> assignableCache = new ConcurrentHashMap<>(8);
+
+        TypeInfo(Class<?> type){
+            this.typeName = type.getTypeName();
+            this.simpleName = type.getSimpleName();
+        }
+    }
 }
@@ -1,12 +1,14 @@
 package org.springframework.util;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 
 /**
- * 文件复制工具类
+ * 文件复制工具类，所有方法在复制完成后都会关闭输入和输出
  */
 public abstract class FileCopyUtils {
 
@@ -15,6 +17,69 @@ public abstract class FileCopyUtils {
      */
     public static final int BUFFER_SIZE = StreamUtils.BUFFER_SIZE;
 
+    /**
+     * 复制文件，目标文件不存在时创建，存在时覆盖
+     * 通过文件管道的transferTo复制，内容不经过堆内存
+     * @param in 源文件
+     * @param out 目标文件
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static long copy(File in,File out) throws IOException {
+        Assert.notNull(in,"No input File specified");
+        Assert.notNull(out,"No output File specified");
+        FileChannel inChannel;
+        try{
+            inChannel = FileChannel.open(in.toPath(),StandardOpenOption.READ);
+        }catch (NoSuchFileException ex){
+            throw new FileNotFoundException(ex.getMessage());
+        }
+        FileChannel outChannel;
+        try{
+            outChannel = FileChannel.open(out.toPath(),StandardOpenOption.CREATE,StandardOpenOption.TRUNCATE_EXISTING,StandardOpenOption.WRITE);
+        }catch (IOException ex){
+            close(inChannel);
+            throw ex;
+        }
+        return copy(inChannel,outChannel);
+    }
+
+    /**
+     * 把输入管道的全部内容写入输出管道，复制完成后关闭两个管道
+     * @param in 输入管道
+     * @param out 输出管道
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static long copy(ReadableByteChannel in,WritableByteChannel out) throws IOException {
+        Assert.notNull(in,"No ReadableByteChannel specified");
+        Assert.notNull(out,"No WritableByteChannel specified");
+        try{
+            return StreamUtils.copy(in,out);
+        }finally {
+            close(in);
+            close(out);
+        }
+    }
+
+    /**
+     * 把输入流的全部内容写入输出流，复制完成后关闭两个流
+     * @param in 输入流
+     * @param out 输出流
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static int copy(InputStream in,OutputStream out) throws IOException {
+        Assert.notNull(in,"No InputStream specified");
+        Assert.notNull(out,"No OutputStream specified");
+        try{
+            return StreamUtils.copy(in,out);
+        }finally {
+            close(in);
+            close(out);
+        }
+    }
+
     /**
      * 读取输入，写入输出
      * @param in 输入
@@ -27,7 +92,7 @@ public abstract class FileCopyUtils {
         Assert.notNull(out,"Writer must not be null");
 
         int byteCount = 0;
-        char[] bytes = new char[BUFFER_SIZE];
+        char[] bytes = BufferPool.acquireCharBuffer();
         int readBytes = -1;
         try {
             while ((readBytes = in.read(bytes))!=-1){
@@ -37,6 +102,7 @@ public abstract class FileCopyUtils {
             out.flush();
             return byteCount;
         }finally {
+            BufferPool.releaseCharBuffer(bytes);
             try{
                 in.close();
             }catch (IOException ex){
@@ -62,8 +128,30 @@ public abstract class FileCopyUtils {
             return "";
         }
 
-        StringWriter out = new StringWriter();
-        copy(in,out);
-        return out.toString();
+        //直接追加到StringBuilder，避免StringWriter内部的同步
+        StringBuilder out = new StringBuilder(BUFFER_SIZE);
+        char[] buffer = BufferPool.acquireCharBuffer();
+        try{
+            int charsRead;
+            while((charsRead = in.read(buffer)) != -1){
+                out.append(buffer,0,charsRead);
+            }
+            return out.toString();
+        }finally {
+            BufferPool.releaseCharBuffer(buffer);
+            close(in);
+        }
+    }
+
+    /**
+     * 关闭资源，忽略关闭时的异常
+     * @param closeable 资源
+     */
+    private static void close(Closeable closeable){
+        try{
+            closeable.close();
+        }catch (IOException ex){
+            //忽略
+        }
     }
 }
\ No newline at end of file
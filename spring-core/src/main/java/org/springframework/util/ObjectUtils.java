@@ -2,8 +2,10 @@ package org.springframework.util;
 
 import org.springframework.lang.Nullable;
 
+import java.io.IOException;
+import java.lang.reflect.Array;
 import java.util.Arrays;
-import java.util.StringJoiner;
+import java.util.Locale;
 
 /**
  * 对象工具类
@@ -12,6 +14,19 @@ public abstract class ObjectUtils {
 
     private static final int INITAL_HASH = 7;
     private static final int MULTIPLIER = 31;
+    private static final int MULTIPLIER_2 = MULTIPLIER * MULTIPLIER;
+    private static final int MULTIPLIER_3 = MULTIPLIER_2 * MULTIPLIER;
+    private static final int MULTIPLIER_4 = MULTIPLIER_3 * MULTIPLIER;
+
+    /**
+     * 数组类型对应的哈希值和相等判断策略
+     */
+    private static final ClassValue<ArrayStrategy> ARRAY_STRATEGIES = new ClassValue<ArrayStrategy>() {
+        @Override
+        protected ArrayStrategy computeValue(Class<?> type) {
+            return ArrayStrategy.forArrayType(type);
+        }
+    };
 
     /**
      * null字符串
@@ -33,6 +48,16 @@ public abstract class ObjectUtils {
      */
     private static final String ARRAY_SEPERATOR = ",";
 
+    /**
+     * 数组字符串省略剩余元素时的结尾
+     */
+    private static final String ARRAY_ELLIPSIS = "...";
+
+    /**
+     * 预先分配的数组字符串容量上限，超出后由StringBuilder自行扩容
+     */
+    private static final int MAX_ESTIMATED_LENGTH = 16 * 1024;
+
     /**
      * 空数组字符串
      */
@@ -64,42 +89,20 @@ public abstract class ObjectUtils {
 
     /**
      * 获取可为空的对象的哈希值
+     * 非数组对象只需要一次判断，数组对象按类型缓存的策略计算，不需要逐个判断数组类型
      * @param obj 对象
      * @return
      */
-    public static int nullSafeHashCode(Object obj){
+    public static int nullSafeHashCode(@Nullable Object obj){
         if(obj == null){
             return 0;
         }
 
-        if(obj instanceof Object[]){
-            return nullSafeHashCode((Object[])obj);
-        }
-        if(obj instanceof boolean[]){
-            return nullSafeHashCode((boolean[])obj);
-        }
-        if(obj instanceof byte[]){
-            return nullSafeHashCode((byte[])obj);
-        }
-        if(obj instanceof char[]){
-            return nullSafeHashCode((char[])obj);
-        }
-        if(obj instanceof double[]){
-            return nullSafeHashCode((double[])obj);
-        }
-        if(obj instanceof float[]){
-            return nullSafeHashCode((float[])obj);
+        Class<?> clazz = obj.getClass();
+        if(!clazz.isArray()){
+            return obj.hashCode();
         }
-        if(obj instanceof int[]){
-            return nullSafeHashCode((int[])obj);
-        }
-        if(obj instanceof long[]){
-            return nullSafeHashCode((long[])obj);
-        }
-        if(obj instanceof short[]){
-            return nullSafeHashCode((short[])obj);
-        }
-        return obj.hashCode();
+        return ARRAY_STRATEGIES.get(clazz).hashCode(obj);
     }
 
     /**
@@ -119,7 +122,6 @@ public abstract class ObjectUtils {
         return hash;
     }
 
-
     /**
      * 获取可为空布尔数组对象的哈希值
      * @param array 布尔数组
@@ -131,13 +133,18 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(boolean element : array){
-            hash = MULTIPLIER * hash + Boolean.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Boolean.hashCode(array[i]) + MULTIPLIER_2 * Boolean.hashCode(array[i + 1])
+                    + MULTIPLIER * Boolean.hashCode(array[i + 2]) + Boolean.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Boolean.hashCode(array[i]);
         }
         return hash;
     }
 
-
     /**
      * 获取可为空字节数组对象的哈希值
      * @param array 字节数组
@@ -149,8 +156,14 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(byte element : array){
-            hash = MULTIPLIER * hash + Byte.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Byte.hashCode(array[i]) + MULTIPLIER_2 * Byte.hashCode(array[i + 1])
+                    + MULTIPLIER * Byte.hashCode(array[i + 2]) + Byte.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Byte.hashCode(array[i]);
         }
         return hash;
     }
@@ -166,8 +179,14 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(char element : array){
-            hash = MULTIPLIER * hash + Character.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Character.hashCode(array[i]) + MULTIPLIER_2 * Character.hashCode(array[i + 1])
+                    + MULTIPLIER * Character.hashCode(array[i + 2]) + Character.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Character.hashCode(array[i]);
         }
         return hash;
     }
@@ -183,15 +202,21 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(double element : array){
-            hash = MULTIPLIER * hash + Double.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Double.hashCode(array[i]) + MULTIPLIER_2 * Double.hashCode(array[i + 1])
+                    + MULTIPLIER * Double.hashCode(array[i + 2]) + Double.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Double.hashCode(array[i]);
         }
         return hash;
     }
 
     /**
      * 获取可为空浮点数数组对象的哈希值
-     * @param array 浮点数组
+     * @param array 浮点数数组
      * @return
      */
     public static int nullSafeHashCode(@Nullable  float[] array){
@@ -200,14 +225,20 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(float element : array){
-            hash = MULTIPLIER * hash + Float.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Float.hashCode(array[i]) + MULTIPLIER_2 * Float.hashCode(array[i + 1])
+                    + MULTIPLIER * Float.hashCode(array[i + 2]) + Float.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Float.hashCode(array[i]);
         }
         return hash;
     }
 
     /**
-     * 获取可为空整数数数组对象的哈希值
+     * 获取可为空整数数组对象的哈希值
      * @param array 整数数组
      * @return
      */
@@ -217,8 +248,14 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(int element : array){
-            hash = MULTIPLIER * hash + Integer.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * array[i] + MULTIPLIER_2 * array[i + 1]
+                    + MULTIPLIER * array[i + 2] + array[i + 3];
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + array[i];
         }
         return hash;
     }
@@ -234,8 +271,14 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(long element : array){
-            hash = MULTIPLIER * hash + Float.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Long.hashCode(array[i]) + MULTIPLIER_2 * Long.hashCode(array[i + 1])
+                    + MULTIPLIER * Long.hashCode(array[i + 2]) + Long.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Long.hashCode(array[i]);
         }
         return hash;
     }
@@ -251,8 +294,14 @@ public abstract class ObjectUtils {
         }
 
         int hash = INITAL_HASH;
-        for(short element : array){
-            hash = MULTIPLIER * hash + Short.hashCode(element);
+        int i = 0;
+        //每次计算4个元素，减少乘法的依赖链，结果和逐个计算相同
+        for(;i + 3 < array.length;i += 4){
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Short.hashCode(array[i]) + MULTIPLIER_2 * Short.hashCode(array[i + 1])
+                    + MULTIPLIER * Short.hashCode(array[i + 2]) + Short.hashCode(array[i + 3]);
+        }
+        for(;i < array.length;i++){
+            hash = MULTIPLIER * hash + Short.hashCode(array[i]);
         }
         return hash;
     }
@@ -276,8 +325,9 @@ public abstract class ObjectUtils {
             return true;
         }
 
-        if(o1.getClass().isArray() && o2.getClass().isArray()){
-            return arrayEquals(o1,o2);
+        Class<?> clazz = o1.getClass();
+        if(clazz.isArray() && o2.getClass().isArray()){
+            return ARRAY_STRATEGIES.get(clazz).equals(o1,o2);
         }
         return false;
     }
@@ -286,302 +336,484 @@ public abstract class ObjectUtils {
      * 判断数组相等
      * @param o1 数组1
      * @param o2 数组2
-     * @return
+     * @return 任意一个为null或者不是数组时返回false
      */
-    public static boolean arrayEquals(Object o1,Object o2){
-        if(o1 instanceof Object[] && o2 instanceof Object[]){
-            return Arrays.equals((Object[])o1,(Object[])o2);
-        }
-        if(o1 instanceof boolean[] && o2 instanceof boolean[]){
-            return Arrays.equals((boolean[])o1,(boolean[])o2);
-        }
-        if(o1 instanceof byte[] && o2 instanceof byte[]){
-            return Arrays.equals((byte[])o1,(byte[])o2);
-        }
-        if(o1 instanceof char[] && o2 instanceof char[]){
-            return Arrays.equals((char[])o1,(char[])o2);
-        }
-        if(o1 instanceof double[] && o2 instanceof double[]){
-            return Arrays.equals((double[])o1,(double[])o2);
-        }
-        if(o1 instanceof float[] && o2 instanceof float[]){
-            return Arrays.equals((float[])o1,(float[])o2);
-        }
-        if(o1 instanceof int[] && o2 instanceof int[]){
-            return Arrays.equals((int[])o1,(int[])o2);
-        }
-        if(o1 instanceof long[] && o2 instanceof long[]){
-            return Arrays.equals((long[])o1,(long[])o2);
+    public static boolean arrayEquals(@Nullable Object o1,@Nullable Object o2){
+        if(o1 == null || o2 == null){
+            return false;
         }
-        if(o1 instanceof short[] && o2 instanceof short[]){
-            return Arrays.equals((short[])o1,(short[])o2);
+        Class<?> clazz = o1.getClass();
+        if(!clazz.isArray()){
+            return false;
         }
-
-        return false;
+        return ARRAY_STRATEGIES.get(clazz).equals(o1,o2);
     }
 
     /**
-     * 判断数组为空
-     * @param arr 数组
-     * @return
+     * 数组的哈希值、相等判断和字符串化策略，按数组元素类型区分
      */
-    public static boolean isEmpty(Object[] arr){
-        return arr == null || arr.length == 0;
-    }
+    private enum ArrayStrategy {
 
-    /**
-     * 将对象转为字符串
-     * @param obj
-     */
-    public static String nullSafeToString(@Nullable Object obj){
-        if(obj == null){
-            return NULL_STRING;
-        }
+        OBJECT(16) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((Object[]) array);
+            }
 
-        if(obj instanceof Object){
-            return (String)obj;
-        }
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof Object[] && Arrays.equals((Object[]) o1,(Object[]) o2);
+            }
 
-        if(obj instanceof Object[]){
-            return nullSafeToString((Object[]) obj);
-        }
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                out.append(String.valueOf(((Object[]) array)[index]));
+            }
+        },
 
-        if(obj instanceof boolean[]){
-            return nullSafeToString((boolean[]) obj);
-        }
+        BOOLEAN(5) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((boolean[]) array);
+            }
 
-        if(obj instanceof byte[]){
-            return nullSafeToString((byte[]) obj);
-        }
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof boolean[] && Arrays.equals((boolean[]) o1,(boolean[]) o2);
+            }
 
-        if(obj instanceof char[]){
-            return nullSafeToString((char[]) obj);
-        }
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                out.append(String.valueOf(((boolean[]) array)[index]));
+            }
+        },
 
-        if(obj instanceof int[]){
-            return nullSafeToString((int[]) obj);
-        }
+        BYTE(4) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((byte[]) array);
+            }
 
-        if(obj instanceof double[]){
-            return nullSafeToString((double[]) obj);
-        }
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof byte[] && Arrays.equals((byte[]) o1,(byte[]) o2);
+            }
 
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                byte element = ((byte[]) array)[index];
+                if(out instanceof StringBuilder){
+                    ((StringBuilder) out).append(element);
+                }else{
+                    out.append(String.valueOf(element));
+                }
+            }
+        },
 
-        if(obj instanceof float[]){
-            return nullSafeToString((float[]) obj);
-        }
+        CHAR(1) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((char[]) array);
+            }
 
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof char[] && Arrays.equals((char[]) o1,(char[]) o2);
+            }
 
-        if(obj instanceof long[]){
-            return nullSafeToString((long[]) obj);
-        }
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                out.append(((char[]) array)[index]);
+            }
+        },
 
-        if(obj instanceof short[]){
-            return nullSafeToString((short[]) obj);
-        }
+        DOUBLE(12) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((double[]) array);
+            }
 
-        String str = obj.toString();
-        return str != null?str:EMPTY_STRING;
-    }
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof double[] && Arrays.equals((double[]) o1,(double[]) o2);
+            }
 
-    /**
-     * 将object数组转为指定格式的数组
-     * @param arr 数组对象
-     * @return
-     */
-    public static String nullSafeToString(@Nullable Object[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                double element = ((double[]) array)[index];
+                if(out instanceof StringBuilder){
+                    ((StringBuilder) out).append(element);
+                }else{
+                    out.append(String.valueOf(element));
+                }
+            }
+        },
 
+        FLOAT(10) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((float[]) array);
+            }
 
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
-        }
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof float[] && Arrays.equals((float[]) o1,(float[]) o2);
+            }
+
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                float element = ((float[]) array)[index];
+                if(out instanceof StringBuilder){
+                    ((StringBuilder) out).append(element);
+                }else{
+                    out.append(String.valueOf(element));
+                }
+            }
+        },
+
+        INT(6) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((int[]) array);
+            }
+
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof int[] && Arrays.equals((int[]) o1,(int[]) o2);
+            }
+
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                int element = ((int[]) array)[index];
+                if(out instanceof StringBuilder){
+                    ((StringBuilder) out).append(element);
+                }else{
+                    out.append(String.valueOf(element));
+                }
+            }
+        },
+
+        LONG(12) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((long[]) array);
+            }
 
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(Object obj : arr){
-            sj.add(String.valueOf(obj));
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof long[] && Arrays.equals((long[]) o1,(long[]) o2);
+            }
+
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                long element = ((long[]) array)[index];
+                if(out instanceof StringBuilder){
+                    ((StringBuilder) out).append(element);
+                }else{
+                    out.append(String.valueOf(element));
+                }
+            }
+        },
+
+        SHORT(5) {
+            @Override
+            int hashCode(Object array) {
+                return nullSafeHashCode((short[]) array);
+            }
+
+            @Override
+            boolean equals(Object o1,Object o2) {
+                return o2 instanceof short[] && Arrays.equals((short[]) o1,(short[]) o2);
+            }
+
+            @Override
+            void appendElement(Appendable out,Object array,int index) throws IOException {
+                short element = ((short[]) array)[index];
+                if(out instanceof StringBuilder){
+                    ((StringBuilder) out).append(element);
+                }else{
+                    out.append(String.valueOf(element));
+                }
+            }
+        };
+
+        /**
+         * 单个元素字符串的预计长度，用于估算字符串的容量
+         */
+        private final int estimatedElementLength;
+
+        ArrayStrategy(int estimatedElementLength){
+            this.estimatedElementLength = estimatedElementLength;
+        }
+
+        /**
+         * 计算数组的哈希值
+         * @param array 数组
+         * @return
+         */
+        abstract int hashCode(Object array);
+
+        /**
+         * 判断数组相等
+         * @param o1 数组1
+         * @param o2 对象2
+         * @return
+         */
+        abstract boolean equals(Object o1,Object o2);
+
+        /**
+         * 把数组的一个元素追加到输出，目标为StringBuilder时直接追加基本类型，不创建临时字符串
+         * @param out 输出
+         * @param array 数组
+         * @param index 元素下标
+         * @throws IOException
+         */
+        abstract void appendElement(Appendable out,Object array,int index) throws IOException;
+
+        /**
+         * 估算数组字符串的长度
+         * @param elementCount 输出的元素个数
+         * @return
+         */
+        int estimateLength(int elementCount){
+            long length = (long) elementCount * (this.estimatedElementLength + ARRAY_SEPERATOR.length())
+                    + ARRAY_START.length() + ARRAY_END.length() + ARRAY_ELLIPSIS.length();
+            return (int) Math.min(length,MAX_ESTIMATED_LENGTH);
+        }
+
+        /**
+         * 获取数组类型对应的策略
+         * @param arrayType 数组类型
+         * @return
+         */
+        static ArrayStrategy forArrayType(Class<?> arrayType){
+            Class<?> componentType = arrayType.getComponentType();
+            if(!componentType.isPrimitive()){
+                return OBJECT;
+            }
+            return valueOf(componentType.getName().toUpperCase(Locale.ENGLISH));
         }
-        return sj.toString();
     }
 
     /**
-     * 将布尔数组转为指定格式的数组
-     * @param arr 布尔数组对象
+     * 判断数组为空
+     * @param arr 数组
      * @return
      */
-    public static String nullSafeToString(@Nullable boolean[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
-
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
-        }
-
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(boolean obj : arr){
-            sj.add(String.valueOf(obj));
-        }
+    public static boolean isEmpty(Object[] arr){
+        return arr == null || arr.length == 0;
+    }
 
-        return sj.toString();
+    /**
+     * 将对象转为字符串，数组按元素逐个输出
+     * @param obj
+     */
+    public static String nullSafeToString(@Nullable Object obj){
+        return nullSafeToString(obj,-1);
     }
 
     /**
-     * 将字节数组转为指定格式的数组
-     * @param arr 字节数组对象
+     * 将对象转为字符串，数组超过指定元素个数时省略剩余元素
+     * @param obj 对象
+     * @param maxElements 数组最多输出的元素个数，为负数时输出全部元素
      * @return
      */
-    public static String nullSafeToString(@Nullable byte[] arr){
-        if(arr == null){
+    public static String nullSafeToString(@Nullable Object obj,int maxElements){
+        if(obj == null){
             return NULL_STRING;
         }
 
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
+        if(obj instanceof String){
+            return (String) obj;
         }
 
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(byte obj : arr){
-            sj.add(String.valueOf(obj));
+        Class<?> clazz = obj.getClass();
+        if(!clazz.isArray()){
+            String str = obj.toString();
+            return str != null?str:EMPTY_STRING;
         }
 
-        return sj.toString();
+        if(Array.getLength(obj) == 0){
+            return EMPTY_ARRAY;
+        }
+        //按估算的长度一次分配StringBuilder的容量
+        return appendNullSafeString(new StringBuilder(0),obj,maxElements).toString();
     }
 
     /**
-     * 将整数数组转为指定格式的数组
-     * @param arr 整数数组对象
+     * 将Object数组转为指定格式的字符串
+     * @param arr 数组对象
      * @return
      */
-    public static String nullSafeToString(@Nullable int[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
-
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
-        }
-
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(int obj : arr){
-            sj.add(String.valueOf(obj));
-        }
+    public static String nullSafeToString(@Nullable Object[] arr){
+        return nullSafeToString((Object) arr,-1);
+    }
 
-        return sj.toString();
+    /**
+     * 将boolean数组转为指定格式的字符串
+     * @param arr 数组对象
+     * @return
+     */
+    public static String nullSafeToString(@Nullable boolean[] arr){
+        return nullSafeToString((Object) arr,-1);
     }
 
+    /**
+     * 将byte数组转为指定格式的字符串
+     * @param arr 数组对象
+     * @return
+     */
+    public static String nullSafeToString(@Nullable byte[] arr){
+        return nullSafeToString((Object) arr,-1);
+    }
 
     /**
-     * 将短整数数组转为指定格式的数组
-     * @param arr 短整数数组对象
+     * 将char数组转为指定格式的字符串
+     * @param arr 数组对象
      * @return
      */
-    public static String nullSafeToString(@Nullable short[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
+    public static String nullSafeToString(@Nullable char[] arr){
+        return nullSafeToString((Object) arr,-1);
+    }
 
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
-        }
+    /**
+     * 将double数组转为指定格式的字符串
+     * @param arr 数组对象
+     * @return
+     */
+    public static String nullSafeToString(@Nullable double[] arr){
+        return nullSafeToString((Object) arr,-1);
+    }
 
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(short obj : arr){
-            sj.add(String.valueOf(obj));
-        }
+    /**
+     * 将float数组转为指定格式的字符串
+     * @param arr 数组对象
+     * @return
+     */
+    public static String nullSafeToString(@Nullable float[] arr){
+        return nullSafeToString((Object) arr,-1);
+    }
 
-        return sj.toString();
+    /**
+     * 将int数组转为指定格式的字符串
+     * @param arr 数组对象
+     * @return
+     */
+    public static String nullSafeToString(@Nullable int[] arr){
+        return nullSafeToString((Object) arr,-1);
     }
 
     /**
-     * 将长整数数组转为指定格式的数组
-     * @param arr 长整数数组对象
+     * 将long数组转为指定格式的字符串
+     * @param arr 数组对象
      * @return
      */
     public static String nullSafeToString(@Nullable long[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
-
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
-        }
-
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(long obj : arr){
-            sj.add(String.valueOf(obj));
-        }
-
-        return sj.toString();
+        return nullSafeToString((Object) arr,-1);
     }
 
     /**
-     * 将双精度小数组转为指定格式的数组
-     * @param arr 双精度小数数组对象
+     * 将short数组转为指定格式的字符串
+     * @param arr 数组对象
      * @return
      */
-    public static String nullSafeToString(@Nullable double[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
-
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
-        }
-
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(double obj : arr){
-            sj.add(String.valueOf(obj));
-        }
+    public static String nullSafeToString(@Nullable short[] arr){
+        return nullSafeToString((Object) arr,-1);
+    }
 
-        return sj.toString();
+    /**
+     * 把对象的字符串追加到StringBuilder，数组的元素直接写入，不创建整个数组的临时字符串
+     * @param sb StringBuilder
+     * @param obj 对象
+     * @return 传入的StringBuilder
+     */
+    public static StringBuilder appendNullSafeString(StringBuilder sb,@Nullable Object obj){
+        return appendNullSafeString(sb,obj,-1);
     }
 
     /**
-     * 将小数组转为指定格式的数组
-     * @param arr 小数数组对象
-     * @return
+     * 把对象的字符串追加到StringBuilder，数组超过指定元素个数时省略剩余元素
+     * @param sb StringBuilder
+     * @param obj 对象
+     * @param maxElements 数组最多输出的元素个数，为负数时输出全部元素
+     * @return 传入的StringBuilder
      */
-    public static String nullSafeToString(@Nullable float[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
+    public static StringBuilder appendNullSafeString(StringBuilder sb,@Nullable Object obj,int maxElements){
+        Assert.notNull(sb,"StringBuilder must not be null");
+        if(obj != null && obj.getClass().isArray()){
+            int length = Array.getLength(obj);
+            ArrayStrategy strategy = ARRAY_STRATEGIES.get(obj.getClass());
+            sb.ensureCapacity(sb.length() + strategy.estimateLength(elementCount(length,maxElements)));
+        }
+        try{
+            appendNullSafeString((Appendable) sb,obj,maxElements);
+        }catch (IOException ex){
+            //StringBuilder不会抛出IOException
+            throw new IllegalStateException(ex);
+        }
+        return sb;
+    }
 
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
+    /**
+     * 把对象的字符串追加到输出，数组超过指定元素个数时省略剩余元素
+     * @param out 输出，例如Writer
+     * @param obj 对象
+     * @param maxElements 数组最多输出的元素个数，为负数时输出全部元素
+     * @return 传入的输出
+     * @throws IOException 输出写入失败
+     */
+    public static <A extends Appendable> A appendNullSafeString(A out,@Nullable Object obj,int maxElements) throws IOException {
+        Assert.notNull(out,"Appendable must not be null");
+        if(obj == null){
+            out.append(NULL_STRING);
+            return out;
         }
 
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(float obj : arr){
-            sj.add(String.valueOf(obj));
+        Class<?> clazz = obj.getClass();
+        if(!clazz.isArray()){
+            String str = obj.toString();
+            out.append(str != null?str:EMPTY_STRING);
+            return out;
         }
 
-        return sj.toString();
+        appendArray(out,obj,ARRAY_STRATEGIES.get(clazz),Array.getLength(obj),maxElements);
+        return out;
     }
 
     /**
-     * 将字符数组转为指定格式的数组
-     * @param arr 字符数组对象
+     * 获取数组输出的元素个数
+     * @param length 数组长度
+     * @param maxElements 最多输出的元素个数，为负数时输出全部元素
      * @return
      */
-    public static String nullSafeToString(@Nullable char[] arr){
-        if(arr == null){
-            return NULL_STRING;
-        }
+    private static int elementCount(int length,int maxElements){
+        return maxElements >= 0 && maxElements < length ? maxElements : length;
+    }
 
-        if(arr.length == 0){
-            return EMPTY_ARRAY;
+    /**
+     * 把数组追加到输出，格式为{a,b,c}，超过指定元素个数时以...结尾
+     * @param out 输出
+     * @param array 数组
+     * @param strategy 数组类型对应的策略
+     * @param length 数组长度
+     * @param maxElements 最多输出的元素个数，为负数时输出全部元素
+     * @throws IOException
+     */
+    private static void appendArray(Appendable out,Object array,ArrayStrategy strategy,int length,int maxElements) throws IOException {
+        int count = elementCount(length,maxElements);
+        out.append(ARRAY_START);
+        for(int i = 0;i < count;i++){
+            if(i > 0){
+                out.append(ARRAY_SEPERATOR);
+            }
+            strategy.appendElement(out,array,i);
         }
-
-        StringJoiner sj = new StringJoiner(ARRAY_SEPERATOR,ARRAY_START,ARRAY_END);
-        for(char obj : arr){
-            sj.add(String.valueOf(obj));
+        if(count < length){
+            if(count > 0){
+                out.append(ARRAY_SEPERATOR);
+            }
+            out.append(ARRAY_ELLIPSIS);
         }
-
-        return sj.toString();
+        out.append(ARRAY_END);
     }
-
-
 }
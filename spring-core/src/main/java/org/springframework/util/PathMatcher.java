@@ -0,0 +1,30 @@
+package org.springframework.util;
+
+/**
+ * 路径匹配器
+ */
+public interface PathMatcher {
+
+    /**
+     * 判断路径是否为需要匹配的模式
+     * @param path 路径
+     * @return
+     */
+    boolean isPattern(String path);
+
+    /**
+     * 判断路径是否完全匹配模式
+     * @param pattern 模式
+     * @param path 路径
+     * @return
+     */
+    boolean match(String pattern,String path);
+
+    /**
+     * 判断路径是否匹配模式的开始部分，用于判断是否需要继续扫描子目录
+     * @param pattern 模式
+     * @param path 路径
+     * @return
+     */
+    boolean matchStart(String pattern,String path);
+}
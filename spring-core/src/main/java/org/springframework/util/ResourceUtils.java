@@ -83,10 +83,137 @@ public abstract class ResourceUtils {
      */
     public static final String WAR_URL_SEPARATOR = "*/";
 
+    /**
+     * 资源路径的类型
+     */
+    public enum LocationType {
+
+        /**
+         * classpath:前缀的类路径资源
+         */
+        CLASSPATH,
+
+        /**
+         * file协议的文件资源
+         */
+        FILE,
+
+        /**
+         * jar、zip、wsjar协议的压缩包资源
+         */
+        JAR,
+
+        /**
+         * war协议的资源
+         */
+        WAR,
+
+        /**
+         * vfs、vfsfile、vfszip协议的虚拟文件资源
+         */
+        VFS,
+
+        /**
+         * 其他协议的资源定位符，如http、ftp
+         */
+        URL,
+
+        /**
+         * 不带协议的普通路径，包括windows盘符路径，如"/root/test.txt"、"C:/test.txt"
+         */
+        PATH
+    }
+
 
 
 
 
+    /**
+     * 判断资源路径的类型，只扫描协议部分，不抛出异常也不创建对象
+     * 协议名的规则和URL相同：字母开头，由字母、数字、"+"、"-"、"."组成，以":"结束，忽略大小写；
+     * 单个字母的协议视为windows盘符，按普通路径处理
+     * @param location 资源路径
+     * @return
+     */
+    public static LocationType classifyLocation(String location){
+        Assert.notNull(location,"Location must not be null");
+        if(location.startsWith(CLASSPATH_URL_PREFIX)){
+            return LocationType.CLASSPATH;
+        }
+
+        //和URL一样忽略开头的空白字符
+        int start = 0;
+        int length = location.length();
+        while(start < length && location.charAt(start) <= ' '){
+            start++;
+        }
+        int end = schemeEnd(location,start);
+        if(end - start < 2){
+            return LocationType.PATH;
+        }
+
+        int schemeLength = end - start;
+        if(isScheme(location,start,schemeLength,URL_PROTOCOL_FILE)){
+            return LocationType.FILE;
+        }
+        if(isScheme(location,start,schemeLength,URL_PROTOCOL_JAR) || isScheme(location,start,schemeLength,URL_PROTOCOL_ZIP)
+                || isScheme(location,start,schemeLength,URL_PROTOCOL_WSJAR)){
+            return LocationType.JAR;
+        }
+        if(isScheme(location,start,schemeLength,URL_PROTOCOL_WAR)){
+            return LocationType.WAR;
+        }
+        if(isScheme(location,start,schemeLength,URL_PROTOCOL_VFS) || isScheme(location,start,schemeLength,URL_PROTOCOL_VFSFILE)
+                || isScheme(location,start,schemeLength,URL_PROTOCOL_VFSZIP)){
+            return LocationType.VFS;
+        }
+        return LocationType.URL;
+    }
+
+    /**
+     * 获取协议名结束的位置，即":"的下标，没有合法的协议名时返回-1
+     * @param location 资源路径
+     * @param start 协议名开始的位置
+     * @return
+     */
+    private static int schemeEnd(String location,int start){
+        int length = location.length();
+        if(start >= length || !isAsciiLetter(location.charAt(start))){
+            return -1;
+        }
+        for(int i=start+1;i<length;i++){
+            char c = location.charAt(i);
+            if(c == ':'){
+                return i;
+            }
+            if(!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.'){
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 判断是否为ASCII字母
+     * @param c 字符
+     * @return
+     */
+    private static boolean isAsciiLetter(char c){
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * 判断路径中的协议名是否为给定的协议，忽略大小写
+     * @param location 资源路径
+     * @param start 协议名开始的位置
+     * @param schemeLength 协议名长度
+     * @param scheme 协议
+     * @return
+     */
+    private static boolean isScheme(String location,int start,int schemeLength,String scheme){
+        return schemeLength == scheme.length() && location.regionMatches(true,start,scheme,0,schemeLength);
+    }
+
     /**
      * 判断资源路径是否为有效的Url路径 "file:/root/test.txt" 或者 "/root/test.txt"
      * @param resourceLocation 资源路径地址
@@ -97,22 +224,28 @@ public abstract class ResourceUtils {
             return false;
         }
 
-        if(resourceLocation.startsWith(CLASSPATH_URL_PREFIX)){
+        LocationType locationType = classifyLocation(resourceLocation);
+        if(locationType == LocationType.CLASSPATH){
             return true;
         }
 
-        try {
-            new URL(resourceLocation);
-            return true;
-        } catch (MalformedURLException e) {
-            //转为文件资源
-            try{
-                new File(resourceLocation).toURI().toURL();
+        //普通路径不可能是Url，不需要通过异常判断
+        if(locationType != LocationType.PATH){
+            try {
+                new URL(resourceLocation);
                 return true;
-            }catch (MalformedURLException ex){
-                return false;
+            } catch (MalformedURLException e) {
+                //协议没有对应的处理器，转为文件资源
             }
         }
+
+        //转为文件资源
+        try{
+            new File(resourceLocation).toURI().toURL();
+            return true;
+        }catch (MalformedURLException ex){
+            return false;
+        }
     }
 
     /**
@@ -137,16 +270,19 @@ public abstract class ResourceUtils {
             return url;
         }
 
-        try{
-            return new URL(resourceLocation);
-        }catch(MalformedURLException e) {
-            //转为普通的文件资源,比如file1:1.txt
+        //普通路径不可能是Url，不需要通过异常判断
+        if(classifyLocation(resourceLocation) != LocationType.PATH){
             try{
-                return new File(resourceLocation).toURI().toURL();
-            }catch (MalformedURLException ex){
-                throw new FileNotFoundException(resourceLocation+"资源不存在");
+                return new URL(resourceLocation);
+            }catch(MalformedURLException e) {
+                //协议没有对应的处理器，转为普通的文件资源,比如file1:1.txt
             }
+        }
 
+        try{
+            return new File(resourceLocation).toURI().toURL();
+        }catch (MalformedURLException ex){
+            throw new FileNotFoundException(resourceLocation+"资源不存在");
         }
     }
 
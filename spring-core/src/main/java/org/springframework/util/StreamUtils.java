@@ -0,0 +1,169 @@
+package org.springframework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 流复制工具类，和FileCopyUtils不同，所有方法都不会关闭流和管道
+ */
+public abstract class StreamUtils {
+
+    /**
+     * 复制时缓冲区的大小
+     */
+    public static final int BUFFER_SIZE = 4096;
+
+    /**
+     * 读取输入流的全部内容
+     * @param in 输入流
+     * @return
+     * @throws IOException
+     */
+    public static byte[] copyToByteArray(InputStream in) throws IOException {
+        if(in == null){
+            return new byte[0];
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        copy(in,out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 读取输入流的全部内容，已知内容长度时直接分配对应长度的数组，不需要扩容和复制
+     * @param in 输入流
+     * @param expectedLength 预计的内容长度，未知时为负数；实际长度不同时仍然返回全部内容
+     * @return
+     * @throws IOException
+     */
+    public static byte[] copyToByteArray(InputStream in,int expectedLength) throws IOException {
+        if(in == null){
+            return new byte[0];
+        }
+        if(expectedLength < 0){
+            return copyToByteArray(in);
+        }
+        byte[] result = new byte[expectedLength];
+        int length = 0;
+        int bytesRead;
+        while(length < expectedLength && (bytesRead = in.read(result,length,expectedLength - length)) != -1){
+            length += bytesRead;
+        }
+        if(length < expectedLength){
+            return Arrays.copyOf(result,length);
+        }
+        int next = in.read();
+        if(next == -1){
+            return result;
+        }
+        //内容比预计的长，继续读取剩余内容
+        ByteArrayOutputStream out = new ByteArrayOutputStream(expectedLength + BUFFER_SIZE);
+        out.write(result,0,length);
+        out.write(next);
+        copy(in,out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 读取输入流的全部内容并转为字符串
+     * @param in 输入流
+     * @param charset 字符集
+     * @return
+     * @throws IOException
+     */
+    public static String copyToString(InputStream in,Charset charset) throws IOException {
+        if(in == null){
+            return "";
+        }
+        Assert.notNull(charset,"Charset must not be null");
+        return new String(copyToByteArray(in),charset);
+    }
+
+    /**
+     * 把字节数组写入输出流
+     * @param in 字节数组
+     * @param out 输出流
+     * @throws IOException
+     */
+    public static void copy(byte[] in,OutputStream out) throws IOException {
+        Assert.notNull(in,"No input byte array specified");
+        Assert.notNull(out,"No OutputStream specified");
+        out.write(in);
+        out.flush();
+    }
+
+    /**
+     * 把输入流的全部内容写入输出流
+     * @param in 输入流
+     * @param out 输出流
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static int copy(InputStream in,OutputStream out) throws IOException {
+        Assert.notNull(in,"No InputStream specified");
+        Assert.notNull(out,"No OutputStream specified");
+        int byteCount = 0;
+        byte[] buffer = BufferPool.acquireByteBuffer();
+        try{
+            int bytesRead;
+            while((bytesRead = in.read(buffer)) != -1){
+                out.write(buffer,0,bytesRead);
+                byteCount += bytesRead;
+            }
+        }finally {
+            BufferPool.releaseByteBuffer(buffer);
+        }
+        out.flush();
+        return byteCount;
+    }
+
+    /**
+     * 把输入管道的剩余内容写入输出管道
+     * 输入为文件管道时通过transferTo复制，内容不经过堆内存，文件之间复制时由操作系统直接完成；
+     * 否则通过池中的直接缓冲区复制
+     * @param in 输入管道
+     * @param out 输出管道
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static long copy(ReadableByteChannel in,WritableByteChannel out) throws IOException {
+        Assert.notNull(in,"No ReadableByteChannel specified");
+        Assert.notNull(out,"No WritableByteChannel specified");
+        long byteCount = 0;
+        if(in instanceof FileChannel){
+            FileChannel fileChannel = (FileChannel) in;
+            long position = fileChannel.position();
+            long size = fileChannel.size();
+            while(position + byteCount < size){
+                long transferred = fileChannel.transferTo(position + byteCount,size - position - byteCount,out);
+                if(transferred <= 0){
+                    //输出管道暂时不能写入，剩余内容通过缓冲区复制
+                    break;
+                }
+                byteCount += transferred;
+            }
+            fileChannel.position(position + byteCount);
+        }
+
+        ByteBuffer buffer = BufferPool.acquireDirectBuffer();
+        try{
+            while(in.read(buffer) != -1){
+                buffer.flip();
+                while(buffer.hasRemaining()){
+                    byteCount += out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }finally {
+            BufferPool.releaseDirectBuffer(buffer);
+        }
+        return byteCount;
+    }
+}
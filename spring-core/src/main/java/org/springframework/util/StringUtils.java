@@ -3,6 +3,7 @@ package org.springframework.util;
 import org.springframework.lang.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 字符串工具类
@@ -21,11 +22,19 @@ public abstract class StringUtils {
 
     public static final String[] EMPTY_STRING_ARRAY = new String[0];
 
-    private static final String TOP_PATH = "..";
+    /**
+     * 简化路径缓存的最大条目数
+     */
+    private static final int CLEANED_PATH_CACHE_LIMIT = 1024;
+
+    /**
+     * 原路径和简化后路径之间的关系缓存，超过上限时整体清空
+     */
+    private static final Map<String,String> cleanedPathCache = new ConcurrentHashMap<>(64);
 
-    private static final String CURRENT_PATH = ".";
     /**
      * 简化url路径
+     * 不需要简化的路径直接返回原字符串；需要简化的路径只扫描一遍字符数组，结果按路径缓存
      * @param path 路径
      * @return
      */
@@ -34,61 +43,148 @@ public abstract class StringUtils {
             return path;
         }
 
-        //讲window路径转为linux路径
-        String pathToUse = replace(path,WINDOWS_FOLDER_SEPARATOR,FLODER_SEPARATOR);
+        //没有windows分隔符也没有"."、".."目录的路径不需要简化
+        if(!needsCleaning(path)){
+            return path;
+        }
 
-        //如果没有相对路径符，直接返回
-        if(pathToUse.indexOf(".") == -1){
-            return pathToUse;
+        String cleanedPath = cleanedPathCache.get(path);
+        if(cleanedPath == null){
+            cleanedPath = doCleanPath(path);
+            if(cleanedPathCache.size() >= CLEANED_PATH_CACHE_LIMIT){
+                cleanedPathCache.clear();
+            }
+            cleanedPathCache.put(path,cleanedPath);
         }
+        return cleanedPath;
+    }
 
-        int preIndex = pathToUse.indexOf(":");
-        String prefix = "";
-        if(preIndex != -1){
-            prefix = pathToUse.substring(0,preIndex + 1);
+    /**
+     * 判断路径是否需要简化
+     * @param path 路径
+     * @return
+     */
+    private static boolean needsCleaning(String path){
+        if(path.indexOf('\\') != -1){
+            return true;
+        }
+        if(path.indexOf('.') == -1){
+            return false;
+        }
 
-            if(prefix.contains(FLODER_SEPARATOR)){
-                prefix = "";
-            }else{
-                pathToUse = pathToUse.substring(preIndex + 1);
+        int length = path.length();
+        int segmentStart = pathElementsStart(path);
+        for(int i=segmentStart;i<=length;i++){
+            if(i == length || path.charAt(i) == '/'){
+                int segmentLength = i - segmentStart;
+                if((segmentLength == 1 || segmentLength == 2) && path.charAt(segmentStart) == '.'
+                        && (segmentLength == 1 || path.charAt(segmentStart + 1) == '.')){
+                    return true;
+                }
+                segmentStart = i + 1;
             }
         }
+        return false;
+    }
 
-        if(pathToUse.startsWith(FLODER_SEPARATOR)){
-            prefix += FLODER_SEPARATOR;
-            pathToUse = pathToUse.substring(1);
+    /**
+     * 获取路径中第一个目录开始的位置，之前的部分为前缀，如"file:"、"/"、"file:/"
+     * 第一个":"之前出现分隔符时没有协议前缀
+     * @param path 路径，windows分隔符同样视为分隔符
+     * @return
+     */
+    private static int pathElementsStart(String path){
+        int prefixEnd = path.indexOf(':') + 1;
+        for(int i=0;i<prefixEnd;i++){
+            char c = path.charAt(i);
+            if(c == '/' || c == '\\'){
+                prefixEnd = 0;
+                break;
+            }
         }
+        if(prefixEnd < path.length() && (path.charAt(prefixEnd) == '/' || path.charAt(prefixEnd) == '\\')){
+            prefixEnd++;
+        }
+        return prefixEnd;
+    }
 
-        //获取路径中的目录
-        String[] pathArray = delimitedListToStringArray(pathToUse,FLODER_SEPARATOR);
-        List<String> pathElement = new ArrayList<>();
-        int top = 0;
-        for(int i=pathArray.length - 1;i >=0 ;i--){
-            String tempPath = pathArray[i];
+    /**
+     * 简化路径，从右向左遍历目录，保留的目录从右向左写入结果数组
+     * @param path 路径
+     * @return
+     */
+    private static String doCleanPath(String path){
+        char[] chars = path.toCharArray();
+        int length = chars.length;
+        boolean hasDot = false;
+        //讲window路径转为linux路径
+        for(int i=0;i<length;i++){
+            if(chars[i] == '\\'){
+                chars[i] = '/';
+            }else if(chars[i] == '.'){
+                hasDot = true;
+            }
+        }
+        //如果没有相对路径符，直接返回
+        if(!hasDot){
+            return new String(chars);
+        }
 
-            if(CURRENT_PATH.equals(tempPath)){
+        int elementsStart = pathElementsStart(path);
+        boolean absolute = elementsStart > 0 && chars[elementsStart - 1] == '/';
 
-            }else if(TOP_PATH.equals(tempPath)){
-                top ++;
-            }else{
-                if(top >0 ){
-                    top --;
+        //结果不会比原路径多出"./"以外的字符
+        char[] result = new char[length + 2];
+        int pos = result.length;
+        int elements = 0;
+        int top = 0;
+        if(elementsStart < length){
+            int segmentEnd = length;
+            for(int i=length-1;i>=elementsStart-1;i--){
+                if(i >= elementsStart && chars[i] != '/'){
+                    continue;
+                }
+                int segmentStart = i + 1;
+                int segmentLength = segmentEnd - segmentStart;
+                segmentEnd = i;
+                if(segmentLength == 1 && chars[segmentStart] == '.'){
+                    //当前目录
+                    continue;
+                }
+                if(segmentLength == 2 && chars[segmentStart] == '.' && chars[segmentStart + 1] == '.'){
+                    top++;
+                }else if(top > 0){
+                    top--;
                 }else{
-                    pathElement.add(0,tempPath);
+                    if(elements > 0){
+                        result[--pos] = '/';
+                    }
+                    pos -= segmentLength;
+                    System.arraycopy(chars,segmentStart,result,pos,segmentLength);
+                    elements++;
                 }
             }
         }
 
+        //无法抵消的上级目录
         for(int i=0;i<top;i++){
-            pathElement.add(0,TOP_PATH);
+            if(elements > 0){
+                result[--pos] = '/';
+            }
+            result[--pos] = '.';
+            result[--pos] = '.';
+            elements++;
         }
 
-        if(pathElement.size() == 1 &&pathElement.get(0).equals("")&& !prefix.endsWith(FLODER_SEPARATOR)){
-            pathElement.add(0,".");
+        //只剩下一个空目录且不是绝对路径时，用当前目录表示
+        if(elements == 1 && pos == result.length && !absolute){
+            result[--pos] = '/';
+            result[--pos] = '.';
         }
 
-
-        return prefix + collectionToDelimitedString(pathElement,FLODER_SEPARATOR);
+        pos -= elementsStart;
+        System.arraycopy(chars,0,result,pos,elementsStart);
+        return new String(result,pos,result.length - pos);
     }
 
     /**
@@ -214,6 +310,43 @@ public abstract class StringUtils {
         return toStringArray(result);
     }
 
+    /**
+     * 按分隔字符分割字符串，去掉每段前后的空白并忽略空段
+     * @param inString 输入字符串
+     * @param delimiters 分隔字符，其中任意一个字符都是分隔符
+     * @return
+     */
+    public static String[] tokenizeToStringArray(@Nullable String inString,String delimiters){
+        return tokenizeToStringArray(inString,delimiters,true,true);
+    }
+
+    /**
+     * 按分隔字符分割字符串
+     * @param inString 输入字符串
+     * @param delimiters 分隔字符，其中任意一个字符都是分隔符
+     * @param trimTokens 是否去掉每段前后的空白
+     * @param ignoreEmptyTokens 是否忽略空段
+     * @return
+     */
+    public static String[] tokenizeToStringArray(@Nullable String inString,String delimiters,boolean trimTokens,boolean ignoreEmptyTokens){
+        if(inString == null){
+            return EMPTY_STRING_ARRAY;
+        }
+
+        StringTokenizer st = new StringTokenizer(inString,delimiters);
+        List<String> tokens = new ArrayList<>();
+        while(st.hasMoreTokens()){
+            String token = st.nextToken();
+            if(trimTokens){
+                token = token.trim();
+            }
+            if(!ignoreEmptyTokens || token.length() > 0){
+                tokens.add(token);
+            }
+        }
+        return toStringArray(tokens);
+    }
+
     /**
      * 将字符串列表转为字符串数组
      * @param collection
@@ -0,0 +1,106 @@
+package org.springframework.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 测试AttributeAccessorSupport
+ */
+class AttributeAccessorSupportTests {
+
+    private static final String NAME = "name";
+
+    private static final String VALUE = "value";
+
+    @Test
+    void setAndGet(){
+        AttributeAccessor accessor = new SimpleAttributeAccessorSupport(false);
+        accessor.setAttribute(NAME,VALUE);
+        assertThat(accessor.getAttribute(NAME)).isEqualTo(VALUE);
+        assertThat(accessor.hasAttribute(NAME)).isTrue();
+        assertThat(accessor.getAttribute("missing")).isNull();
+    }
+
+    @Test
+    void setAndRemove(){
+        AttributeAccessor accessor = new SimpleAttributeAccessorSupport(false);
+        accessor.setAttribute(NAME,VALUE);
+        assertThat(accessor.removeAttribute(NAME)).isEqualTo(VALUE);
+        assertThat(accessor.hasAttribute(NAME)).isFalse();
+
+        accessor.setAttribute(NAME,VALUE);
+        accessor.setAttribute(NAME,null);
+        assertThat(accessor.hasAttribute(NAME)).isFalse();
+    }
+
+    /**
+     * 测试超过内联容量后按插入顺序返回属性名
+     */
+    @Test
+    void attributeNamesKeepInsertionOrder(){
+        for(boolean concurrent : new boolean[]{false,true}){
+            AttributeAccessor accessor = new SimpleAttributeAccessorSupport(concurrent);
+            List<String> names = new ArrayList<>();
+            for(int i=0;i<20;i++){
+                names.add("attribute" + i);
+                accessor.setAttribute("attribute" + i,i);
+            }
+            accessor.removeAttribute("attribute3");
+            names.remove("attribute3");
+            accessor.setAttribute("attribute5",-5);
+
+            assertThat(accessor.attributeNames()).containsExactlyElementsOf(names);
+            assertThat(accessor.getAttribute("attribute5")).isEqualTo(-5);
+            assertThat(accessor.getAttribute("attribute19")).isEqualTo(19);
+            assertThat(accessor.hasAttribute("attribute3")).isFalse();
+        }
+    }
+
+    @Test
+    void equalsIgnoresOrder(){
+        AttributeAccessorSupport accessor1 = new SimpleAttributeAccessorSupport(false);
+        AttributeAccessorSupport accessor2 = new SimpleAttributeAccessorSupport(true);
+        assertThat(accessor1).isEqualTo(accessor2);
+
+        accessor1.setAttribute("a",1);
+        accessor1.setAttribute("b",2);
+        accessor2.setAttribute("b",2);
+        accessor2.setAttribute("a",1);
+        assertThat(accessor1).isEqualTo(accessor2);
+        assertThat(accessor1.hashCode()).isEqualTo(accessor2.hashCode());
+
+        accessor2.removeAttribute("a");
+        assertThat(accessor1).isNotEqualTo(accessor2);
+    }
+
+    @Test
+    void concurrentWriters() throws InterruptedException{
+        AttributeAccessor accessor = new SimpleAttributeAccessorSupport(true);
+        int threads = 4;
+        int attributesPerThread = 200;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for(int t=0;t<threads;t++){
+            String prefix = "thread" + t + ".";
+            new Thread(() -> {
+                for(int i=0;i<attributesPerThread;i++){
+                    accessor.setAttribute(prefix + i,i);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        assertThat(accessor.attributeNames()).hasSize(threads * attributesPerThread);
+    }
+
+    private static class SimpleAttributeAccessorSupport extends AttributeAccessorSupport {
+
+        SimpleAttributeAccessorSupport(boolean concurrent){
+            super(concurrent);
+        }
+    }
+}
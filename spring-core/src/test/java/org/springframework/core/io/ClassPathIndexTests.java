@@ -0,0 +1,120 @@
+package org.springframework.core.io;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 测试ClassPathIndex
+ */
+class ClassPathIndexTests {
+
+    @Test
+    void lookupFromIndexFile() throws IOException {
+        File root = createDirectory("a.xml","sub/b.xml","sub/deep/c.xml");
+        File jar = createJar("META-INF/","META-INF/d.xml");
+        ClassPathIndex index = writeAndLoad(root,jar,new File(root,"missing"));
+
+        assertThat(index.getRoots()).hasSize(2);
+        assertThat(index.contains("sub/b.xml")).isTrue();
+        assertThat(index.contains("sub")).isTrue();
+        assertThat(index.contains("META-INF/d.xml")).isTrue();
+        assertThat(index.contains("sub/missing.xml")).isFalse();
+        assertThat(index.findRoot(root).getEntryNames("sub/",false)).containsExactly("sub/b.xml","sub/deep/c.xml");
+        assertThat(index.findRoot(root).getEntryNames("sub/",true)).containsExactly("sub/b.xml","sub/deep/","sub/deep/c.xml");
+    }
+
+    /**
+     * 测试目录中增加文件后不再使用该根的索引
+     */
+    @Test
+    void modifiedRootIsIgnored() throws IOException {
+        File root = createDirectory("a.xml","sub/b.xml");
+        File jar = createJar("c.xml");
+        File indexFile = new File(Files.createTempDirectory("index").toFile(),"classpath.idx");
+        ClassPathIndex.write(indexFile,Arrays.asList(root,jar));
+
+        File added = new File(root,"sub/added.xml");
+        Files.write(added.toPath(),new byte[0]);
+        added.getParentFile().setLastModified(added.getParentFile().lastModified() + 2000);
+
+        ClassPathIndex index = ClassPathIndex.load(indexFile);
+        assertThat(index.findRoot(root)).isNull();
+        assertThat(index.contains("a.xml")).isFalse();
+        assertThat(index.findRoot(jar)).isNotNull();
+        assertThat(index.contains("c.xml")).isTrue();
+    }
+
+    /**
+     * 测试加载索引之后根被修改，校验结果过期后不再使用该根的索引
+     */
+    @Test
+    void rootRevalidatedAfterInterval() throws IOException {
+        File root = createDirectory("a.xml","sub/b.xml");
+        ClassPathIndex index = writeAndLoad(root);
+        assertThat(index.contains("sub/b.xml")).isTrue();
+
+        File removed = new File(root,"sub/b.xml");
+        Files.delete(removed.toPath());
+        removed.getParentFile().setLastModified(removed.getParentFile().lastModified() + 2000);
+        assertThat(index.contains("sub/b.xml")).isTrue();
+
+        index.setValidationInterval(0);
+        assertThat(index.contains("sub/b.xml")).isFalse();
+        assertThat(index.findRoot(root)).isNull();
+    }
+
+    @Test
+    void patternResolutionFromIndex() throws IOException {
+        File root = createDirectory("a.xml","a.txt","sub/b.xml","sub/deep/c.xml");
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        resolver.setClassPathIndex(writeAndLoad(root));
+
+        Resource[] resources = resolver.getResources("file:" + root.getAbsolutePath() + "/sub/**/*.xml");
+        List<String> filenames = new ArrayList<>();
+        for(Resource resource : resources){
+            filenames.add(resource.getFilename());
+            assertThat(resource.exists()).isTrue();
+        }
+        assertThat(filenames).containsExactly("b.xml","c.xml");
+    }
+
+    private static ClassPathIndex writeAndLoad(File... roots) throws IOException {
+        File indexFile = new File(Files.createTempDirectory("index").toFile(),"classpath.idx");
+        indexFile.deleteOnExit();
+        ClassPathIndex.write(indexFile,Arrays.asList(roots));
+        return ClassPathIndex.load(indexFile);
+    }
+
+    private static File createDirectory(String... names) throws IOException {
+        File root = Files.createTempDirectory("classpath").toFile();
+        for(String name : names){
+            File file = new File(root,name);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(),name.getBytes());
+        }
+        return root;
+    }
+
+    private static File createJar(String... entryNames) throws IOException {
+        File jar = File.createTempFile("classpath",".jar");
+        jar.deleteOnExit();
+        try(JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))){
+            for(String entryName : entryNames){
+                out.putNextEntry(new JarEntry(entryName));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,101 @@
+package org.springframework.core.io;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * 测试JarIndexCache
+ */
+class JarIndexCacheTests {
+
+    @Test
+    void containsEntryAndPrefixQuery() throws IOException {
+        File jar = createJar("META-INF/a.xml","META-INF/sub/b.xml","org/example/Test.class");
+        JarIndexCache cache = new JarIndexCache(2);
+        try(JarIndexCache.Handle handle = cache.acquire(jar)){
+            assertThat(handle.containsEntry("META-INF/a.xml")).isTrue();
+            assertThat(handle.containsEntry("META-INF")).isTrue();
+            assertThat(handle.containsEntry("org/example/")).isTrue();
+            assertThat(handle.containsEntry("META")).isFalse();
+            assertThat(handle.containsEntry("org/other")).isFalse();
+            assertThat(handle.getEntryNames("META-INF/")).containsExactly("META-INF/a.xml","META-INF/sub/b.xml");
+        }
+        try(JarIndexCache.Handle handle = cache.acquire(jar)){
+            assertThat(handle.containsEntry("")).isTrue();
+        }
+        assertThat(cache.getOpenCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * 测试被淘汰的jar包在句柄释放之前仍然可用
+     */
+    @Test
+    void evictedJarStaysOpenWhileReferenced() throws IOException {
+        File jar1 = createJar("a.txt");
+        File jar2 = createJar("b.txt");
+        JarIndexCache cache = new JarIndexCache(1);
+        JarIndexCache.Handle handle = cache.acquire(jar1);
+        cache.acquire(jar2).close();
+
+        assertThat(cache.size()).isEqualTo(1);
+        InputStream in = handle.getInputStream("a.txt");
+        handle.close();
+        assertThatIllegalArgumentException().isThrownBy(() -> handle.getInputStream("a.txt"));
+
+        //输入流单独持有jar包的引用，句柄关闭后仍然可以读取
+        try{
+            assertThat(StreamUtils.copyToString(in,StandardCharsets.UTF_8)).isEqualTo("a.txt");
+        }finally {
+            in.close();
+        }
+    }
+
+    @Test
+    void readThroughSharedIndex() throws IOException {
+        File jar = createJar("META-INF/a.xml");
+        UrlResource resource = new UrlResource("jar:" + jar.toURI().toURL() + "!/META-INF/a.xml");
+        try(InputStream in = resource.getInputStream()){
+            assertThat(StreamUtils.copyToString(in,StandardCharsets.UTF_8)).isEqualTo("META-INF/a.xml");
+        }
+        assertThatExceptionOfType(FileNotFoundException.class).isThrownBy(
+                new UrlResource("jar:" + jar.toURI().toURL() + "!/META-INF/b.xml")::getInputStream);
+    }
+
+    @Test
+    void existsThroughSharedIndex() throws IOException {
+        File jar = createJar("META-INF/a.xml");
+        URL entryUrl = new URL("jar:" + jar.toURI().toURL() + "!/META-INF/a.xml");
+        assertThat(JarIndexCache.isIndexable(entryUrl)).isTrue();
+        assertThat(new UrlResource(entryUrl).exists()).isTrue();
+        assertThat(new UrlResource("jar:" + jar.toURI().toURL() + "!/META-INF/b.xml").exists()).isFalse();
+        assertThat(JarIndexCache.isIndexable(new URL("jar:file:/test.jar!/a%20b.txt"))).isFalse();
+    }
+
+    private static File createJar(String... entryNames) throws IOException {
+        File jar = File.createTempFile("index",".jar");
+        jar.deleteOnExit();
+        try(JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))){
+            for(String entryName : entryNames){
+                out.putNextEntry(new JarEntry(entryName));
+                out.write(entryName.getBytes());
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,205 @@
+package org.springframework.core.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 测试ResourceCache
+ */
+class ResourceCacheTests {
+
+    /**
+     * 测试超出条目上限时淘汰最久未访问的资源
+     */
+    @Test
+    void evictLeastRecentlyUsed(){
+        ResourceCache<String> cache = new ResourceCache<>(2);
+        Resource a = new DescriptiveResource("a");
+        Resource b = new DescriptiveResource("b");
+        Resource c = new DescriptiveResource("c");
+        cache.put(a,"A");
+        cache.put(b,"B");
+        assertThat(cache.get(a)).isEqualTo("A");
+        cache.put(c,"C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(b)).isNull();
+        assertThat(cache.get(a)).isEqualTo("A");
+        assertThat(cache.get(c)).isEqualTo("C");
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(3);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * 测试按权重限制容量
+     */
+    @Test
+    void evictByWeight(){
+        ResourceCache<String> cache = new ResourceCache<>(10,(resource,value) -> value.length());
+        cache.put(new DescriptiveResource("a"),"aaaa");
+        cache.put(new DescriptiveResource("b"),"bbbb");
+        assertThat(cache.getTotalWeight()).isEqualTo(8);
+        cache.put(new DescriptiveResource("c"),"cccc");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getTotalWeight()).isEqualTo(8);
+        assertThat(cache.containsKey(new DescriptiveResource("a"))).isFalse();
+    }
+
+    /**
+     * 测试文件被修改后缓存失效
+     * @throws IOException
+     */
+    @Test
+    void invalidateModifiedFile() throws IOException{
+        File file = File.createTempFile("resourceCache",".txt");
+        try{
+            Resource resource = new FileSystemResource(file);
+            ResourceCache<String> cache = new ResourceCache<>(4);
+            cache.put(resource,"parsed");
+            assertThat(cache.get(resource)).isEqualTo("parsed");
+
+            Files.write(file.toPath(),"changed".getBytes());
+            assertThat(file.setLastModified(resource.lastModified() + 2000)).isTrue();
+            assertThat(cache.get(resource)).isNull();
+            assertThat(cache.getInvalidationCount()).isEqualTo(1);
+            assertThat(cache.isEmpty()).isTrue();
+        }finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * 测试资源加载器按类型提供有界缓存
+     */
+    @Test
+    void resourceCacheOnLoader(){
+        DefaultResouceLoader loader = new DefaultResouceLoader();
+        loader.setResourceCacheLimit(1);
+        ResourceCache<String> cache = loader.getResourceCache(String.class);
+        assertThat(loader.getResourceCache(String.class)).isSameAs(cache);
+        assertThat(cache.getMaximumWeight()).isEqualTo(1);
+
+        loader.clearResourceCaches();
+        assertThat(loader.getResourceCache(String.class)).isNotSameAs(cache);
+    }
+
+    /**
+     * 测试资源加载器缓存路径解析结果
+     */
+    @Test
+    void memoizedResolutionOnLoader(){
+        DefaultResouceLoader loader = new DefaultResouceLoader();
+        loader.setResolvedResourceCacheLimit(256);
+        Resource resource = loader.getResource("classpath:org/springframework/core/io/Resource.class");
+        assertThat(loader.getResource("classpath:org/springframework/core/io/Resource.class")).isSameAs(resource);
+        assertThat(loader.getResolvedResourceHitCount()).isEqualTo(1);
+        assertThat(loader.getResolvedResourceMissCount()).isEqualTo(1);
+        assertThat(loader.getResolvedResourceHitRate()).isEqualTo(0.5);
+
+        //添加协议解析器后重新解析
+        Resource custom = new DescriptiveResource("custom");
+        loader.addProtocolResolver((location,resourceLoader) -> location.startsWith("classpath:") ? custom : null);
+        assertThat(loader.getResource("classpath:org/springframework/core/io/Resource.class")).isSameAs(custom);
+
+        loader.setResolvedResourceCacheLimit(0);
+        loader.getResource("file:/tmp/test.txt");
+        assertThat(loader.getResolvedResourceMissCount()).isEqualTo(2);
+    }
+
+    /**
+     * 测试默认不缓存路径解析结果，每次返回新的资源实例
+     */
+    @Test
+    void resolutionNotMemoizedByDefault(){
+        DefaultResouceLoader loader = new DefaultResouceLoader();
+        Resource resource = loader.getResource("classpath:org/springframework/core/io/Resource.class");
+        assertThat(loader.getResource("classpath:org/springframework/core/io/Resource.class"))
+                .isNotSameAs(resource).isEqualTo(resource);
+    }
+
+    /**
+     * 测试直接修改协议解析器集合后重新解析
+     */
+    @Test
+    void protocolResolverChangesClearMemoizedResolution(){
+        DefaultResouceLoader loader = new DefaultResouceLoader();
+        loader.setResolvedResourceCacheLimit(256);
+        Resource custom = new DescriptiveResource("custom");
+        ProtocolResolver resolver = (location,resourceLoader) -> location.startsWith("custom:") ? custom : null;
+        Resource before = loader.getResource("custom:test");
+
+        loader.getProtocolResolvers().add(resolver);
+        assertThat(loader.getResource("custom:test")).isSameAs(custom);
+
+        loader.getProtocolResolvers().remove(resolver);
+        assertThat(loader.getResource("custom:test")).isNotSameAs(custom).isEqualTo(before);
+    }
+
+    /**
+     * 测试权重超过上限的值不会被缓存，也不会淘汰其他条目
+     */
+    @Test
+    void skipOversizedValue(){
+        ResourceCache<String> cache = new ResourceCache<>(10,(resource,value) -> value.length());
+        Resource a = new DescriptiveResource("a");
+        Resource b = new DescriptiveResource("b");
+        cache.put(a,"aaaa");
+        cache.put(b,"bbbb");
+
+        assertThat(cache.put(new DescriptiveResource("c"),"ccccccccccc")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(0);
+
+        assertThat(cache.put(a,"aaaaaaaaaaaa")).isEqualTo("aaaa");
+        assertThat(cache.get(a)).isNull();
+        assertThat(cache.get(b)).isEqualTo("bbbb");
+        assertThat(cache.getTotalWeight()).isEqualTo(4);
+    }
+
+    /**
+     * 测试多个线程同时计算同一个资源的缓存值时只计算一次
+     * @throws Exception
+     */
+    @Test
+    void computeIfAbsentOncePerResource() throws Exception{
+        ResourceCache<String> cache = new ResourceCache<>(4);
+        Resource resource = new DescriptiveResource("a");
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<String>> results = new ArrayList<>();
+            for(int i=0;i<8;i++){
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.computeIfAbsent(resource,key -> {
+                        computations.incrementAndGet();
+                        return "A";
+                    });
+                }));
+            }
+            start.countDown();
+            for(Future<String> result : results){
+                assertThat(result.get()).isEqualTo("A");
+            }
+        }finally {
+            executor.shutdown();
+        }
+        assertThat(computations.get()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(7);
+    }
+}
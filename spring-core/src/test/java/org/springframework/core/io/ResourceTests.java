@@ -7,9 +7,20 @@ import org.springframework.util.FileCopyUtils;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
 
 
 /**
@@ -178,6 +189,37 @@ class ResourceTests {
         }
     }
 
+    @Test
+    void readByteBufferOnFileSystemResource() throws IOException{
+        FileSystemResource resource = new FileSystemResource(getClass().getResource("Resource.class").getFile());
+        byte[] expected = Files.readAllBytes(resource.getFile().toPath());
+
+        //读入堆内存
+        ByteBuffer heapBuffer = resource.readByteBuffer(Long.MAX_VALUE);
+        assertThat(heapBuffer.isReadOnly()).isTrue();
+        assertThat(heapBuffer.isDirect()).isFalse();
+        byte[] heapBytes = new byte[heapBuffer.remaining()];
+        heapBuffer.get(heapBytes);
+        assertThat(heapBytes).isEqualTo(expected);
+
+        //内存映射
+        ByteBuffer mappedBuffer = resource.readByteBuffer(0);
+        assertThat(mappedBuffer.isReadOnly()).isTrue();
+        assertThat(mappedBuffer.isDirect()).isTrue();
+        byte[] mappedBytes = new byte[mappedBuffer.remaining()];
+        mappedBuffer.get(mappedBytes);
+        assertThat(mappedBytes).isEqualTo(expected);
+
+        FileUrlResource urlResource = new FileUrlResource(resource.getURL());
+        assertThat(urlResource.readByteBuffer().remaining()).isEqualTo(expected.length);
+    }
+
+    @Test
+    void readByteBufferNotFoundOnFileSystemResource(){
+        assertThatExceptionOfType(FileNotFoundException.class).isThrownBy(()->((FileSystemResource)new FileSystemResource(getClass().
+                getResource("Resource.class").getFile()).createRelative("X")).readByteBuffer());
+    }
+
     @Test
     void inputStreamNotFoundOnFileSystemResource(){
         assertThatExceptionOfType(FileNotFoundException.class).
@@ -203,4 +245,174 @@ class ResourceTests {
                 new ClassPathResource("Resource.class",getClass()).createRelative("X").readableByteChannel());
     }
 
+    /**
+     * 测试一次探测获取文件资源元数据
+     * @throws IOException
+     */
+    @Test
+    void metadataOfFileUrlResource() throws IOException{
+        File file = File.createTempFile("metadata",".txt");
+        Files.write(file.toPath(),"testString".getBytes());
+        UrlResource resource = new UrlResource(file.toURI().toURL());
+
+        ResourceMetadata metadata = resource.getMetadata();
+        assertThat(metadata.exists()).isTrue();
+        assertThat(metadata.isReadable()).isTrue();
+        assertThat(metadata.contentLength()).isEqualTo(10);
+        assertThat(metadata.lastModified()).isEqualTo(file.lastModified());
+
+        file.delete();
+        assertThat(resource.getMetadata().exists()).isFalse();
+
+        UrlResource directory = new UrlResource(file.getParentFile().toURI().toURL());
+        assertThat(directory.getMetadata().exists()).isTrue();
+        assertThat(directory.getMetadata().isReadable()).isFalse();
+        assertThat(directory.exists()).isTrue();
+        directory.setMetadataTtl(60000);
+        assertThat(directory.exists()).isTrue();
+        assertThat(directory.isReadable()).isFalse();
+    }
+
+    /**
+     * 测试有效期内从快照中获取元数据
+     * @throws IOException
+     */
+    @Test
+    void metadataCachedWithinTtl() throws IOException{
+        File file = File.createTempFile("metadata",".txt");
+        Files.write(file.toPath(),"testString".getBytes());
+        UrlResource resource = new UrlResource(file.toURI().toURL());
+        resource.setMetadataTtl(60000);
+        assertThat(resource.exists()).isTrue();
+
+        file.delete();
+        assertThat(resource.exists()).isTrue();
+        assertThat(resource.contentLength()).isEqualTo(10);
+
+        resource.setMetadataTtl(0);
+        assertThat(resource.exists()).isFalse();
+    }
+
+    /**
+     * 测试通过异步文件管道读取文件资源
+     * @throws Exception
+     */
+    @Test
+    void readAsyncOnFileSystemResource() throws Exception{
+        byte[] content = new byte[20000];
+        for(int i=0;i<content.length;i++){
+            content[i] = (byte) i;
+        }
+        File file = File.createTempFile("async",".bin");
+        Files.write(file.toPath(),content);
+        FileSystemResource resource = new FileSystemResource(file);
+
+        ByteBuffer buffer = resource.readAsync().get();
+        assertThat(buffer.isReadOnly()).isTrue();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertThat(bytes).isEqualTo(content);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resource.readAsync(chunk -> {
+            byte[] chunkBytes = new byte[chunk.remaining()];
+            chunk.get(chunkBytes);
+            out.write(chunkBytes,0,chunkBytes.length);
+        }).get();
+        assertThat(out.toByteArray()).isEqualTo(content);
+    }
+
+    /**
+     * 测试在读取线程池中读取其他资源
+     * @throws Exception
+     */
+    @Test
+    void readAsyncOnByteArrayResource() throws Exception{
+        Resource resource = new ByteArrayResource("testString".getBytes());
+        ByteBuffer buffer = resource.readAsync().get();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertThat(new String(bytes)).isEqualTo("testString");
+    }
+
+    /**
+     * 测试并行判断多个位置的资源是否存在
+     * @throws IOException
+     */
+    @Test
+    void existsAllOnResourceLoader() throws IOException{
+        File file = File.createTempFile("bulk",".properties");
+        String existing = file.toURI().toURL().toString();
+        String missing = existing + ".missing";
+        String classPath = "classpath:org/springframework/core/io/Resource.class";
+        ResourceLoader resourceLoader = new DefaultResouceLoader();
+
+        Map<String,Boolean> exists = resourceLoader.existsAll(Arrays.asList(missing,existing,classPath));
+        assertThat(exists).containsExactly(entry(missing,false),entry(existing,true),entry(classPath,true));
+
+        List<Resource> resources = resourceLoader.getExistingResources(Arrays.asList(missing,existing,classPath));
+        assertThat(resources).hasSize(2);
+        assertThat(resources.get(0).getFilename()).isEqualTo(file.getName());
+        assertThat(resources.get(1).getFilename()).isEqualTo("Resource.class");
+    }
+
+    /**
+     * 测试位置数量超过批量操作线程池的队列长度时分批提交，不会被拒绝
+     */
+    @Test
+    void existsAllWithMoreLocationsThanQueueCapacity(){
+        List<String> locations = new ArrayList<>();
+        for(int i=0;i<3000;i++){
+            locations.add("file:/no/such/bulk" + i + ".txt");
+        }
+        Map<String,Boolean> exists = new DefaultResouceLoader().existsAll(locations);
+        assertThat(exists).hasSize(3000).doesNotContainValue(true);
+    }
+
+    /**
+     * 测试同时进行的读取达到上限时直接拒绝，不在调用线程中读取
+     * @throws Exception
+     */
+    @Test
+    void readAsyncRejectedWhenSaturated() throws Exception{
+        CountDownLatch release = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        Resource resource = new ByteArrayResource("testString".getBytes()) {
+            @Override
+            public InputStream getInputStream() {
+                assertThat(Thread.currentThread()).isNotSameAs(caller);
+                try{
+                    release.await();
+                }catch (InterruptedException ex){
+                    Thread.currentThread().interrupt();
+                }
+                return super.getInputStream();
+            }
+        };
+        List<CompletableFuture<ByteBuffer>> pending = new ArrayList<>();
+        try{
+            for(int i=0;i<ResourceExecutors.MAX_PENDING_READS;i++){
+                pending.add(resource.readAsync());
+            }
+            CompletableFuture<ByteBuffer> rejected = resource.readAsync();
+            assertThat(rejected).isCompletedExceptionally();
+            assertThatExceptionOfType(CompletionException.class).isThrownBy(rejected::join)
+                    .withCauseInstanceOf(RejectedExecutionException.class);
+        }finally {
+            release.countDown();
+        }
+        for(CompletableFuture<ByteBuffer> future : pending){
+            assertThat(future.get().remaining()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    void readAsyncNotFound(){
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(()->
+                new FileSystemResource("/no/such/file").readAsync().get()).withCauseInstanceOf(FileNotFoundException.class);
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(()->
+                new ClassPathResource("Resource.class",getClass()).createRelative("X").readAsync(chunk -> {}).get())
+                .withCauseInstanceOf(FileNotFoundException.class);
+    }
+
 }
@@ -0,0 +1,162 @@
+package org.springframework.core.io.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 测试PathMatchingResourcePatternResolver
+ */
+class PathMatchingResourcePatternResolverTests {
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    /**
+     * 测试并行扫描目录后按文件名顺序返回结果
+     */
+    @Test
+    void findFilesInDirectoryTree() throws IOException {
+        File root = createDirectoryTree();
+        String pattern = "file:" + root.getAbsolutePath() + "/**/*.xml";
+
+        Resource[] resources = this.resolver.getResources(pattern);
+        assertThat(filenames(resources)).containsExactly("a.xml","b.xml","c.xml","d.xml");
+        assertThat(this.resolver.getResources(pattern)).containsExactly(resources);
+
+        Resource[] topLevel = this.resolver.getResources("file:" + root.getAbsolutePath() + "/*.xml");
+        assertThat(filenames(topLevel)).containsExactly("a.xml");
+    }
+
+    @Test
+    void callbackReceivesAllResources() throws IOException {
+        File root = createDirectoryTree();
+        ConcurrentLinkedQueue<Resource> found = new ConcurrentLinkedQueue<>();
+        this.resolver.getResources("file:" + root.getAbsolutePath() + "/**/*.xml",found::add);
+
+        List<String> names = filenames(found.toArray(new Resource[0]));
+        Collections.sort(names);
+        assertThat(names).containsExactly("a.xml","b.xml","c.xml","d.xml");
+    }
+
+    /**
+     * 测试默认在扫描专用的线程池中扫描，不占用公共线程池
+     */
+    @Test
+    void scanOnDedicatedPool() throws IOException {
+        File root = createDirectoryTree();
+        ConcurrentLinkedQueue<String> threadNames = new ConcurrentLinkedQueue<>();
+        this.resolver.getResources("file:" + root.getAbsolutePath() + "/**/*.xml",resource -> threadNames.add(Thread.currentThread().getName()));
+
+        assertThat(this.resolver.getForkJoinPool()).isNotSameAs(ForkJoinPool.commonPool());
+        assertThat(threadNames).hasSize(4).allMatch(name -> name.startsWith("resource-scan-"));
+    }
+
+    @Test
+    void streamResources() throws IOException {
+        File root = createDirectoryTree();
+        List<String> names;
+        try(Stream<Resource> stream = this.resolver.streamResources("file:" + root.getAbsolutePath() + "/sub/**/*.xml")){
+            names = stream.map(Resource::getFilename).sorted().collect(Collectors.toList());
+        }
+        assertThat(names).containsExactly("b.xml","c.xml","d.xml");
+    }
+
+    /**
+     * 测试流式结果的缓冲有上限，关闭流后扫描任务停止
+     */
+    @Test
+    void closingStreamStopsScan() throws IOException {
+        File root = Files.createTempDirectory("resolver").toFile();
+        for(int i=0;i<600;i++){
+            write(new File(root,"file" + i + ".xml"));
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try{
+            this.resolver.setForkJoinPool(pool);
+            Stream<Resource> stream = this.resolver.streamResources("file:" + root.getAbsolutePath() + "/*.xml");
+            assertThat(stream.iterator().next()).isNotNull();
+            //缓冲已满，扫描任务等待消费者
+            assertThat(pool.awaitQuiescence(200,TimeUnit.MILLISECONDS)).isFalse();
+
+            stream.close();
+            assertThat(pool.awaitQuiescence(5,TimeUnit.SECONDS)).isTrue();
+        }finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void findEntriesInJar() throws IOException {
+        File jar = File.createTempFile("resolver",".jar");
+        jar.deleteOnExit();
+        try(JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))){
+            for(String name : new String[]{"META-INF/a.xml","META-INF/sub/b.xml","META-INF/c.txt","other/d.xml"}){
+                out.putNextEntry(new JarEntry(name));
+                out.write(name.getBytes());
+                out.closeEntry();
+            }
+        }
+        String jarRoot = "jar:" + jar.toURI().toURL() + "!/";
+
+        Resource[] resources = this.resolver.getResources(jarRoot + "META-INF/**/*.xml");
+        assertThat(filenames(resources)).containsExactly("a.xml","b.xml");
+        assertThat(resources[0].exists()).isTrue();
+    }
+
+    @Test
+    void nonPatternLocation() throws IOException {
+        Resource[] resources = this.resolver.getResources("file:/no/such/file.xml");
+        assertThat(resources).hasSize(1);
+        assertThat(resources[0].exists()).isFalse();
+    }
+
+    @Test
+    void determineRootDir(){
+        assertThat(this.resolver.determineRootDir("classpath*:META-INF/**/*.xml")).isEqualTo("classpath*:META-INF/");
+        assertThat(this.resolver.determineRootDir("file:/root/*/a.xml")).isEqualTo("file:/root/");
+        assertThat(this.resolver.determineRootDir("classpath*:*.xml")).isEqualTo("classpath*:");
+    }
+
+    private static File createDirectoryTree() throws IOException {
+        File root = Files.createTempDirectory("resolver").toFile();
+        write(new File(root,"a.xml"));
+        write(new File(root,"a.txt"));
+        write(new File(root,"sub/b.xml"));
+        write(new File(root,"sub/c.xml"));
+        write(new File(root,"sub/deep/d.xml"));
+        write(new File(root,"sub/deep/e.properties"));
+        return root;
+    }
+
+    private static void write(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        try(OutputStream out = Files.newOutputStream(file.toPath())){
+            out.write(file.getName().getBytes());
+        }
+        file.deleteOnExit();
+    }
+
+    private static List<String> filenames(Resource[] resources){
+        List<String> names = new ArrayList<>();
+        for(Resource resource : resources){
+            names.add(resource.getFilename());
+        }
+        return names;
+    }
+}
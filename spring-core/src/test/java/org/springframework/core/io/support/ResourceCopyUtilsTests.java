@@ -0,0 +1,42 @@
+package org.springframework.core.io.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 测试ResourceCopyUtils
+ */
+class ResourceCopyUtilsTests {
+
+    @Test
+    void copyBetweenFileSystemResources() throws IOException {
+        File source = File.createTempFile("source",".txt");
+        Files.write(source.toPath(),"testString".getBytes());
+        File target = new File(source.getParentFile(),source.getName() + ".copy");
+        target.deleteOnExit();
+
+        assertThat(ResourceCopyUtils.copy(new FileSystemResource(source),new FileSystemResource(target))).isEqualTo(10);
+        assertThat(Files.readAllBytes(target.toPath())).isEqualTo("testString".getBytes());
+
+        assertThat(ResourceCopyUtils.copy(new ByteArrayResource("test".getBytes()),new FileSystemResource(target))).isEqualTo(4);
+        assertThat(Files.readAllBytes(target.toPath())).isEqualTo("test".getBytes());
+    }
+
+    @Test
+    void copyToString() throws IOException {
+        File source = File.createTempFile("source",".txt");
+        source.deleteOnExit();
+        Files.write(source.toPath(),"testString".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(ResourceCopyUtils.copyToString(new FileSystemResource(source),StandardCharsets.UTF_8)).isEqualTo("testString");
+        assertThat(ResourceCopyUtils.copyToString(new ByteArrayResource("test".getBytes()),StandardCharsets.UTF_8)).isEqualTo("test");
+    }
+}
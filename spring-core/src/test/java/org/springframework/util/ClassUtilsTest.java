@@ -0,0 +1,47 @@
+package org.springframework.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassUtilsTest {
+
+    @Test
+    void isAssignableValueWithPrimitivesAndWrappers() {
+        assertThat(ClassUtils.isAssignableValue(int.class, Integer.class)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(Integer.class, int.class)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(Number.class, long.class)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(Object.class, int.class)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(char.class, Character.class)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(int.class, Long.class)).isFalse();
+        assertThat(ClassUtils.isAssignableValue(Integer.class, long.class)).isFalse();
+    }
+
+    /**
+     * 测试重复判断时缓存的结果和第一次相同
+     */
+    @Test
+    void isAssignableValueRepeated() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(ClassUtils.isAssignableValue(CharSequence.class, String.class)).isTrue();
+            assertThat(ClassUtils.isAssignableValue(String.class, CharSequence.class)).isFalse();
+        }
+    }
+
+    @Test
+    void isAssignableValueWithValue() {
+        assertThat(ClassUtils.isAssignableValue(int.class, (Object) 5)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(String.class, (Object) 5)).isFalse();
+        assertThat(ClassUtils.isAssignableValue(Integer.class, (Object) null)).isTrue();
+        assertThat(ClassUtils.isAssignableValue(int.class, (Object) null)).isFalse();
+    }
+
+    @Test
+    void matchesTypeName() {
+        assertThat(ClassUtils.matchesTypeName(String.class, "String")).isTrue();
+        assertThat(ClassUtils.matchesTypeName(String.class, "java.lang.String")).isTrue();
+        assertThat(ClassUtils.matchesTypeName(int[].class, "int[]")).isTrue();
+        assertThat(ClassUtils.matchesTypeName(String.class, "Str")).isFalse();
+        assertThat(ClassUtils.matchesTypeName(String.class, null)).isFalse();
+    }
+}
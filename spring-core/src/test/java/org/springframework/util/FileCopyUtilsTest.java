@@ -0,0 +1,86 @@
+package org.springframework.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class FileCopyUtilsTest {
+
+    private static final byte[] CONTENT = new byte[200000];
+
+    static {
+        new Random(42).nextBytes(CONTENT);
+    }
+
+    @Test
+    void copyFileOverwritesTarget() throws Exception {
+        File in = File.createTempFile("copy",".bin");
+        File out = File.createTempFile("copy",".bin");
+        Files.write(in.toPath(),CONTENT);
+        Files.write(out.toPath(),new byte[CONTENT.length * 2]);
+
+        assertThat(FileCopyUtils.copy(in,out)).isEqualTo(CONTENT.length);
+        assertThat(Files.readAllBytes(out.toPath())).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void copyMissingFile(){
+        assertThatExceptionOfType(FileNotFoundException.class).isThrownBy(() ->
+                FileCopyUtils.copy(new File("/no/such/file"),File.createTempFile("copy",".bin")));
+    }
+
+    @Test
+    void copyChannels() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = FileCopyUtils.copy(Channels.newChannel(new ByteArrayInputStream(CONTENT)),Channels.newChannel(out));
+        assertThat(count).isEqualTo(CONTENT.length);
+        assertThat(out.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    /**
+     * 测试从文件管道的当前位置开始复制，并且不关闭管道
+     */
+    @Test
+    void streamUtilsCopyFromFileChannelPosition() throws Exception {
+        File in = File.createTempFile("copy",".bin");
+        Files.write(in.toPath(),CONTENT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(FileChannel channel = FileChannel.open(in.toPath())){
+            channel.position(100);
+            assertThat(StreamUtils.copy(channel,Channels.newChannel(out))).isEqualTo(CONTENT.length - 100);
+            assertThat(channel.isOpen()).isTrue();
+            assertThat(channel.position()).isEqualTo(CONTENT.length);
+        }
+        assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(CONTENT,100,CONTENT.length));
+    }
+
+    /**
+     * 测试预计长度和实际长度不同时仍然读取全部内容
+     */
+    @Test
+    void copyToByteArrayWithExpectedLength() throws Exception {
+        assertThat(StreamUtils.copyToByteArray(new ByteArrayInputStream(CONTENT),CONTENT.length)).isEqualTo(CONTENT);
+        assertThat(StreamUtils.copyToByteArray(new ByteArrayInputStream(CONTENT),100)).isEqualTo(CONTENT);
+        assertThat(StreamUtils.copyToByteArray(new ByteArrayInputStream(CONTENT),CONTENT.length + 100)).isEqualTo(CONTENT);
+        assertThat(StreamUtils.copyToByteArray(new ByteArrayInputStream(CONTENT),-1)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void copyToStringFromReader() throws Exception {
+        String content = new String(CONTENT,StandardCharsets.ISO_8859_1);
+        assertThat(FileCopyUtils.copyToString(new StringReader(content))).isEqualTo(content);
+    }
+}
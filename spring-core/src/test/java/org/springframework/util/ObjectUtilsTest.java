@@ -0,0 +1,103 @@
+package org.springframework.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObjectUtilsTest {
+
+    @Test
+    void nullSafeHashCodeWithNonArray() {
+        assertThat(ObjectUtils.nullSafeHashCode((Object) null)).isEqualTo(0);
+        assertThat(ObjectUtils.nullSafeHashCode((Object) "test")).isEqualTo("test".hashCode());
+    }
+
+    /**
+     * 测试数组的哈希值和逐个元素计算的结果相同，覆盖不足4个元素的剩余部分
+     */
+    @Test
+    void nullSafeHashCodeWithPrimitiveArrays() {
+        Random random = new Random(42);
+        for(int length = 0;length < 10;length++){
+            int[] ints = random.ints(length).toArray();
+            long[] longs = random.longs(length).toArray();
+            int intHash = 7;
+            int longHash = 7;
+            for(int i = 0;i < length;i++){
+                intHash = 31 * intHash + ints[i];
+                longHash = 31 * longHash + Long.hashCode(longs[i]);
+            }
+            assertThat(ObjectUtils.nullSafeHashCode((Object) ints)).isEqualTo(intHash);
+            assertThat(ObjectUtils.nullSafeHashCode((Object) longs)).isEqualTo(longHash);
+        }
+    }
+
+    @Test
+    void nullSafeHashCodeWithLongArrayUsesLongHash() {
+        assertThat(ObjectUtils.nullSafeHashCode(new long[] {1L << 40})).isEqualTo(31 * 7 + Long.hashCode(1L << 40));
+    }
+
+    @Test
+    void nullSafeHashCodeWithObjectArray() {
+        Object[] array = {"a", new int[] {1, 2}, null};
+        int expected = 31 * (31 * (31 * 7 + "a".hashCode()) + ObjectUtils.nullSafeHashCode(new int[] {1, 2}));
+        assertThat(ObjectUtils.nullSafeHashCode((Object) array)).isEqualTo(expected);
+    }
+
+    @Test
+    void nullSafeEquals() {
+        assertThat(ObjectUtils.nullSafeEquals(null, null)).isTrue();
+        assertThat(ObjectUtils.nullSafeEquals("a", null)).isFalse();
+        assertThat(ObjectUtils.nullSafeEquals("a", "a")).isTrue();
+        assertThat(ObjectUtils.nullSafeEquals(new int[] {1, 2}, new int[] {1, 2})).isTrue();
+        assertThat(ObjectUtils.nullSafeEquals(new int[] {1, 2}, new int[] {2, 1})).isFalse();
+        assertThat(ObjectUtils.nullSafeEquals(new int[] {1}, new long[] {1})).isFalse();
+        assertThat(ObjectUtils.nullSafeEquals(new String[] {"a"}, new Object[] {"a"})).isTrue();
+        assertThat(ObjectUtils.nullSafeEquals("a", new Object[] {"a"})).isFalse();
+    }
+
+    @Test
+    void arrayEqualsWithNull() {
+        assertThat(ObjectUtils.arrayEquals(null, new int[] {1})).isFalse();
+        assertThat(ObjectUtils.arrayEquals(new int[] {1}, null)).isFalse();
+        assertThat(ObjectUtils.arrayEquals(null, null)).isFalse();
+        assertThat(ObjectUtils.arrayEquals(new int[] {1}, new int[] {1})).isTrue();
+    }
+
+    @Test
+    void nullSafeToStringWithNonStringObject() {
+        assertThat(ObjectUtils.nullSafeToString((Object) Integer.valueOf(5))).isEqualTo("5");
+        assertThat(ObjectUtils.nullSafeToString((Object) null)).isEqualTo("null");
+        assertThat(ObjectUtils.nullSafeToString((Object) new int[] {1, 2, 3})).isEqualTo("{1,2,3}");
+    }
+
+    @Test
+    void nullSafeToStringWithArrays() {
+        assertThat(ObjectUtils.nullSafeToString(new char[] {'a', 'b'})).isEqualTo("{a,b}");
+        assertThat(ObjectUtils.nullSafeToString(new Object[] {"a", null})).isEqualTo("{a,null}");
+        assertThat(ObjectUtils.nullSafeToString(new long[0])).isEqualTo("{}");
+        assertThat(ObjectUtils.nullSafeToString((long[]) null)).isEqualTo("null");
+    }
+
+    @Test
+    void nullSafeToStringWithMaxElements() {
+        assertThat(ObjectUtils.nullSafeToString(new long[] {1, 2, 3, 4}, 2)).isEqualTo("{1,2,...}");
+        assertThat(ObjectUtils.nullSafeToString(new long[] {1, 2}, 2)).isEqualTo("{1,2}");
+        assertThat(ObjectUtils.nullSafeToString(new long[] {1, 2}, 0)).isEqualTo("{...}");
+    }
+
+    @Test
+    void appendNullSafeString() throws Exception {
+        StringBuilder sb = new StringBuilder("values=");
+        assertThat(ObjectUtils.appendNullSafeString(sb, new short[] {7, 8})).isSameAs(sb);
+        assertThat(sb.toString()).isEqualTo("values={7,8}");
+
+        StringWriter writer = new StringWriter();
+        ObjectUtils.appendNullSafeString(writer, new byte[] {1, 2, 3}, 1).append('|');
+        ObjectUtils.appendNullSafeString(writer, null, 1);
+        assertThat(writer.toString()).isEqualTo("{1,...}|null");
+    }
+}
@@ -2,6 +2,7 @@ package org.springframework.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
@@ -53,6 +54,33 @@ class ResourceUtilsTest {
         assertThat(ResourceUtils.extractArchiveURL(new URL(null,"jar:war:file:mywar.war*/myjar.jar!/mypath",new DummyURLStreamHandler()))).isEqualTo(new URL("file:mywar.war"));
     }
 
+    @Test
+    void classifyLocation(){
+        assertThat(ResourceUtils.classifyLocation("classpath:org/springframework/util/ResourceUtils.class")).isEqualTo(ResourceUtils.LocationType.CLASSPATH);
+        assertThat(ResourceUtils.classifyLocation("file:/root/test.txt")).isEqualTo(ResourceUtils.LocationType.FILE);
+        assertThat(ResourceUtils.classifyLocation("FILE:/root/test.txt")).isEqualTo(ResourceUtils.LocationType.FILE);
+        assertThat(ResourceUtils.classifyLocation("jar:file:myjar.jar!/mypath")).isEqualTo(ResourceUtils.LocationType.JAR);
+        assertThat(ResourceUtils.classifyLocation("wsjar:file:myjar.jar!/mypath")).isEqualTo(ResourceUtils.LocationType.JAR);
+        assertThat(ResourceUtils.classifyLocation("war:file:mywar.war*/mypath")).isEqualTo(ResourceUtils.LocationType.WAR);
+        assertThat(ResourceUtils.classifyLocation("vfszip:/root/myjar.jar/mypath")).isEqualTo(ResourceUtils.LocationType.VFS);
+        assertThat(ResourceUtils.classifyLocation("http://myserver/myjar.jar")).isEqualTo(ResourceUtils.LocationType.URL);
+
+        assertThat(ResourceUtils.classifyLocation("/root/test.txt")).isEqualTo(ResourceUtils.LocationType.PATH);
+        assertThat(ResourceUtils.classifyLocation("test.txt")).isEqualTo(ResourceUtils.LocationType.PATH);
+        assertThat(ResourceUtils.classifyLocation("C:/test.txt")).isEqualTo(ResourceUtils.LocationType.PATH);
+        assertThat(ResourceUtils.classifyLocation("my dir/a:b")).isEqualTo(ResourceUtils.LocationType.PATH);
+        assertThat(ResourceUtils.classifyLocation("")).isEqualTo(ResourceUtils.LocationType.PATH);
+    }
+
+    @Test
+    void getURLForPlainPath() throws Exception{
+        assertThat(ResourceUtils.isURL("/root/test.txt")).isTrue();
+        assertThat(ResourceUtils.getURL("/root/test.txt")).isEqualTo(new File("/root/test.txt").toURI().toURL());
+        assertThat(ResourceUtils.getURL("file:/root/test.txt")).isEqualTo(new URL("file:/root/test.txt"));
+        //没有处理器的协议转为文件
+        assertThat(ResourceUtils.getURL("file1:1.txt")).isEqualTo(new File("file1:1.txt").toURI().toURL());
+    }
+
     private static class DummyURLStreamHandler extends URLStreamHandler{
         @Override
         protected URLConnection openConnection(URL u) throws IOException {
@@ -90,6 +90,16 @@ class StringUtilsTest {
         assertThat(StringUtils.cleanPath("file:///c:/some/../path/the%20file.txt")).isEqualTo("file:///c:/path/the%20file.txt");
     }
 
+    @Test
+    void cleanPathReturnsSameInstanceWhenClean() {
+        String path = "mypath/my.file";
+        assertThat(StringUtils.cleanPath(path)).isSameAs(path);
+        String windowsPath = "c:\\mypath\\..\\my.file";
+        assertThat(StringUtils.cleanPath(windowsPath)).isEqualTo("c:/my.file");
+        assertThat(StringUtils.cleanPath(windowsPath)).isEqualTo("c:/my.file");
+        assertThat(StringUtils.cleanPath("file:mypath/...")).isEqualTo("file:mypath/...");
+    }
+
 
     @Test
     void delimitedListToStringArrayWithComma() {